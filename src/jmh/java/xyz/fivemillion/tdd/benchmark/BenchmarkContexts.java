@@ -0,0 +1,61 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import xyz.fivemillion.tdd.TddApplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    /**
+     * 웹 서버 없이 임베디드 H2 위에 애플리케이션 컨텍스트를 띄운다. 벤치마크마다 독립된 DB 를 쓴다.
+     */
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        return start(WebApplicationType.NONE, extraProperties);
+    }
+
+    /**
+     * 임의 포트의 내장 Tomcat 과 함께 띄운다. 포트는 local.server.port 로 얻는다.
+     */
+    static ConfigurableApplicationContext startWeb(String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(extraProperties));
+        properties.add("server.port=0");
+
+        return start(WebApplicationType.SERVLET, properties.toArray(new String[0]));
+    }
+
+    /**
+     * reactive 프로파일로 임의 포트의 Netty 와 함께 띄운다. DB 는 프로파일에 정해진 H2 DB 를 JDBC 와 R2DBC 가 함께 쓴다.
+     */
+    static ConfigurableApplicationContext startReactiveWeb(String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(extraProperties));
+        properties.add("server.port=0");
+        properties.add("spring.profiles.active=reactive");
+
+        return start(WebApplicationType.REACTIVE, properties.toArray(new String[0]));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... extraProperties) {
+        // builder 의 properties 는 기본값이라 application.properties 에 있는 키는 덮지 못하므로, 벤치마크 설정은 명령행 인자로 넘긴다
+        String[] args = Arrays.stream(extraProperties)
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+
+        return new SpringApplicationBuilder(TddApplication.class)
+                .web(webApplicationType)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .run(args);
+    }
+}
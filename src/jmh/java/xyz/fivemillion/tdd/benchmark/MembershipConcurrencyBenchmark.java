@@ -0,0 +1,111 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.service.MembershipService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션 풀이 모자란 상황의 부하 테스트. 190 개 클라이언트가 DB 를 읽는 목록 API 를 계속 호출하는 동안
+ * 10 개 클라이언트가 DB 를 쓰지 않는 health 를 호출한다.
+ * sync 모드는 Tomcat 워커가 모두 커넥션을 기다리느라 health 처리량이 떨어지고,
+ * async 모드는 워커가 바로 반환되어 health 처리량이 유지되는 대신 넘치는 목록 요청은 503 으로 거절된다.
+ * 목록 요청은 성공(ok)과 거절(rejected)을 따로 세어 보고한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MembershipConcurrencyBenchmark {
+
+    private static final int USER_COUNT = 1000;
+
+    @Param({"sync", "async"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.startWeb(
+                "membership.async.enabled=" + "async".equals(mode),
+                "membership.async.pool-size=4",
+                "membership.async.queue-capacity=50",
+                "spring.datasource.hikari.maximum-pool-size=4",
+                "server.tomcat.threads.max=40",
+                "spring.cache.type=none",
+                "management.endpoints.web.exposure.include=health");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        MembershipService membershipService = context.getBean(MembershipService.class);
+        for (int i = 0; i < USER_COUNT; i++) {
+            for (MembershipType membershipType : MembershipType.values())
+                membershipService.addMembership(userId(i), membershipType, 0);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("saturated")
+    @GroupThreads(190)
+    public void getMembershipList(Responses responses) throws IOException, InterruptedException {
+        int status = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/membership/list"))
+                .header("X-USER-ID", userId(ThreadLocalRandom.current().nextInt(USER_COUNT))));
+
+        if (status == 200)
+            responses.ok++;
+        else
+            responses.rejected++;
+    }
+
+    @Benchmark
+    @Group("saturated")
+    @GroupThreads(10)
+    public int health() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")));
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Responses {
+
+        public long ok;
+        public long rejected;
+    }
+
+    private static String userId(int user) {
+        return "user-" + user;
+    }
+}
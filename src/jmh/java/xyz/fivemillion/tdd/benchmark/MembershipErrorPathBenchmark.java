@@ -0,0 +1,96 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import xyz.fivemillion.tdd.controller.DefaultRestController;
+import xyz.fivemillion.tdd.dto.ErrorResponse;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업무 오류 하나를 던지고 응답으로 바꾸기까지의 처리량.
+ * legacy 는 변경 전처럼 매번 스택 트레이스를 채우고 스택과 함께 로그를 남긴 뒤 ErrorResponse 를 Jackson 으로 직렬화하며,
+ * current 는 지금의 DefaultRestController 를 거쳐 미리 직렬화된 본문을 돌려받는다.
+ * stackDepth 는 예외가 만들어지는 호출 깊이로, 실제 요청은 필터와 프록시를 거쳐 100 프레임을 넘는다.
+ * 로그는 jmh 리소스의 logback.xml 설정에 따라 build/jmh-error-path.log 파일로 쓴다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class MembershipErrorPathBenchmark {
+
+    private static final Logger legacyLog = LoggerFactory.getLogger("benchmark.error-path.legacy");
+
+    @Param({"MEMBERSHIP_NOT_FOUND", "DUPLICATED_MEMBERSHIP_REGISTER"})
+    public MembershipError error;
+
+    @Param({"10", "150"})
+    public int stackDepth;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final DefaultRestController controller = new DefaultRestController() {
+    };
+
+    @Benchmark
+    public byte[] legacy() throws JsonProcessingException {
+        try {
+            throwAt(stackDepth, true);
+            throw new IllegalStateException();
+        } catch (LegacyMembershipException exception) {
+            legacyLog.warn("Membership Exception occur: ", exception);
+            Metrics.counter("membership.errors", "code", exception.errorCode.name()).increment();
+            ResponseEntity<ErrorResponse> response = ResponseEntity.status(exception.errorCode.getHttpStatus())
+                    .body(new ErrorResponse(exception.errorCode.name(), exception.errorCode.getDescription()));
+            return objectMapper.writeValueAsBytes(response.getBody());
+        }
+    }
+
+    @Benchmark
+    public byte[] current() {
+        try {
+            throwAt(stackDepth, false);
+            throw new IllegalStateException();
+        } catch (MembershipException exception) {
+            return controller.handleRestApiException(exception).getBody();
+        }
+    }
+
+    private void throwAt(int depth, boolean legacy) {
+        if (depth > 0) {
+            throwAt(depth - 1, legacy);
+            return;
+        }
+
+        if (legacy)
+            throw new LegacyMembershipException(error);
+        throw new MembershipException(error);
+    }
+
+    // 변경 전의 MembershipException 처럼 생성할 때마다 스택 트레이스를 채운다
+    private static final class LegacyMembershipException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final MembershipError errorCode;
+
+        private LegacyMembershipException(MembershipError errorCode) {
+            this.errorCode = errorCode;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.service.MembershipService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 게이트웨이처럼 요청 하나를 보낸 뒤 keep-alive 로 열어둔 유휴 연결이 많을 때의 처리량.
+ * servlet 은 Tomcat NIO 와 JDBC, reactive 는 reactive 프로파일의 Netty 와 R2DBC 로 같은 목록 API 를 부른다.
+ * 힙과 스레드 수는 -prof gc 와 jcmd Thread.print 로 함께 확인한다. 많은 연결을 열려면 ulimit -n 을 올려야 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class MembershipIdleConnectionBenchmark {
+
+    private static final int USER_COUNT = 1000;
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    @Param({"0", "5000"})
+    public int idleConnections;
+
+    private final List<Socket> idleSockets = new ArrayList<>();
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = "reactive".equals(stack) ? BenchmarkContexts.startReactiveWeb() : BenchmarkContexts.startWeb();
+        int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        baseUrl = "http://localhost:" + port;
+        httpClient = HttpClient.newHttpClient();
+
+        MembershipService membershipService = context.getBean(MembershipService.class);
+        for (int i = 0; i < USER_COUNT; i++)
+            membershipService.addMembership(userId(i), MembershipType.NAVER, 0);
+
+        byte[] request = ("GET /actuator/health HTTP/1.1\r\nHost: localhost\r\nConnection: keep-alive\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        byte[] buffer = new byte[4096];
+        for (int i = 0; i < idleConnections; i++) {
+            Socket socket = new Socket();
+            socket.connect(new InetSocketAddress("localhost", port));
+            OutputStream outputStream = socket.getOutputStream();
+            outputStream.write(request);
+            outputStream.flush();
+            // 응답을 받은 뒤 연결을 닫지 않고 유휴 상태로 둔다
+            InputStream inputStream = socket.getInputStream();
+            inputStream.read(buffer);
+            idleSockets.add(socket);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (Socket socket : idleSockets)
+            socket.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getMembershipList() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/membership/list"))
+                .header("X-USER-ID", userId(ThreadLocalRandom.current().nextInt(USER_COUNT)))
+                .build();
+
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String userId(int user) {
+        return "user-" + user;
+    }
+}
@@ -0,0 +1,90 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipRegistration;
+import xyz.fivemillion.tdd.service.MembershipService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 초당 등록 건수. allocationSize=1, jdbcBatchSize=1 이 기존 동작(등록마다 시퀀스 조회, batch 없음)이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MembershipInsertBenchmark {
+
+    private static final int BULK_SIZE = 1000;
+
+    // mariadb 는 H2 의 MariaDB 호환 모드로 실행한다
+    @Param({"h2", "mariadb"})
+    public String database;
+
+    @Param({"1", "50"})
+    public int allocationSize;
+
+    @Param({"1", "100"})
+    public int jdbcBatchSize;
+
+    private final AtomicLong userSequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private MembershipService membershipService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"
+                + ("mariadb".equals(database) ? ";MODE=MariaDB;DATABASE_TO_LOWER=TRUE" : "");
+
+        context = BenchmarkContexts.start(
+                "spring.datasource.url=" + url,
+                "spring.jpa.properties.membership.id.allocation-size=" + allocationSize,
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                "spring.jpa.properties.hibernate.order_inserts=true");
+        membershipService = context.getBean(MembershipService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long addMembership() {
+        return membershipService.addMembership(nextUserId(), MembershipType.NAVER, 0).getId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public List<MembershipAddResponse> addMemberships() {
+        List<MembershipRegistration> registrations = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++)
+            registrations.add(MembershipRegistration.builder()
+                    .userId(nextUserId())
+                    .membershipType(MembershipType.NAVER)
+                    .point(0)
+                    .build());
+
+        return membershipService.addMemberships(registrations);
+    }
+
+    private String nextUserId() {
+        return "user-" + userSequence.incrementAndGet();
+    }
+}
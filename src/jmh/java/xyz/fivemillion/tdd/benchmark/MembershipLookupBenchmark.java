@@ -0,0 +1,87 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 큰 테이블에서 (userId, membershipType) 조회 지연을 유니크 인덱스 유무에 따라 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MembershipLookupBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 10000;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private MembershipRepository membershipRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        membershipRepository = context.getBean(MembershipRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        if (!indexed)
+            jdbcTemplate.execute("alter table membership drop constraint uk_membership_user_id_membership_type");
+
+        List<Object[]> batchArgs = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batchArgs.add(new Object[]{i + 1L, userId(i), MembershipType.NAVER.name()});
+            if (batchArgs.size() == INSERT_BATCH_SIZE) {
+                insert(jdbcTemplate, batchArgs);
+                batchArgs.clear();
+            }
+        }
+        insert(jdbcTemplate, batchArgs);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Membership findByUserIdAndMembershipType() {
+        return membershipRepository.findByUserIdAndMembershipType(
+                userId(ThreadLocalRandom.current().nextInt(rows)), MembershipType.NAVER);
+    }
+
+    @Benchmark
+    public List<Membership> findAllByUserId() {
+        return membershipRepository.findAllByUserId(userId(ThreadLocalRandom.current().nextInt(rows)));
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batchArgs) {
+        jdbcTemplate.batchUpdate("insert into membership (id, user_id, membership_type, point, created_at) " +
+                "values (?, ?, ?, 0, current_timestamp)", batchArgs);
+    }
+
+    private static String userId(int user) {
+        return "user-" + user;
+    }
+}
@@ -0,0 +1,106 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 엔티티를 읽어 DTO 로 옮기는 방식과 DTO 프로젝션으로 바로 읽는 방식을 비교한다.
+ * 할당량은 gc 프로파일러의 gc.alloc.rate.norm 값으로 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MembershipReadBenchmark {
+
+    private static final int USER_COUNT = 10000;
+
+    private ConfigurableApplicationContext context;
+    private MembershipRepository membershipRepository;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        membershipRepository = context.getBean(MembershipRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        List<Membership> memberships = new ArrayList<>(USER_COUNT * MembershipType.values().length);
+        for (int i = 0; i < USER_COUNT; i++) {
+            for (MembershipType membershipType : MembershipType.values()) {
+                memberships.add(Membership.builder()
+                        .userId(userId(i))
+                        .membershipType(membershipType)
+                        .point(i)
+                        .build());
+            }
+        }
+        membershipRepository.saveAll(memberships);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MembershipDetailResponse detailEntity() {
+        return readOnlyTransaction.execute(status -> toDetailResponse(
+                membershipRepository.findByUserIdAndMembershipType(randomUserId(), MembershipType.NAVER)));
+    }
+
+    @Benchmark
+    public MembershipDetailResponse detailProjection() {
+        return readOnlyTransaction.execute(status ->
+                membershipRepository.findDetailByUserIdAndMembershipType(randomUserId(), MembershipType.NAVER));
+    }
+
+    @Benchmark
+    public List<MembershipDetailResponse> listEntity() {
+        return readOnlyTransaction.execute(status -> membershipRepository.findAllByUserId(randomUserId()).stream()
+                .map(MembershipReadBenchmark::toDetailResponse)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<MembershipDetailResponse> listProjection() {
+        return readOnlyTransaction.execute(status -> membershipRepository.findAllDetailByUserId(randomUserId()));
+    }
+
+    private static MembershipDetailResponse toDetailResponse(Membership membership) {
+        return MembershipDetailResponse.builder()
+                .id(membership.getId())
+                .point(membership.getPoint())
+                .membershipType(membership.getMembershipType())
+                .createdAt(membership.getCreatedAt())
+                .build();
+    }
+
+    private static String randomUserId() {
+        return userId(ThreadLocalRandom.current().nextInt(USER_COUNT));
+    }
+
+    private static String userId(int user) {
+        return "user-" + user;
+    }
+}
@@ -0,0 +1,93 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.FileSystemUtils;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.repository.DurableMembershipRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스냅샷과 WAL 로 맴버십을 복구하는 시간을 잰다. 마지막 10% 는 스냅샷 뒤의 WAL 에서 읽는다.
+ * 1000만 건은 힙이 넉넉해야 하므로 -jvmArgs -Xmx8g 처럼 늘려서 돌린다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MembershipRecoveryBenchmark {
+
+    private static final int SHARD_COUNT = 16;
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int SAVE_BATCH_SIZE = 10000;
+
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    private Path directory;
+    private DurableMembershipRepository recovered;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("membership-recovery");
+        DurableMembershipRepository repository = open(false);
+        int tail = rows / 10;
+        save(repository, 0, rows - tail);
+        repository.compact();
+        save(repository, rows - tail, rows);
+        repository.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeRecovered() {
+        if (recovered != null)
+            recovered.close();
+        recovered = null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long recover() {
+        recovered = open(true);
+        return recovered.count();
+    }
+
+    private DurableMembershipRepository open(boolean sync) {
+        return new DurableMembershipRepository(null, SHARD_COUNT, directory, SEGMENT_SIZE, sync, 10);
+    }
+
+    private static void save(DurableMembershipRepository repository, int from, int to) {
+        MembershipType[] types = MembershipType.values();
+        List<Membership> memberships = new ArrayList<>(SAVE_BATCH_SIZE);
+        for (int i = from; i < to; i++) {
+            memberships.add(Membership.builder()
+                    .userId("user" + i / types.length)
+                    .membershipType(types[i % types.length])
+                    .point(0)
+                    .build());
+            if (memberships.size() == SAVE_BATCH_SIZE) {
+                repository.saveAll(memberships);
+                memberships.clear();
+            }
+        }
+        repository.saveAll(memberships);
+    }
+}
@@ -0,0 +1,99 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * H2 위의 JPA 저장소와 메모리 저장소를 같은 MembershipRepository 호출로 비교한다.
+ * 적립은 서비스와 같이 트랜잭션 안에서 호출한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MembershipRepositoryBenchmark {
+
+    private static final int USER_COUNT = 100000;
+    private static final int SAVE_BATCH_SIZE = 10000;
+
+    @Param({"jpa", "memory"})
+    public String store;
+
+    private ConfigurableApplicationContext context;
+    private MembershipRepository membershipRepository;
+    private TransactionTemplate transactionTemplate;
+    private Long[] membershipIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("membership.repository.in-memory.enabled=" + store.equals("memory"));
+        membershipRepository = context.getBean(MembershipRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        membershipIds = new Long[USER_COUNT];
+        List<Membership> memberships = new ArrayList<>(SAVE_BATCH_SIZE);
+        for (int i = 0; i < USER_COUNT; i++) {
+            memberships.add(Membership.builder()
+                    .userId(userId(i))
+                    .membershipType(MembershipType.NAVER)
+                    .point(0)
+                    .build());
+            if (memberships.size() == SAVE_BATCH_SIZE) {
+                save(memberships, i + 1 - memberships.size());
+                memberships.clear();
+            }
+        }
+        save(memberships, USER_COUNT - memberships.size());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MembershipDetailResponse findDetail() {
+        return membershipRepository.findDetailByUserIdAndMembershipType(
+                userId(ThreadLocalRandom.current().nextInt(USER_COUNT)), MembershipType.NAVER);
+    }
+
+    @Benchmark
+    public List<MembershipDetailResponse> findAllDetail() {
+        return membershipRepository.findAllDetailByUserId(userId(ThreadLocalRandom.current().nextInt(USER_COUNT)));
+    }
+
+    @Benchmark
+    public Integer addPoint() {
+        int user = ThreadLocalRandom.current().nextInt(USER_COUNT);
+        return transactionTemplate.execute(status -> membershipRepository.addPoint(membershipIds[user], userId(user), 1));
+    }
+
+    private void save(List<Membership> memberships, int firstUser) {
+        List<Membership> saved = membershipRepository.saveAll(memberships);
+        for (int i = 0; i < saved.size(); i++)
+            membershipIds[firstUser + i] = saved.get(i).getId();
+    }
+
+    private static String userId(int user) {
+        return "user-" + user;
+    }
+}
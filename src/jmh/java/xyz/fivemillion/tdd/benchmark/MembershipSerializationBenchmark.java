@@ -0,0 +1,66 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MembershipSerializationBenchmark {
+
+    @Param({"3", "1000"})
+    public int size;
+
+    // 컨트롤러가 쓰는 것과 같은 설정의 ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class,
+                    (JsonSerializer<LocalDateTime>) (src, type, context) -> new JsonPrimitive(src.toString()))
+            .create();
+
+    private List<MembershipDetailResponse> membershipList;
+
+    @Setup
+    public void setUp() {
+        MembershipType[] membershipTypes = MembershipType.values();
+        membershipList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            membershipList.add(MembershipDetailResponse.builder()
+                    .id((long) i)
+                    .point(i * 100)
+                    .membershipType(membershipTypes[i % membershipTypes.length])
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] jackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(membershipList);
+    }
+
+    @Benchmark
+    public String gson() {
+        return gson.toJson(membershipList);
+    }
+}
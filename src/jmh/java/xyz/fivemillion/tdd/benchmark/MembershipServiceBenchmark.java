@@ -0,0 +1,76 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.service.MembershipService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MembershipServiceBenchmark {
+
+    private static final int USER_COUNT = 10000;
+
+    // none 이면 읽기 캐시를 끄고 DB 조회 비용만 잰다
+    @Param({"none", "caffeine"})
+    public String cacheType;
+
+    private final AtomicLong newUserSequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private MembershipService membershipService;
+    private long[] membershipIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("spring.cache.type=" + cacheType);
+        membershipService = context.getBean(MembershipService.class);
+
+        membershipIds = new long[USER_COUNT];
+        for (int i = 0; i < USER_COUNT; i++) {
+            membershipIds[i] = membershipService.addMembership(userId(i), MembershipType.NAVER, 0).getId();
+            membershipService.addMembership(userId(i), MembershipType.KAKAO, 0);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long addMembership() {
+        return membershipService.addMembership(
+                "new-" + newUserSequence.incrementAndGet(), MembershipType.LINE, 0).getId();
+    }
+
+    @Benchmark
+    public List<MembershipDetailResponse> getMembershipList() {
+        return membershipService.getMembershipList(userId(ThreadLocalRandom.current().nextInt(USER_COUNT)));
+    }
+
+    @Benchmark
+    public void accumulatePoint() {
+        int user = ThreadLocalRandom.current().nextInt(USER_COUNT);
+        membershipService.accumulatePoint(membershipIds[user], userId(user), 10000);
+    }
+
+    private static String userId(int user) {
+        return "user-" + user;
+    }
+}
@@ -0,0 +1,25 @@
+package xyz.fivemillion.tdd.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import xyz.fivemillion.tdd.service.RatePointService;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RatePointServiceBenchmark {
+
+    private final RatePointService ratePointService = new RatePointService();
+    private int price = 10000;
+
+    @Benchmark
+    public int calculateAmount() {
+        return ratePointService.calculateAmount(price);
+    }
+}
@@ -0,0 +1,63 @@
+package xyz.fivemillion.tdd.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 비동기 요청 처리 모드. 컨트롤러는 Callable 을 반환하고, 실제 처리는 커넥션 풀 크기에 맞춘 전용 스레드 풀에서 한다.
+ * Tomcat 워커는 DB 를 기다리지 않고 바로 반환되며, 풀과 대기열이 모두 차면 기다리지 않고 SERVICE_BUSY 로 응답한다.
+ * 내보내기는 한 건이 수십 분까지 스레드를 잡으므로 요청 처리 풀과 나눈 전용 풀에서 본문을 쓴다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "membership.async.enabled", havingValue = "true")
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    public static final String MEMBERSHIP_REQUEST_EXECUTOR = "membershipRequestExecutor";
+    public static final String MEMBERSHIP_EXPORT_EXECUTOR = "membershipExportExecutor";
+
+    private final int poolSize;
+    private final int queueCapacity;
+    private final int exportConcurrency;
+
+    public AsyncRequestConfig(
+            @Value("${membership.async.pool-size:10}") int poolSize,
+            @Value("${membership.async.queue-capacity:100}") int queueCapacity,
+            @Value("${membership.export.max-concurrent:1}") int exportConcurrency) {
+        this.poolSize = poolSize;
+        this.queueCapacity = queueCapacity;
+        this.exportConcurrency = exportConcurrency;
+    }
+
+    @Bean(MEMBERSHIP_REQUEST_EXECUTOR)
+    public ThreadPoolTaskExecutor membershipRequestExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("membership-request-");
+        executor.initialize();
+        return executor;
+    }
+
+    // 동시 실행 수는 허가로 이미 제한되므로 그만큼만 둔다. 허가를 반납한 직후에는 스레드가 아직 돌아오지 않았을 수 있어 대기열을 같은 크기로 둔다
+    @Bean(MEMBERSHIP_EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor membershipExportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exportConcurrency);
+        executor.setMaxPoolSize(exportConcurrency);
+        executor.setQueueCapacity(exportConcurrency);
+        executor.setThreadNamePrefix("membership-export-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(membershipRequestExecutor());
+    }
+}
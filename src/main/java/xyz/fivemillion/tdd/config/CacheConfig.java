@@ -0,0 +1,12 @@
+package xyz.fivemillion.tdd.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String MEMBERSHIP_CACHE = "membership";
+    public static final String MEMBERSHIP_LIST_CACHE = "membershipList";
+}
@@ -0,0 +1,44 @@
+package xyz.fivemillion.tdd.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import xyz.fivemillion.tdd.repository.DurableMembershipRepository;
+import xyz.fivemillion.tdd.repository.InMemoryMembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import java.nio.file.Paths;
+
+/**
+ * 맴버십 저장소를 메모리 구현으로 바꾼다. JPA 저장소 빈은 남아 있지만 MembershipRepository 주입은 이쪽이 받는다.
+ * 포인트 원장은 그대로 DB 에 남는다. 원장과 함께 묶인 트랜잭션이 롤백되면 메모리 저장소의 변경도 되돌린다. wal.enabled 를 켜면 WAL 과 스냅샷으로 재시작 뒤에도 맴버십을 복구한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "membership.repository.in-memory.enabled", havingValue = "true")
+public class InMemoryRepositoryConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "membership.repository.in-memory.wal.enabled", havingValue = "true")
+    public DurableMembershipRepository durableMembershipRepository(
+            PointTransactionRepository pointTransactionRepository,
+            @Value("${membership.repository.in-memory.shards:16}") int shardCount,
+            @Value("${membership.repository.in-memory.wal.dir:./data/membership-wal}") String directory,
+            @Value("${membership.repository.in-memory.wal.segment-size:67108864}") int segmentSize,
+            @Value("${membership.repository.in-memory.wal.sync:true}") boolean sync,
+            @Value("${membership.repository.in-memory.wal.flush-interval-ms:10}") long flushIntervalMillis) {
+        return new DurableMembershipRepository(
+                pointTransactionRepository, shardCount, Paths.get(directory), segmentSize, sync, flushIntervalMillis);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "membership.repository.in-memory.wal.enabled", havingValue = "false", matchIfMissing = true)
+    public InMemoryMembershipRepository inMemoryMembershipRepository(
+            PointTransactionRepository pointTransactionRepository,
+            @Value("${membership.repository.in-memory.shards:16}") int shardCount) {
+        return new InMemoryMembershipRepository(pointTransactionRepository, shardCount);
+    }
+}
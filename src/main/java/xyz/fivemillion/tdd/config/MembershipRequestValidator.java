@@ -0,0 +1,63 @@
+package xyz.fivemillion.tdd.config;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import xyz.fivemillion.tdd.dto.MembershipRequest;
+
+import static xyz.fivemillion.tdd.config.ValidationGroups.MembershipAddMarker;
+import static xyz.fivemillion.tdd.config.ValidationGroups.PointAccumulateMarker;
+
+/**
+ * MembershipRequest 를 ValidationGroups 마커 하나로 검증할 때 @NotNull, @Min 제약을 직접 확인한다.
+ * 통과하면 리플렉션이나 할당 없이 끝나고, 위반이 있으면 표준 검증기에 넘겨 오류 코드와 메시지를 기존 경로와 똑같이 만든다.
+ * 그 밖의 대상과 그룹은 모두 표준 검증기가 처리한다.
+ */
+public class MembershipRequestValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+
+    public MembershipRequestValidator(SmartValidator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        delegate.validate(target, errors);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        if (target instanceof MembershipRequest
+                && validationHints.length == 1
+                && isValid((MembershipRequest) target, validationHints[0]))
+            return;
+
+        delegate.validate(target, errors, validationHints);
+    }
+
+    @Override
+    public void validateValue(
+            Class<?> targetType, String fieldName, Object value, Errors errors, Object... validationHints) {
+        delegate.validateValue(targetType, fieldName, value, errors, validationHints);
+    }
+
+    // MembershipRequest 의 제약 조건과 같아야 한다. 모르는 그룹은 표준 검증기로 넘긴다
+    private static boolean isValid(MembershipRequest request, Object group) {
+        if (group == MembershipAddMarker.class)
+            return isValidPoint(request.getPoint()) && request.getMembershipType() != null;
+
+        if (group == PointAccumulateMarker.class)
+            return isValidPoint(request.getPoint());
+
+        return false;
+    }
+
+    private static boolean isValidPoint(Integer point) {
+        return point != null && point >= 0;
+    }
+}
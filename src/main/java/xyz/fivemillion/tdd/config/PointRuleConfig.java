@@ -0,0 +1,9 @@
+package xyz.fivemillion.tdd.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PointRuleProperties.class)
+public class PointRuleConfig {
+}
@@ -0,0 +1,47 @@
+package xyz.fivemillion.tdd.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 포인트 적립 규칙. 비율과 배수는 모두 퍼센트 단위다. (rate 1 = 결제 금액의 1%, multiplier 150 = 1.5배)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = PointRuleProperties.PREFIX)
+public class PointRuleProperties {
+
+    public static final String PREFIX = "membership.point.rule";
+
+    private int defaultRate = 1;
+    private Map<MembershipType, Integer> rates = new EnumMap<>(MembershipType.class);
+    private List<Tier> tiers = new ArrayList<>();
+    private List<Promotion> promotions = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Tier {
+
+        private int minPrice;
+        private int multiplier = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Promotion {
+
+        // 비어있으면 모든 맴버십에 적용된다
+        private MembershipType membershipType;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private int multiplier = 100;
+    }
+}
@@ -0,0 +1,64 @@
+package xyz.fivemillion.tdd.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * reactive 프로파일의 WebFlux + R2DBC 구성. 유휴 연결은 Netty 이벤트 루프가 들고 있고, DB 는 R2DBC 로 기다리지 않고 호출한다.
+ * <p>
+ * ConnectionFactory 나 R2DBC 트랜잭션 매니저가 빈으로 올라가면 JDBC DataSource 자동 구성이 빠지고
+ * @Transactional 이 어느 매니저를 쓸지 정하지 못하므로, 둘 다 이 구성 안에만 두고 R2DBC 자동 구성은 끈다.
+ * Tomcat 도 클래스패스에 있으므로 웹 서버는 Netty 로 직접 정한다.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveConfig implements DisposableBean {
+
+    private final ConnectionPool connectionPool;
+
+    public ReactiveConfig(R2dbcProperties properties) {
+        R2dbcProperties.Pool pool = properties.getPool();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(
+                        ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                                .username(properties.getUsername())
+                                .password(properties.getPassword())
+                                .build())
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .name("membership-r2dbc")
+                .build());
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient membershipDatabaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Bean
+    public TransactionalOperator membershipTransactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
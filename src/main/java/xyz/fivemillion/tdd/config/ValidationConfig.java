@@ -0,0 +1,53 @@
+package xyz.fivemillion.tdd.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 요청 본문 검증에 MembershipRequest 전용 빠른 경로를 쓴다. 위반이 있거나 다른 대상이면 표준 검증기를 그대로 쓴다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "membership.validation.fast-path.enabled", havingValue = "true")
+public class ValidationConfig implements WebMvcConfigurer {
+
+    private final javax.validation.Validator validator;
+
+    public ValidationConfig(javax.validation.Validator validator) {
+        this.validator = validator;
+    }
+
+    @Override
+    public Validator getValidator() {
+        return membershipRequestValidator(validator);
+    }
+
+    private static Validator membershipRequestValidator(javax.validation.Validator validator) {
+        SmartValidator delegate = validator instanceof SmartValidator
+                ? (SmartValidator) validator
+                : new SpringValidatorAdapter(validator);
+        return new MembershipRequestValidator(delegate);
+    }
+
+    // reactive 프로파일의 WebFlux 도 같은 검증기를 쓴다
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class ReactiveValidationConfig implements WebFluxConfigurer {
+
+        private final javax.validation.Validator validator;
+
+        ReactiveValidationConfig(javax.validation.Validator validator) {
+            this.validator = validator;
+        }
+
+        @Override
+        public Validator getValidator() {
+            return membershipRequestValidator(validator);
+        }
+    }
+}
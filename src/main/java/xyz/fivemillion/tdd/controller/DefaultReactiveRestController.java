@@ -0,0 +1,41 @@
+package xyz.fivemillion.tdd.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+
+/**
+ * WebFlux 컨트롤러의 오류 응답. {@link DefaultRestController} 와 같은 본문과 상태 코드로 응답한다.
+ * 헤더 누락이나 읽을 수 없는 본문처럼 프레임워크가 거절한 요청은 서블릿과 마찬가지로 본문 없이 상태 코드만 돌려준다.
+ */
+@Slf4j
+public abstract class DefaultReactiveRestController {
+
+    @ExceptionHandler({WebExchangeBindException.class})
+    public ResponseEntity<byte[]> handleBindException(final WebExchangeBindException exception) {
+        return MembershipErrorResponses.invalid(exception.getAllErrors());
+    }
+
+    @ExceptionHandler({ResponseStatusException.class})
+    public ResponseEntity<Void> handleResponseStatusException(final ResponseStatusException exception) {
+        if (log.isDebugEnabled())
+            log.debug("Request rejected: {}", exception.getMessage());
+
+        return ResponseEntity.status(exception.getStatus()).headers(exception.getResponseHeaders()).build();
+    }
+
+    @ExceptionHandler({MembershipException.class})
+    public ResponseEntity<byte[]> handleRestApiException(final MembershipException exception) {
+        return MembershipErrorResponses.of(exception);
+    }
+
+    @ExceptionHandler({Exception.class})
+    public ResponseEntity<byte[]> handleException(final Exception exception) {
+        log.warn("exception occur: ", exception);
+        return MembershipErrorResponses.of(MembershipError.UNKNOWN_EXCEPTION);
+    }
+}
@@ -0,0 +1,51 @@
+package xyz.fivemillion.tdd.controller;
+
+import xyz.fivemillion.tdd.error.MembershipError;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 오류 코드별로 정해진 간격에 한 번만 로그를 남기게 한다. 그 사이에 생략한 건수는 다음 로그에 함께 남긴다.
+ * 오류 건수 자체는 membership.errors 카운터로 본다.
+ */
+class ErrorLogSampler {
+
+    private final long intervalNanos;
+    private final Map<MembershipError, Slot> slots = new EnumMap<>(MembershipError.class);
+
+    ErrorLogSampler(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+        for (MembershipError error : MembershipError.values())
+            slots.put(error, new Slot(System.nanoTime() - intervalNanos));
+    }
+
+    /**
+     * @return 로그를 남길 차례면 지난 로그 이후 생략한 건수, 아니면 -1
+     */
+    long tryAcquire(MembershipError error) {
+        Slot slot = slots.get(error);
+        long now = System.nanoTime();
+        long lastLoggedAt = slot.lastLoggedAt.get();
+
+        if (now - lastLoggedAt < intervalNanos || !slot.lastLoggedAt.compareAndSet(lastLoggedAt, now)) {
+            slot.suppressed.increment();
+            return -1;
+        }
+
+        return slot.suppressed.sumThenReset();
+    }
+
+    private static final class Slot {
+
+        private final AtomicLong lastLoggedAt;
+        private final LongAdder suppressed = new LongAdder();
+
+        private Slot(long lastLoggedAt) {
+            this.lastLoggedAt = new AtomicLong(lastLoggedAt);
+        }
+    }
+}
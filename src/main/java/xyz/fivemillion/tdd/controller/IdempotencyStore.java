@@ -0,0 +1,138 @@
+package xyz.fivemillion.tdd.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 별로 처리 결과를 보관해 재시도 요청에 같은 응답을 돌려준다.
+ * 저장된 키의 조회는 락 없이 해시 조회 한 번이고, 처음 들어온 요청만 putIfAbsent 로 자리를 잡아 실제로 처리한다.
+ * 처리 중에 같은 키로 들어온 요청은 먼저 들어온 요청의 결과를 waitTimeout 까지만 기다리고,
+ * 그 안에 끝나지 않으면 IDEMPOTENCY_REQUEST_IN_PROGRESS 로 실패한다.
+ * 실패한 요청은 보관하지 않으므로 같은 키로 다시 시도할 수 있다.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    // 필드와 맵 키 순서를 고정해 같은 요청은 항상 같은 바이트가 되게 한다
+    private static final ObjectWriter CANONICAL_WRITER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build()
+            .writer();
+
+    private final Cache<String, Entry> entries;
+    private final long waitTimeoutNanos;
+
+    public IdempotencyStore(
+            @Value("${membership.idempotency.max-size:100000}") long maxSize,
+            @Value("${membership.idempotency.ttl:24h}") Duration ttl,
+            @Value("${membership.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+    }
+
+    /**
+     * idempotencyKey 가 없으면 그냥 처리한다. request 를 정규화한 JSON 의 SHA-256 을 키와 함께 보관하며,
+     * 같은 키가 다른 요청으로 다시 오면 IDEMPOTENCY_KEY_REUSED 로 실패한다.
+     */
+    public <T> ResponseEntity<T> execute(String userId, String operation, String idempotencyKey,
+                                         Object request, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null)
+            return action.get();
+
+        byte[] fingerprint = fingerprint(request);
+        String storeKey = userId + '\n' + operation + '\n' + idempotencyKey;
+        Entry entry = entries.getIfPresent(storeKey);
+        if (entry == null) {
+            Entry created = new Entry(fingerprint);
+            entry = entries.asMap().putIfAbsent(storeKey, created);
+            if (entry == null)
+                return run(storeKey, created, action);
+        }
+
+        if (!MessageDigest.isEqual(entry.fingerprint, fingerprint))
+            throw new MembershipException(MembershipError.IDEMPOTENCY_KEY_REUSED);
+
+        return replay(entry);
+    }
+
+    private static byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(CANONICAL_WRITER.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to fingerprint idempotent request", e);
+        }
+    }
+
+    private <T> ResponseEntity<T> run(String storeKey, Entry entry, Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            entries.asMap().remove(storeKey, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+
+        entry.response.complete(response);
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(Entry entry) {
+        ResponseEntity<T> response;
+        try {
+            response = (ResponseEntity<T>) entry.response.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // 처리 중이던 요청이 실패하면 기다리던 요청도 같은 예외로 실패한다
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new MembershipException(MembershipError.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MembershipException(MembershipError.IDEMPOTENCY_REQUEST_IN_PROGRESS);
+        }
+
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private static final class Entry {
+
+        private final byte[] fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private Entry(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
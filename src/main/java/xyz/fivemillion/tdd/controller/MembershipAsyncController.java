@@ -0,0 +1,111 @@
+package xyz.fivemillion.tdd.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.MembershipPageResponse;
+import xyz.fivemillion.tdd.dto.MembershipRequest;
+import xyz.fivemillion.tdd.dto.PointAccumulateBulkRequest;
+import xyz.fivemillion.tdd.dto.PointAccumulateResult;
+import xyz.fivemillion.tdd.dto.PointTransactionPageResponse;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static xyz.fivemillion.tdd.config.ValidationGroups.MembershipAddMarker;
+import static xyz.fivemillion.tdd.config.ValidationGroups.PointAccumulateMarker;
+import static xyz.fivemillion.tdd.controller.IdempotencyStore.IDEMPOTENCY_KEY_HEADER;
+
+/**
+ * {@link MembershipController} 와 같은 API 를 비동기로 처리한다. membership.async.enabled=true 일 때만 등록된다.
+ * 검증까지는 요청 스레드에서 하고, 처리 본문은 같은 {@link MembershipRequestHandler} 를 Callable 로 감싸서 넘긴다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "membership.async.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MembershipAsyncController extends DefaultRestController {
+
+    private final MembershipRequestHandler handler;
+
+    @PostMapping("/api/v1/membership")
+    public Callable<ResponseEntity<MembershipAddResponse>> addMembership(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+            @RequestBody @Validated(MembershipAddMarker.class) final MembershipRequest request) {
+        return () -> handler.addMembership(userId, idempotencyKey, request);
+    }
+
+    @GetMapping("/api/v1/membership/list")
+    public Callable<ResponseEntity<List<MembershipDetailResponse>>> getMembershipList(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId
+    ) {
+        return () -> handler.getMembershipList(userId);
+    }
+
+    @GetMapping("/api/v1/membership/list/page")
+    public Callable<ResponseEntity<MembershipPageResponse>> getMembershipPage(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestParam(value = "cursor", required = false) final Long cursor,
+            @RequestParam(value = "size", defaultValue = "100") final int size
+    ) {
+        return () -> handler.getMembershipPage(userId, cursor, size);
+    }
+
+    // 스트리밍 응답은 원래 비동기로 쓰이므로 Callable 로 감싸지 않는다
+    @GetMapping(value = "/api/v1/membership/list/stream", produces = MembershipConstants.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMembershipList(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId
+    ) {
+        return handler.streamMembershipList(userId);
+    }
+
+    @GetMapping("/api/v1/membership/detail")
+    public Callable<ResponseEntity<MembershipDetailResponse>> getMembership(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestParam("membershipType") final MembershipType membershipType
+    ) {
+        return () -> handler.getMembership(userId, membershipType);
+    }
+
+    @GetMapping("/api/v1/membership/{id}/transactions")
+    public Callable<ResponseEntity<PointTransactionPageResponse>> getPointTransactions(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @PathVariable("id") final Long membershipId,
+            @RequestParam(value = "page", defaultValue = "0") final int page,
+            @RequestParam(value = "size", defaultValue = "100") final int size
+    ) {
+        return () -> handler.getPointTransactions(userId, membershipId, page, size);
+    }
+
+    @DeleteMapping("/api/v1/membership/{id}")
+    public Callable<ResponseEntity<Void>> deleteMembership(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @PathVariable("id") final Long membershipId) {
+        return () -> handler.deleteMembership(userId, membershipId);
+    }
+
+    @PostMapping("/api/v1/membership/{id}/accumulate")
+    public Callable<ResponseEntity<Void>> accumulatePoint(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+            @PathVariable("id") final Long membershipId,
+            @RequestBody @Validated(PointAccumulateMarker.class) MembershipRequest request) {
+        return () -> handler.accumulatePoint(userId, idempotencyKey, membershipId, request);
+    }
+
+    @PostMapping("/api/v1/membership/accumulate/bulk")
+    public Callable<ResponseEntity<List<PointAccumulateResult>>> accumulatePoints(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+            @RequestBody @Validated(PointAccumulateMarker.class) final PointAccumulateBulkRequest request) {
+        return () -> handler.accumulatePoints(userId, idempotencyKey, request);
+    }
+}
@@ -2,48 +2,71 @@ package xyz.fivemillion.tdd.controller;
 
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import xyz.fivemillion.tdd.domain.MembershipType;
 import xyz.fivemillion.tdd.dto.MembershipAddResponse;
 import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.MembershipPageResponse;
 import xyz.fivemillion.tdd.dto.MembershipRequest;
-import xyz.fivemillion.tdd.service.MembershipService;
+import xyz.fivemillion.tdd.dto.PointAccumulateBulkRequest;
+import xyz.fivemillion.tdd.dto.PointAccumulateResult;
+import xyz.fivemillion.tdd.dto.PointTransactionPageResponse;
 
 import java.util.List;
 
 import static xyz.fivemillion.tdd.config.ValidationGroups.MembershipAddMarker;
 import static xyz.fivemillion.tdd.config.ValidationGroups.PointAccumulateMarker;
+import static xyz.fivemillion.tdd.controller.IdempotencyStore.IDEMPOTENCY_KEY_HEADER;
 
 @NoArgsConstructor
 final class MembershipConstants {
     public final static String USER_ID_HEADER = "X-USER-ID";
+    public final static String NDJSON_VALUE = "application/x-ndjson";
+    public final static String CSV_VALUE = "text/csv";
 }
 
 @RestController
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "membership.async.enabled", havingValue = "false", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class MembershipController extends DefaultRestController {
 
-    private final MembershipService membershipService;
+    private final MembershipRequestHandler handler;
 
     @PostMapping("/api/v1/membership")
     public ResponseEntity<MembershipAddResponse> addMembership(
             @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
             @RequestBody @Validated(MembershipAddMarker.class) final MembershipRequest request) {
-
-        MembershipAddResponse membershipResponse =
-                membershipService.addMembership(userId, request.getMembershipType(), request.getPoint());
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(membershipResponse);
+        return handler.addMembership(userId, idempotencyKey, request);
     }
 
     @GetMapping("/api/v1/membership/list")
     public ResponseEntity<List<MembershipDetailResponse>> getMembershipList(
             @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId
     ) {
-        return ResponseEntity.ok(membershipService.getMembershipList(userId));
+        return handler.getMembershipList(userId);
+    }
+
+    @GetMapping("/api/v1/membership/list/page")
+    public ResponseEntity<MembershipPageResponse> getMembershipPage(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestParam(value = "cursor", required = false) final Long cursor,
+            @RequestParam(value = "size", defaultValue = "100") final int size
+    ) {
+        return handler.getMembershipPage(userId, cursor, size);
+    }
+
+    @GetMapping(value = "/api/v1/membership/list/stream", produces = MembershipConstants.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMembershipList(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId
+    ) {
+        return handler.streamMembershipList(userId);
     }
 
     @GetMapping("/api/v1/membership/detail")
@@ -51,23 +74,40 @@ public class MembershipController extends DefaultRestController {
             @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
             @RequestParam("membershipType") final MembershipType membershipType
             ) {
-        return ResponseEntity.ok(membershipService.getMembership(userId, membershipType));
+        return handler.getMembership(userId, membershipType);
+    }
+
+    @GetMapping("/api/v1/membership/{id}/transactions")
+    public ResponseEntity<PointTransactionPageResponse> getPointTransactions(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @PathVariable("id") final Long membershipId,
+            @RequestParam(value = "page", defaultValue = "0") final int page,
+            @RequestParam(value = "size", defaultValue = "100") final int size
+    ) {
+        return handler.getPointTransactions(userId, membershipId, page, size);
     }
 
     @DeleteMapping("/api/v1/membership/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteMembership(
+    public ResponseEntity<Void> deleteMembership(
             @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
             @PathVariable("id") final Long membershipId) {
-        membershipService.deleteMembership(membershipId, userId);
+        return handler.deleteMembership(userId, membershipId);
     }
 
     @PostMapping("/api/v1/membership/{id}/accumulate")
-    @ResponseStatus(HttpStatus.OK)
-    public void accumulatePoint(
+    public ResponseEntity<Void> accumulatePoint(
             @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
             @PathVariable("id") final Long membershipId,
             @RequestBody @Validated(PointAccumulateMarker.class) MembershipRequest request) {
-        membershipService.accumulatePoint(membershipId, userId, request.getPoint());
+        return handler.accumulatePoint(userId, idempotencyKey, membershipId, request);
+    }
+
+    @PostMapping("/api/v1/membership/accumulate/bulk")
+    public ResponseEntity<List<PointAccumulateResult>> accumulatePoints(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
+            @RequestBody @Validated(PointAccumulateMarker.class) final PointAccumulateBulkRequest request) {
+        return handler.accumulatePoints(userId, idempotencyKey, request);
     }
 }
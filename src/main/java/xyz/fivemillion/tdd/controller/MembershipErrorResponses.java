@@ -0,0 +1,84 @@
+package xyz.fivemillion.tdd.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.ObjectError;
+import xyz.fivemillion.tdd.dto.ErrorResponse;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 서블릿과 WebFlux 컨트롤러가 함께 쓰는 오류 응답.
+ * 업무 오류는 코드마다 응답과 카운터가 정해져 있으므로 미리 만들어 두고, 로그는 코드별로 초당 한 번만 남긴다.
+ * 응답 본문은 UTF-8 JSON 바이트로 미리 직렬화해 두어 메시지 컨버터가 그대로 쓴다.
+ */
+@Slf4j
+final class MembershipErrorResponses {
+
+    private static final String ERROR_METRIC = "membership.errors";
+    private static final ObjectWriter ERROR_WRITER = new ObjectMapper().writerFor(ErrorResponse.class);
+
+    private static final Map<MembershipError, ResponseEntity<byte[]>> ERROR_RESPONSES =
+            new EnumMap<>(MembershipError.class);
+    private static final Map<MembershipError, Counter> ERROR_COUNTERS = new EnumMap<>(MembershipError.class);
+    private static final ErrorLogSampler ERROR_LOG_SAMPLER = new ErrorLogSampler(Duration.ofSeconds(1));
+
+    static {
+        for (MembershipError error : MembershipError.values()) {
+            ERROR_RESPONSES.put(error, jsonResponse(error.getHttpStatus(),
+                    serialize(new ErrorResponse(error.name(), error.getDescription()))));
+            ERROR_COUNTERS.put(error, Metrics.counter(ERROR_METRIC, "code", error.name()));
+        }
+    }
+
+    private MembershipErrorResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(final MembershipException exception) {
+        final MembershipError error = exception.getErrorCode();
+        final long suppressed = ERROR_LOG_SAMPLER.tryAcquire(error);
+        if (suppressed >= 0)
+            log.warn("Membership Exception occur: {} ({} suppressed)", error, suppressed);
+
+        return of(error);
+    }
+
+    static ResponseEntity<byte[]> of(final MembershipError error) {
+        ERROR_COUNTERS.get(error).increment();
+        return ERROR_RESPONSES.get(error);
+    }
+
+    // 잘못된 요청이 몰려도 요청마다 중간 목록과 문자열을 만들지 않는다
+    static ResponseEntity<byte[]> invalid(final List<ObjectError> errors) {
+        if (log.isDebugEnabled())
+            log.debug("Invalid DTO Parameter errors : {}", errors);
+
+        return jsonResponse(HttpStatus.BAD_REQUEST, ValidationErrorRenderer.render(errors));
+    }
+
+    private static ResponseEntity<byte[]> jsonResponse(final HttpStatus status, final byte[] body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static byte[] serialize(final ErrorResponse errorResponse) {
+        try {
+            return ERROR_WRITER.writeValueAsBytes(errorResponse);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package xyz.fivemillion.tdd.controller;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import xyz.fivemillion.tdd.config.AsyncRequestConfig;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipFileFormat;
+import xyz.fivemillion.tdd.service.MembershipExport;
+import xyz.fivemillion.tdd.service.MembershipExportService;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MembershipExportController extends DefaultRestController {
+
+    private static final String EXPORT_INTERCEPTOR_KEY = MembershipExportController.class.getName() + ".export";
+
+    private final MembershipExportService membershipExportService;
+    private final Duration exportTimeout;
+    // 비동기 모드에서만 있다. 없으면 본문은 MVC 의 기본 비동기 실행기에서 쓴다
+    private final Optional<AsyncTaskExecutor> exportExecutor;
+
+    public MembershipExportController(
+            MembershipExportService membershipExportService,
+            @Value("${membership.export.timeout:30m}") Duration exportTimeout,
+            @Qualifier(AsyncRequestConfig.MEMBERSHIP_EXPORT_EXECUTOR) Optional<AsyncTaskExecutor> exportExecutor) {
+        this.membershipExportService = membershipExportService;
+        this.exportTimeout = exportTimeout;
+        this.exportExecutor = exportExecutor;
+    }
+
+    // 허가는 요청 스레드에서 받아서, 동시 실행 수를 넘으면 본문을 쓰기 전에 에러로 응답한다
+    @GetMapping("/api/v1/membership/export")
+    public ResponseEntity<StreamingResponseBody> exportMemberships(
+            @RequestParam(value = "membershipType", required = false) final MembershipType membershipType,
+            @RequestParam(value = "format", defaultValue = "CSV") final MembershipFileFormat format,
+            NativeWebRequest request) {
+
+        MembershipExport export = membershipExportService.prepareExport(membershipType, format);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.registerCallableInterceptor(EXPORT_INTERCEPTOR_KEY, exportInterceptor(export));
+        // 이 요청의 본문만 요청 처리 풀이 아닌 내보내기 전용 풀에서 쓴다
+        exportExecutor.ifPresent(asyncManager::setTaskExecutor);
+        boolean csv = format == MembershipFileFormat.CSV;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? MembershipConstants.CSV_VALUE : MembershipConstants.NDJSON_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=memberships." + (csv ? "csv" : "ndjson"))
+                .body(export::writeTo);
+    }
+
+    /**
+     * 내보내기 응답에만 긴 비동기 타임아웃을 적용하고, 본문이 실행되지 못한 채 요청이 끝나도(타임아웃, 연결 끊김, 실행 거부) 허가를 반납한다.
+     */
+    private CallableProcessingInterceptor exportInterceptor(MembershipExport export) {
+        return new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                ((AsyncWebRequest) request).setTimeout(exportTimeout.toMillis());
+            }
+
+            @Override
+            public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                export.close();
+            }
+        };
+    }
+}
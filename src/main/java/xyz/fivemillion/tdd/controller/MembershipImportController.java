@@ -0,0 +1,44 @@
+package xyz.fivemillion.tdd.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import xyz.fivemillion.tdd.dto.MembershipFileFormat;
+import xyz.fivemillion.tdd.dto.MembershipImportResponse;
+import xyz.fivemillion.tdd.service.MembershipImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MembershipImportController extends DefaultRestController {
+
+    private final MembershipImportService membershipImportService;
+
+    // importId 는 클라이언트가 정한다. 실패하면 같은 importId 로 같은 파일을 다시 올려 이어서 등록한다
+    @PostMapping(value = "/api/v1/membership/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<MembershipImportResponse> importMemberships(
+            @RequestParam("file") final MultipartFile file,
+            @RequestParam(value = "format", defaultValue = "CSV") final MembershipFileFormat format,
+            @RequestParam("importId") final String importId) throws IOException {
+
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.ok(membershipImportService.importMemberships(importId, format, inputStream));
+        }
+    }
+
+    @GetMapping("/api/v1/membership/import/{importId}")
+    public ResponseEntity<MembershipImportResponse> getImportProgress(
+            @PathVariable("importId") final String importId) {
+        return ResponseEntity.ok(membershipImportService.getImportProgress(importId));
+    }
+}
@@ -0,0 +1,71 @@
+package xyz.fivemillion.tdd.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.MembershipRequest;
+import xyz.fivemillion.tdd.service.ReactiveMembershipService;
+
+import static xyz.fivemillion.tdd.config.ValidationGroups.MembershipAddMarker;
+import static xyz.fivemillion.tdd.config.ValidationGroups.PointAccumulateMarker;
+
+/**
+ * reactive 프로파일의 맴버십 API. 등록, 목록, 상세, 삭제, 적립을 {@link MembershipController} 와 같은 경로,
+ * 검증 그룹, 오류 응답으로 처리한다. 페이지 조회, 스트림, 일괄 적립, 가져오기와 내보내기, Idempotency-Key 는 서블릿 모드에만 있다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class MembershipReactiveController extends DefaultReactiveRestController {
+
+    private final ReactiveMembershipService membershipService;
+
+    @PostMapping("/api/v1/membership")
+    public Mono<ResponseEntity<MembershipAddResponse>> addMembership(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestBody @Validated(MembershipAddMarker.class) final MembershipRequest request) {
+        return membershipService.addMembership(userId, request.getMembershipType(), request.getPoint())
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @GetMapping("/api/v1/membership/list")
+    public Flux<MembershipDetailResponse> getMembershipList(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId
+    ) {
+        return membershipService.getMembershipList(userId);
+    }
+
+    @GetMapping("/api/v1/membership/detail")
+    public Mono<ResponseEntity<MembershipDetailResponse>> getMembership(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @RequestParam("membershipType") final MembershipType membershipType
+    ) {
+        return membershipService.getMembership(userId, membershipType)
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/api/v1/membership/{id}")
+    public Mono<ResponseEntity<Void>> deleteMembership(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @PathVariable("id") final Long membershipId) {
+        return membershipService.deleteMembership(membershipId, userId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    @PostMapping("/api/v1/membership/{id}/accumulate")
+    public Mono<ResponseEntity<Void>> accumulatePoint(
+            @RequestHeader(MembershipConstants.USER_ID_HEADER) final String userId,
+            @PathVariable("id") final Long membershipId,
+            @RequestBody @Validated(PointAccumulateMarker.class) final MembershipRequest request) {
+        return membershipService.accumulatePoint(membershipId, userId, request.getPoint())
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok().build()));
+    }
+}
@@ -0,0 +1,99 @@
+package xyz.fivemillion.tdd.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.MembershipPageResponse;
+import xyz.fivemillion.tdd.dto.MembershipRequest;
+import xyz.fivemillion.tdd.dto.PointAccumulateBulkRequest;
+import xyz.fivemillion.tdd.dto.PointAccumulateResult;
+import xyz.fivemillion.tdd.dto.PointTransactionPageResponse;
+import xyz.fivemillion.tdd.service.MembershipService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * 맴버십 API 의 처리 본문. {@link MembershipController} 는 요청 스레드에서 바로,
+ * {@link MembershipAsyncController} 는 Callable 로 감싸서 전용 스레드 풀에서 호출한다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+class MembershipRequestHandler {
+
+    private final MembershipService membershipService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
+
+    ResponseEntity<MembershipAddResponse> addMembership(String userId, String idempotencyKey, MembershipRequest request) {
+        return idempotencyStore.execute(userId, "add", idempotencyKey, request, () -> {
+            MembershipAddResponse membershipResponse =
+                    membershipService.addMembership(userId, request.getMembershipType(), request.getPoint());
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(membershipResponse);
+        });
+    }
+
+    ResponseEntity<List<MembershipDetailResponse>> getMembershipList(String userId) {
+        return ResponseEntity.ok(membershipService.getMembershipList(userId));
+    }
+
+    ResponseEntity<MembershipPageResponse> getMembershipPage(String userId, Long cursor, int size) {
+        return ResponseEntity.ok(membershipService.getMembershipPage(userId, cursor, size));
+    }
+
+    ResponseEntity<StreamingResponseBody> streamMembershipList(String userId) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                membershipService.streamMembershipList(userId, membership -> {
+                    try {
+                        writer.write(membership);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MembershipConstants.NDJSON_VALUE))
+                .body(body);
+    }
+
+    ResponseEntity<MembershipDetailResponse> getMembership(String userId, MembershipType membershipType) {
+        return ResponseEntity.ok(membershipService.getMembership(userId, membershipType));
+    }
+
+    ResponseEntity<PointTransactionPageResponse> getPointTransactions(String userId, Long membershipId, int page, int size) {
+        return ResponseEntity.ok(membershipService.getPointTransactions(membershipId, userId, page, size));
+    }
+
+    ResponseEntity<Void> deleteMembership(String userId, Long membershipId) {
+        membershipService.deleteMembership(membershipId, userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    ResponseEntity<Void> accumulatePoint(String userId, String idempotencyKey, Long membershipId, MembershipRequest request) {
+        return idempotencyStore.execute(userId, "accumulate", idempotencyKey, List.of(membershipId, request), () -> {
+            membershipService.accumulatePoint(membershipId, userId, request.getPoint());
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    ResponseEntity<List<PointAccumulateResult>> accumulatePoints(
+            String userId, String idempotencyKey, PointAccumulateBulkRequest request) {
+        return idempotencyStore.execute(userId, "accumulate.bulk", idempotencyKey, request,
+                () -> ResponseEntity.ok(membershipService.accumulatePoints(userId, request.getItems())));
+    }
+}
@@ -0,0 +1,46 @@
+package xyz.fivemillion.tdd.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+/**
+ * 배치 작업의 진행 위치. 작업이 처리한 청크와 같은 트랜잭션에서 갱신해서,
+ * 실패 후 다시 실행하면 마지막으로 커밋된 위치 다음부터 이어서 처리한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+public class JobCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long lastPosition;
+
+    @Column(nullable = false)
+    private long successCount;
+
+    @Column(nullable = false)
+    private long failureCount;
+
+    @UpdateTimestamp
+    @Column(length = 20)
+    private LocalDateTime updatedAt;
+
+    public JobCheckpoint(String name) {
+        this.name = name;
+    }
+
+    public void advance(long lastPosition, long successCount, long failureCount) {
+        this.lastPosition = lastPosition;
+        this.successCount += successCount;
+        this.failureCount += failureCount;
+    }
+}
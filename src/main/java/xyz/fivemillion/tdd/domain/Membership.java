@@ -1,21 +1,45 @@
 package xyz.fivemillion.tdd.domain;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
+// 2차 캐시는 hibernate.cache.use_second_level_cache 가 켜졌을 때만 쓴다 (l2cache 프로파일)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Membership.CACHE_REGION)
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_membership_user_id_membership_type", columnNames = {"userId", "membershipType"})
+})
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Membership {
 
-    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    public static final String CACHE_REGION = "membership-entity";
+    public static final String LIST_QUERY_CACHE_REGION = "membership-list-query";
+
+    // 등록마다 시퀀스를 조회하지 않도록 pooled-lo 로 ID 를 묶음 할당하고, JDBC insert batch 가 가능하게 한다
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "membership_seq")
+    @GenericGenerator(
+            name = "membership_seq",
+            strategy = "xyz.fivemillion.tdd.domain.MembershipIdGenerator",
+            parameters = {
+                    @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "membership_seq"),
+                    @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+                    @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+            })
     private Long id;
 
     @Column(nullable = false)
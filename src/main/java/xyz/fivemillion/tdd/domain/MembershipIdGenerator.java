@@ -0,0 +1,43 @@
+package xyz.fivemillion.tdd.domain;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 맴버십 ID 시퀀스 생성기. 시퀀스 한 번 조회로 allocation size 만큼의 ID 를 메모리에서 할당한다.
+ * allocation size 는 {@value #ALLOCATION_SIZE_SETTING} 설정으로 바꿀 수 있으며, DB 시퀀스의 INCREMENT BY 와 같아야 한다.
+ * <p>
+ * 맴버십이 이미 있는 DB 에서는 시퀀스가 max(id) 보다 큰 값에서 시작해야 기존 ID 와 겹치지 않는다.
+ * Hibernate 가 시퀀스를 만든다면 {@value #INITIAL_VALUE_SETTING} 을 max(id) + 1 이상으로 두고,
+ * 직접 만든다면 MariaDB 에서 다음처럼 기존 최댓값 다음부터 시작하게 만든다.
+ * <pre>
+ * EXECUTE IMMEDIATE CONCAT('CREATE SEQUENCE membership_seq START WITH ',
+ *         (SELECT COALESCE(MAX(id), 0) + 1 FROM membership), ' INCREMENT BY 50');
+ * </pre>
+ */
+public class MembershipIdGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "membership.id.allocation-size";
+    public static final String INITIAL_VALUE_SETTING = "membership.id.initial-value";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+
+        Object allocationSize = settings.get(ALLOCATION_SIZE_SETTING);
+        if (allocationSize != null)
+            params.setProperty(INCREMENT_PARAM, allocationSize.toString());
+
+        Object initialValue = settings.get(INITIAL_VALUE_SETTING);
+        if (initialValue != null)
+            params.setProperty(INITIAL_PARAM, initialValue.toString());
+
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -0,0 +1,54 @@
+package xyz.fivemillion.tdd.domain;
+
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 포인트 변동 원장. 행을 추가만 하고 수정하지 않으며, 맴버십의 point 는 이 원장의 합계를 캐시해 둔 값이다.
+ * 맴버십이 삭제되어도 감사를 위해 원장은 남긴다.
+ */
+@Entity
+@Immutable
+@Table(indexes = {
+        @Index(name = "idx_point_transaction_membership_id_created_at", columnList = "membershipId, createdAt")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointTransaction {
+
+    public static final int ID_ALLOCATION_SIZE = 100;
+
+    // 대량 적립 시 INSERT 가 JDBC batch 로 묶이도록 시퀀스를 묶음 할당한다
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "point_transaction_seq")
+    @SequenceGenerator(name = "point_transaction_seq", sequenceName = "point_transaction_seq", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Long membershipId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, updatable = false)
+    private PointTransactionType type;
+
+    @Column(nullable = false, updatable = false)
+    private int point;
+
+    @CreationTimestamp
+    @Column(nullable = false, length = 20, updatable = false)
+    private LocalDateTime createdAt;
+
+    public static PointTransaction of(Long membershipId, PointTransactionType type, int point) {
+        return PointTransaction.builder()
+                .membershipId(membershipId)
+                .type(type)
+                .point(point)
+                .build();
+    }
+}
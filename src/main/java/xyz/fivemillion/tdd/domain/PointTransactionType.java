@@ -0,0 +1,6 @@
+package xyz.fivemillion.tdd.domain;
+
+public enum PointTransactionType {
+
+    REGISTER, ACCUMULATE, EXPIRE
+}
@@ -0,0 +1,19 @@
+package xyz.fivemillion.tdd.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+@Getter
+@Builder
+@NoArgsConstructor(force = true)
+@RequiredArgsConstructor
+public class MembershipExportRow {
+
+    private final Long id;
+    private final String userId;
+    private final MembershipType membershipType;
+    private final int point;
+}
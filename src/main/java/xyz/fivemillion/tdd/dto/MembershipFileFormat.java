@@ -0,0 +1,9 @@
+package xyz.fivemillion.tdd.dto;
+
+public enum MembershipFileFormat {
+
+    // 첫 줄은 컬럼 헤더
+    CSV,
+    // 한 줄에 JSON 객체 하나
+    NDJSON
+}
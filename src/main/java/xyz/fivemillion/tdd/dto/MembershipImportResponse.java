@@ -0,0 +1,37 @@
+package xyz.fivemillion.tdd.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor(force = true)
+@RequiredArgsConstructor
+public class MembershipImportResponse {
+
+    private final String importId;
+    // 파일에서 마지막으로 커밋된 줄 번호. 다시 실행하면 이 다음 줄부터 처리한다
+    private final long lastLine;
+    private final long importedCount;
+    private final long rejectedCount;
+    // 이번 실행에서 거부된 행. 최대 MAX_REJECTED_ROWS 건만 담는다
+    private final List<RejectedRow> rejectedRows;
+
+    @Getter
+    @Builder
+    @NoArgsConstructor(force = true)
+    @RequiredArgsConstructor
+    public static class RejectedRow {
+
+        public static final String INVALID_FORMAT = "INVALID_FORMAT";
+        public static final String INVALID_FIELD = "INVALID_FIELD";
+
+        private final long line;
+        private final String code;
+        private final String message;
+    }
+}
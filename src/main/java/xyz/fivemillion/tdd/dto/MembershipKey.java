@@ -0,0 +1,15 @@
+package xyz.fivemillion.tdd.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class MembershipKey {
+
+    private final String userId;
+    private final MembershipType membershipType;
+}
@@ -0,0 +1,18 @@
+package xyz.fivemillion.tdd.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor(force = true)
+@RequiredArgsConstructor
+public class MembershipPageResponse {
+
+    private final List<MembershipDetailResponse> memberships;
+    private final Long nextCursor;
+}
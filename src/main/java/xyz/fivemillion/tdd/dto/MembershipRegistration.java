@@ -0,0 +1,16 @@
+package xyz.fivemillion.tdd.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+@Getter
+@Builder
+@RequiredArgsConstructor
+public class MembershipRegistration {
+
+    private final String userId;
+    private final MembershipType membershipType;
+    private final int point;
+}
@@ -1,6 +1,7 @@
 package xyz.fivemillion.tdd.dto;
 
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import javax.validation.constraints.NotNull;
 import static xyz.fivemillion.tdd.config.ValidationGroups.*;
 
 @Getter
+@EqualsAndHashCode
 @NoArgsConstructor(force = true)
 @RequiredArgsConstructor
 @Builder
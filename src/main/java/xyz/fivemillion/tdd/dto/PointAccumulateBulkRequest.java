@@ -0,0 +1,46 @@
+package xyz.fivemillion.tdd.dto;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+import static xyz.fivemillion.tdd.config.ValidationGroups.PointAccumulateMarker;
+
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor(force = true)
+@RequiredArgsConstructor
+@Builder
+public class PointAccumulateBulkRequest {
+
+    public static final int MAX_ITEM_SIZE = 10000;
+
+    @Valid
+    @NotEmpty(groups = {PointAccumulateMarker.class})
+    @Size(max = MAX_ITEM_SIZE, groups = {PointAccumulateMarker.class})
+    private final List<Item> items;
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor(force = true)
+    @RequiredArgsConstructor
+    @Builder
+    public static class Item {
+
+        @NotNull(groups = {PointAccumulateMarker.class})
+        private final Long membershipId;
+
+        @NotNull(groups = {PointAccumulateMarker.class})
+        @Min(value = 0, groups = {PointAccumulateMarker.class})
+        private final Integer price;
+    }
+}
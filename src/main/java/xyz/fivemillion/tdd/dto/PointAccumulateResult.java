@@ -0,0 +1,26 @@
+package xyz.fivemillion.tdd.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import xyz.fivemillion.tdd.error.MembershipError;
+
+@Getter
+@Builder
+@NoArgsConstructor(force = true)
+@RequiredArgsConstructor
+public class PointAccumulateResult {
+
+    private final Long membershipId;
+    private final boolean success;
+    private final String code;
+
+    public static PointAccumulateResult success(Long membershipId) {
+        return new PointAccumulateResult(membershipId, true, null);
+    }
+
+    public static PointAccumulateResult failure(Long membershipId, MembershipError error) {
+        return new PointAccumulateResult(membershipId, false, error.name());
+    }
+}
@@ -0,0 +1,12 @@
+package xyz.fivemillion.tdd.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class PointBalance {
+
+    private final Long membershipId;
+    private final long point;
+}
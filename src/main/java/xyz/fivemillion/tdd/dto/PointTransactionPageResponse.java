@@ -0,0 +1,18 @@
+package xyz.fivemillion.tdd.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor(force = true)
+@RequiredArgsConstructor
+public class PointTransactionPageResponse {
+
+    private final List<PointTransactionResponse> transactions;
+    private final boolean hasNext;
+}
@@ -0,0 +1,21 @@
+package xyz.fivemillion.tdd.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@NoArgsConstructor(force = true)
+@RequiredArgsConstructor
+public class PointTransactionResponse {
+
+    private final Long id;
+    private final PointTransactionType type;
+    private final int point;
+    private final LocalDateTime createdAt;
+}
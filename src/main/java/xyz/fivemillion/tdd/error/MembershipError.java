@@ -11,7 +11,13 @@ public enum MembershipError {
     DUPLICATED_MEMBERSHIP_REGISTER(HttpStatus.BAD_REQUEST, "이미 등록된 맴버십"),
     UNKNOWN_EXCEPTION(HttpStatus.INTERNAL_SERVER_ERROR, "unknown exception"),
     MEMBERSHIP_NOT_FOUND(HttpStatus.NOT_FOUND, "존재하지 않는 맴버십"),
-    NOT_MEMBERSHIP_OWNER(HttpStatus.BAD_REQUEST, "맴버십 오너가 아님");
+    NOT_MEMBERSHIP_OWNER(HttpStatus.BAD_REQUEST, "맴버십 오너가 아님"),
+    IMPORT_NOT_FOUND(HttpStatus.NOT_FOUND, "존재하지 않는 가져오기 작업"),
+    INVALID_IMPORT_FILE(HttpStatus.BAD_REQUEST, "가져올 수 없는 파일 형식"),
+    EXPORT_BUSY(HttpStatus.TOO_MANY_REQUESTS, "진행 중인 내보내기가 많음"),
+    SERVICE_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "처리 중인 요청이 많음"),
+    IDEMPOTENCY_KEY_REUSED(HttpStatus.UNPROCESSABLE_ENTITY, "다른 요청에 사용된 멱등키"),
+    IDEMPOTENCY_REQUEST_IN_PROGRESS(HttpStatus.CONFLICT, "같은 멱등키로 처리 중인 요청이 있음");
 
     private final HttpStatus httpStatus;
     private final String description;
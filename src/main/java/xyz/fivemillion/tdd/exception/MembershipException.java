@@ -1,12 +1,21 @@
 package xyz.fivemillion.tdd.exception;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import xyz.fivemillion.tdd.error.MembershipError;
 
+/**
+ * 요청 처리 결과로 예상되는 업무 오류. 응답 코드를 정하는 데만 쓰이므로 기본으로 스택 트레이스를 채우지 않는다.
+ * 디버깅이 필요하면 -Dmembership.exception.stack-trace=true 로 다시 켤 수 있다.
+ */
 @Getter
-@RequiredArgsConstructor
 public class MembershipException extends RuntimeException {
 
+    private static final boolean WRITABLE_STACK_TRACE = Boolean.getBoolean("membership.exception.stack-trace");
+
     private final MembershipError errorCode;
+
+    public MembershipException(MembershipError errorCode) {
+        super(errorCode.name(), null, false, WRITABLE_STACK_TRACE);
+        this.errorCode = errorCode;
+    }
 }
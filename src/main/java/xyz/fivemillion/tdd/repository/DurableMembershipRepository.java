@@ -0,0 +1,216 @@
+package xyz.fivemillion.tdd.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.Assert;
+import xyz.fivemillion.tdd.domain.Membership;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 재시작해도 맴버십이 남는 메모리 저장소. 모든 변경을 WAL 에 남기고, 주기적으로 전체를 스냅샷으로 떠서 WAL 을 줄인다.
+ * 시작할 때 마지막 스냅샷을 읽고 그 뒤의 WAL 을 다시 적용한다.
+ * <p>
+ * sync 가 켜져 있으면 변경은 WAL 이 디스크에 내려간 뒤에 돌아온다. 스냅샷을 뜨는 동안에는 진행 중인 변경이 없도록 잠깐 막는다.
+ */
+@Slf4j
+public class DurableMembershipRepository extends InMemoryMembershipRepository implements Closeable {
+
+    private final Path directory;
+    private final MembershipWal wal;
+    // 변경은 읽기 락, 스냅샷은 쓰기 락을 잡는다. 스냅샷에 담긴 변경과 WAL 에 남은 변경이 겹치지 않게 한다
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private long snapshotLsn;
+
+    public DurableMembershipRepository(PointTransactionRepository pointTransactionRepository, int shardCount,
+                                       Path directory, int segmentSize, boolean sync, long flushIntervalMillis) {
+        this(pointTransactionRepository, shardCount, directory, openWal(directory, segmentSize, sync, flushIntervalMillis));
+    }
+
+    private DurableMembershipRepository(PointTransactionRepository pointTransactionRepository, int shardCount,
+                                        Path directory, MembershipWal wal) {
+        super(pointTransactionRepository, shardCount, wal);
+        this.directory = directory;
+        this.wal = wal;
+
+        try {
+            recover();
+        } catch (IOException e) {
+            wal.close();
+            throw new UncheckedIOException("Failed to recover membership repository from " + directory, e);
+        }
+    }
+
+    @Override
+    public <S extends Membership> List<S> saveAll(Iterable<S> entities) {
+        List<S> memberships = new ArrayList<>();
+        entities.forEach(entity -> {
+            Assert.notNull(entity, "Entity must not be null");
+            checkRecordable(entity);
+            memberships.add(entity);
+        });
+        return mutate(() -> super.saveAll(memberships));
+    }
+
+    @Override
+    public int addPoint(Long membershipId, String userId, int point) {
+        return mutate(() -> super.addPoint(membershipId, userId, point));
+    }
+
+    @Override
+    public int[] addPoints(Map<Long, Integer> pointByMembershipId) {
+        return mutate(() -> super.addPoints(pointByMembershipId));
+    }
+
+    @Override
+    public int[] rebuildPoints(Collection<Long> membershipIds) {
+        return mutate(() -> super.rebuildPoints(membershipIds));
+    }
+
+    @Override
+    public int deleteByIdAndUserId(Long membershipId, String userId) {
+        return mutate(() -> super.deleteByIdAndUserId(membershipId, userId));
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        mutate(() -> {
+            super.deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(Membership entity) {
+        mutate(() -> {
+            super.delete(entity);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        mutate(() -> {
+            super.deleteAll();
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        mutate(() -> {
+            super.deleteAllByIdInBatch(ids);
+            return null;
+        });
+    }
+
+    @Override
+    void rollBack(List<Runnable> undos) {
+        mutate(() -> {
+            super.rollBack(undos);
+            return null;
+        });
+    }
+
+    /**
+     * 마지막 스냅샷 뒤로 변경이 있으면 새 스냅샷을 쓰고, 그보다 오래된 스냅샷과 WAL 세그먼트를 지운다.
+     * 행을 모으는 동안만 변경을 막고, 파일은 막지 않은 채로 쓴다.
+     */
+    public synchronized void compact() throws IOException {
+        long lsn;
+        long lastId;
+        List<Row> rows;
+        snapshotLock.writeLock().lock();
+        try {
+            lsn = wal.roll();
+            if (lsn == snapshotLsn)
+                return;
+            lastId = lastId();
+            rows = captureRows();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+
+        long startedAt = System.nanoTime();
+        MembershipSnapshot.write(directory, lsn, lastId, rows);
+        MembershipSnapshot.deleteOlderThan(directory, lsn);
+        wal.deleteSegmentsUpTo(lsn);
+        snapshotLsn = lsn;
+        log.info("Wrote membership snapshot at lsn {} with {} rows in {} ms",
+                lsn, rows.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @Scheduled(
+            initialDelayString = "${membership.repository.in-memory.wal.snapshot-interval-ms:600000}",
+            fixedDelayString = "${membership.repository.in-memory.wal.snapshot-interval-ms:600000}")
+    public void scheduledCompact() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Membership snapshot failed, keeping the WAL", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        snapshotLock.writeLock().lock();
+        try {
+            wal.close();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        long startedAt = System.nanoTime();
+        MembershipMutationLog applier = applier();
+        snapshotLsn = MembershipSnapshot.load(directory, this::restoreLastId, applier::inserted);
+        long lastLsn = wal.replay(snapshotLsn, applier);
+        wal.openForAppend(lastLsn);
+
+        log.info("Recovered {} memberships from snapshot lsn {} and {} WAL records in {} ms",
+                count(), snapshotLsn, lastLsn - snapshotLsn, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    // WAL 에 남기지 못하는 행은 묶음 일부만 저장되지 않도록 미리 거른다
+    private static void checkRecordable(Membership membership) {
+        String userId = membership.getUserId();
+        if (userId != null && userId.getBytes(StandardCharsets.UTF_8).length > MembershipRecordCodec.MAX_USER_ID_BYTES)
+            throw new DataIntegrityViolationException(
+                    "Membership userId is longer than " + MembershipRecordCodec.MAX_USER_ID_BYTES + " bytes");
+    }
+
+    // 디스크 반영은 락을 놓은 뒤에 기다리므로 스냅샷을 막지 않는다
+    private <T> T mutate(Supplier<T> mutation) {
+        T result;
+        snapshotLock.readLock().lock();
+        try {
+            result = mutation.get();
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+
+        wal.sync();
+        return result;
+    }
+
+    private static MembershipWal openWal(Path directory, int segmentSize, boolean sync, long flushIntervalMillis) {
+        try {
+            return new MembershipWal(directory, segmentSize, sync, flushIntervalMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open membership WAL in " + directory, e);
+        }
+    }
+}
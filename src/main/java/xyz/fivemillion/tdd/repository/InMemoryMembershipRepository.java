@@ -0,0 +1,1069 @@
+package xyz.fivemillion.tdd.repository;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.MembershipExportRow;
+import xyz.fivemillion.tdd.dto.MembershipKey;
+import xyz.fivemillion.tdd.dto.PointBalance;
+
+import javax.persistence.EntityNotFoundException;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * 맴버십을 메모리에만 두는 MembershipRepository 구현. 부하 테스트나 엣지 캐시처럼 DB 왕복 없이 같은 계약이 필요한 곳에서 쓴다.
+ * <p>
+ * 행은 ID 로 바로 찾는 페이지 배열에 불변 객체로 두고, 사용자별로는 맴버십 타입 수만큼의 ID 슬롯(long[])만 둔다.
+ * 사용자 인덱스는 userId 해시로 샤드를 나누며, 읽기는 락 없이, 등록과 삭제는 샤드 락 안에서 (userId, membershipType) 유일성을 검사한다.
+ * 포인트 증감은 행을 CAS 로 바꿔 끼워 락 없이 원자적으로 반영한다.
+ * <p>
+ * 변경은 바로 반영되어 커밋 전에도 다른 스레드에 보인다. 트랜잭션 안에서 바꾼 내용은 그 트랜잭션이 롤백되면 거꾸로 되돌린다.
+ * 조회 결과는 저장된 행의 복사본이라 엔티티를 고쳐도 save 전까지는 반영되지 않는다.
+ */
+public class InMemoryMembershipRepository implements MembershipRepository {
+
+    private static final MembershipType[] TYPES = MembershipType.values();
+    private static final long EMPTY_SLOT = 0L;
+
+    private static final Map<String, Function<Membership, Object>> EXAMPLE_PROPERTIES = Map.of(
+            "id", Membership::getId,
+            "userId", Membership::getUserId,
+            "membershipType", Membership::getMembershipType,
+            "point", Membership::getPoint,
+            "createdAt", Membership::getCreatedAt,
+            "updatedAt", Membership::getUpdatedAt);
+
+    private static final Field ID_FIELD = accessibleField("id");
+    private static final Field CREATED_AT_FIELD = accessibleField("createdAt");
+    private static final Field UPDATED_AT_FIELD = accessibleField("updatedAt");
+
+    private final PointTransactionRepository pointTransactionRepository;
+    private final MembershipMutationLog mutationLog;
+    private final Shard[] shards;
+    private final int shardMask;
+    private final IdIndex idIndex = new IdIndex();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong size = new AtomicLong();
+
+    public InMemoryMembershipRepository(PointTransactionRepository pointTransactionRepository, int shardCount) {
+        this(pointTransactionRepository, shardCount, MembershipMutationLog.NONE);
+    }
+
+    InMemoryMembershipRepository(
+            PointTransactionRepository pointTransactionRepository, int shardCount, MembershipMutationLog mutationLog) {
+        if (shardCount <= 0)
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+
+        int powerOfTwo = Integer.highestOneBit(shardCount - 1) << 1;
+        this.pointTransactionRepository = pointTransactionRepository;
+        this.mutationLog = mutationLog;
+        this.shards = new Shard[Math.max(1, powerOfTwo)];
+        this.shardMask = shards.length - 1;
+        for (int i = 0; i < shards.length; i++)
+            shards[i] = new Shard();
+    }
+
+    @Override
+    public <S extends Membership> S save(S entity) {
+        saveAll(List.of(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends Membership> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    /**
+     * 묶음 안의 모든 사용자 샤드를 순서대로 잠근 뒤 유일성을 한 번에 검사하므로, 중복이 하나라도 있으면 아무것도 저장하지 않는다.
+     * 새 맴버십은 연속된 ID 를 받는다.
+     */
+    @Override
+    public <S extends Membership> List<S> saveAll(Iterable<S> entities) {
+        List<S> memberships = new ArrayList<>();
+        entities.forEach(entity -> {
+            Assert.notNull(entity, "Entity must not be null");
+            memberships.add(entity);
+        });
+        if (memberships.isEmpty())
+            return memberships;
+
+        int[] lockedShards = lockShardsOf(memberships);
+        try {
+            checkUnique(memberships);
+
+            LocalDateTime now = LocalDateTime.now();
+            long nextId = sequence.getAndAdd(countNew(memberships)) + 1;
+            for (S membership : memberships) {
+                Row existing = membership.getId() == null ? null : idIndex.get(membership.getId());
+                if (existing == null)
+                    insert(membership, nextId++, now);
+                else
+                    update(existing, membership, now);
+            }
+        } finally {
+            unlock(lockedShards);
+        }
+
+        return memberships;
+    }
+
+    @Override
+    public <S extends Membership> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public Optional<Membership> findById(Long id) {
+        Assert.notNull(id, "The given id must not be null");
+        Row row = idIndex.get(id);
+        return row == null ? Optional.empty() : Optional.of(row.toMembership());
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        Assert.notNull(id, "The given id must not be null");
+        return idIndex.get(id) != null;
+    }
+
+    @Override
+    @Deprecated
+    public Membership getOne(Long id) {
+        return getById(id);
+    }
+
+    @Override
+    public Membership getById(Long id) {
+        return findById(id).orElseThrow(
+                () -> new EntityNotFoundException("Unable to find " + Membership.class.getName() + " with id " + id));
+    }
+
+    @Override
+    public List<Membership> findAllById(Iterable<Long> ids) {
+        List<Membership> memberships = new ArrayList<>();
+        for (Long id : ids) {
+            Row row = idIndex.get(id);
+            if (row != null)
+                memberships.add(row.toMembership());
+        }
+        return memberships;
+    }
+
+    @Override
+    public List<Membership> findAll() {
+        return rows().map(Row::toMembership).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Membership> findAll(Sort sort) {
+        List<Membership> memberships = findAll();
+        if (sort.isSorted())
+            memberships.sort(comparator(sort));
+        return memberships;
+    }
+
+    @Override
+    public Page<Membership> findAll(Pageable pageable) {
+        if (pageable.isUnpaged())
+            return new PageImpl<>(findAll());
+
+        return page(findAll(pageable.getSort()), pageable);
+    }
+
+    @Override
+    public long count() {
+        return size.get();
+    }
+
+    @Override
+    public List<Long> findIdsAfter(Long cursor, Pageable pageable) {
+        return idsAfter(cursor)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> findUserIdsByIdIn(Collection<Long> membershipIds) {
+        Set<String> userIds = new LinkedHashSet<>();
+        for (Long membershipId : membershipIds) {
+            Row row = idIndex.get(membershipId);
+            if (row != null)
+                userIds.add(row.userId);
+        }
+        return new ArrayList<>(userIds);
+    }
+
+    @Override
+    public boolean existsByIdAndUserId(Long id, String userId) {
+        return ownedRow(id, userId) != null;
+    }
+
+    @Override
+    public MembershipType findMembershipTypeByIdAndUserId(Long membershipId, String userId) {
+        Row row = ownedRow(membershipId, userId);
+        return row == null ? null : row.membershipType;
+    }
+
+    @Override
+    public Membership findByUserIdAndMembershipType(String userId, MembershipType membershipType) {
+        Row row = rowOf(userId, membershipType);
+        return row == null ? null : row.toMembership();
+    }
+
+    @Override
+    public List<Membership> findAllByUserId(String userId) {
+        return rowsOf(userId).stream().map(Row::toMembership).collect(Collectors.toList());
+    }
+
+    @Override
+    public MembershipDetailResponse findDetailByUserIdAndMembershipType(String userId, MembershipType membershipType) {
+        Row row = rowOf(userId, membershipType);
+        return row == null ? null : row.toDetail();
+    }
+
+    @Override
+    public List<MembershipDetailResponse> findAllDetailByUserId(String userId) {
+        return rowsOf(userId).stream().map(Row::toDetail).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<MembershipDetailResponse> findDetailPageByUserId(String userId, Long cursor, Pageable pageable) {
+        return rowsOf(userId).stream()
+                .filter(row -> row.id > cursor)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(Row::toDetail)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<MembershipDetailResponse> streamAllDetailByUserId(String userId) {
+        return rowsOf(userId).stream().map(Row::toDetail);
+    }
+
+    @Override
+    public Stream<MembershipExportRow> streamAllExportRows() {
+        return rows().map(Row::toExportRow);
+    }
+
+    @Override
+    public Stream<MembershipExportRow> streamExportRowsByMembershipType(MembershipType membershipType) {
+        return rows().filter(row -> row.membershipType == membershipType).map(Row::toExportRow);
+    }
+
+    @Override
+    public List<MembershipKey> findKeysByUserIdIn(Collection<String> userIds) {
+        List<MembershipKey> keys = new ArrayList<>();
+        for (String userId : userIds) {
+            long[] slots = shardOf(userId).slotsByUserId.get(userId);
+            if (slots == null)
+                continue;
+            for (int i = 0; i < slots.length; i++)
+                if (slots[i] != EMPTY_SLOT)
+                    keys.add(new MembershipKey(userId, TYPES[i]));
+        }
+        return keys;
+    }
+
+    @Override
+    public int addPoint(Long membershipId, String userId, int point) {
+        return addPoint(membershipId, userId, point, LocalDateTime.now()) ? 1 : 0;
+    }
+
+    @Override
+    public int[] addPoints(Map<Long, Integer> pointByMembershipId) {
+        LocalDateTime now = LocalDateTime.now();
+        int[] updated = new int[pointByMembershipId.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : pointByMembershipId.entrySet())
+            updated[i++] = addPoint(entry.getKey(), null, entry.getValue(), now) ? 1 : 0;
+        return updated;
+    }
+
+    @Override
+    public int[] rebuildPoints(Collection<Long> membershipIds) {
+        if (membershipIds.isEmpty())
+            return new int[0];
+
+        Map<Long, Long> pointByMembershipId = new HashMap<>();
+        for (PointBalance balance : pointTransactionRepository.sumPointByMembershipIdIn(membershipIds))
+            pointByMembershipId.put(balance.getMembershipId(), balance.getPoint());
+
+        LocalDateTime now = LocalDateTime.now();
+        int[] updated = new int[membershipIds.size()];
+        int i = 0;
+        for (Long membershipId : membershipIds) {
+            int point = Math.toIntExact(pointByMembershipId.getOrDefault(membershipId, 0L));
+            updated[i++] = replacePoint(membershipId, point, now) ? 1 : 0;
+        }
+        return updated;
+    }
+
+    @Override
+    public int deleteByIdAndUserId(Long membershipId, String userId) {
+        Row row = ownedRow(membershipId, userId);
+        return row != null && removeIfOwner(row) ? 1 : 0;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        Assert.notNull(id, "The given id must not be null");
+        if (!removeById(id))
+            throw new EmptyResultDataAccessException(
+                    String.format("No %s entity with id %s exists!", Membership.class, id), 1);
+    }
+
+    @Override
+    public void delete(Membership entity) {
+        Assert.notNull(entity, "Entity must not be null");
+        if (entity.getId() != null)
+            removeById(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Membership> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        rows().forEach(row -> removeById(row.id));
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Membership> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        ids.forEach(this::removeById);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    public <S extends Membership> Optional<S> findOne(Example<S> example) {
+        List<S> memberships = findAll(example);
+        if (memberships.size() > 1)
+            throw new IncorrectResultSizeDataAccessException(1, memberships.size());
+        return memberships.stream().findFirst();
+    }
+
+    @Override
+    public <S extends Membership> List<S> findAll(Example<S> example) {
+        return matching(example).collect(Collectors.toList());
+    }
+
+    @Override
+    public <S extends Membership> List<S> findAll(Example<S> example, Sort sort) {
+        List<S> memberships = findAll(example);
+        if (sort.isSorted())
+            memberships.sort(comparator(sort));
+        return memberships;
+    }
+
+    @Override
+    public <S extends Membership> Page<S> findAll(Example<S> example, Pageable pageable) {
+        if (pageable.isUnpaged())
+            return new PageImpl<>(findAll(example));
+
+        return page(findAll(example, pageable.getSort()), pageable);
+    }
+
+    @Override
+    public <S extends Membership> long count(Example<S> example) {
+        return matching(example).count();
+    }
+
+    @Override
+    public <S extends Membership> boolean exists(Example<S> example) {
+        return matching(example).findAny().isPresent();
+    }
+
+    /**
+     * 현재 행들을 한 번에 모은다. 행은 불변이므로 모으는 동안 변경이 없으면 그 시점의 일관된 상태가 된다.
+     */
+    List<Row> captureRows() {
+        List<Row> rows = new ArrayList<>((int) Math.min(size.get(), Integer.MAX_VALUE - 8));
+        rows().forEach(rows::add);
+        return rows;
+    }
+
+    /**
+     * 지금까지 발급한 가장 큰 ID. 삭제된 행의 ID 를 다시 쓰지 않도록 스냅샷에 함께 남긴다.
+     */
+    long lastId() {
+        return sequence.get();
+    }
+
+    void restoreLastId(long lastId) {
+        sequence.accumulateAndGet(lastId, Math::max);
+    }
+
+    /**
+     * 롤백된 트랜잭션의 변경을 반영한 순서의 역순으로 되돌린다. 되돌리는 변경도 다른 변경과 같이 로그에 남는다.
+     * 하나를 되돌리지 못해도 나머지는 마저 되돌린다.
+     */
+    void rollBack(List<Runnable> undos) {
+        RuntimeException failure = null;
+        for (int i = undos.size() - 1; i >= 0; i--) {
+            try {
+                undos.get(i).run();
+            } catch (RuntimeException e) {
+                if (failure == null)
+                    failure = e;
+                else
+                    failure.addSuppressed(e);
+            }
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * 기록해 둔 변경을 로그를 남기지 않고 다시 적용한다. 저장소를 공개하기 전에 한 스레드에서만 쓴다.
+     */
+    MembershipMutationLog applier() {
+        return new Applier();
+    }
+
+    private Shard shardOf(String userId) {
+        return shards[shardIndexOf(userId)];
+    }
+
+    private int shardIndexOf(String userId) {
+        int hash = userId.hashCode();
+        return (hash ^ (hash >>> 16)) & shardMask;
+    }
+
+    private Row rowOf(String userId, MembershipType membershipType) {
+        long[] slots = shardOf(userId).slotsByUserId.get(userId);
+        if (slots == null || slots[membershipType.ordinal()] == EMPTY_SLOT)
+            return null;
+
+        // 슬롯을 읽은 뒤 행이 다른 사용자로 옮겨졌을 수 있다
+        Row row = idIndex.get(slots[membershipType.ordinal()]);
+        return row != null && row.userId.equals(userId) ? row : null;
+    }
+
+    // ID 순으로 돌려준다
+    private List<Row> rowsOf(String userId) {
+        long[] slots = shardOf(userId).slotsByUserId.get(userId);
+        if (slots == null)
+            return List.of();
+
+        List<Row> rows = new ArrayList<>(slots.length);
+        for (long id : slots) {
+            Row row = id == EMPTY_SLOT ? null : idIndex.get(id);
+            if (row != null && row.userId.equals(userId))
+                rows.add(row);
+        }
+        rows.sort(Comparator.comparingLong(row -> row.id));
+        return rows;
+    }
+
+    private Row ownedRow(Long membershipId, String userId) {
+        Row row = membershipId == null ? null : idIndex.get(membershipId);
+        return row != null && row.userId.equals(userId) ? row : null;
+    }
+
+    private LongStream idsAfter(long cursor) {
+        return LongStream.rangeClosed(Math.max(cursor, 0) + 1, sequence.get())
+                .filter(id -> idIndex.get(id) != null);
+    }
+
+    private Stream<Row> rows() {
+        return LongStream.rangeClosed(1, sequence.get())
+                .mapToObj(idIndex::get)
+                .filter(Objects::nonNull);
+    }
+
+    // userId 가 null 이면 소유자를 검사하지 않는다
+    private boolean addPoint(Long membershipId, String userId, int point, LocalDateTime now) {
+        if (membershipId == null)
+            return false;
+
+        while (true) {
+            Row row = idIndex.get(membershipId);
+            if (row == null || (userId != null && !row.userId.equals(userId)))
+                return false;
+            if (idIndex.compareAndSet(membershipId, row, row.withPoint(row.point + point, now))) {
+                logPointAdded(membershipId, point, now);
+                undoOnRollback(() -> addPoint(membershipId, null, -point, LocalDateTime.now()));
+                return true;
+            }
+        }
+    }
+
+    private boolean replacePoint(Long membershipId, int point, LocalDateTime now) {
+        while (true) {
+            Row row = idIndex.get(membershipId);
+            if (row == null)
+                return false;
+            if (idIndex.compareAndSet(membershipId, row, row.withPoint(point, now))) {
+                int delta = point - row.point;
+                logPointAdded(membershipId, delta, now);
+                undoOnRollback(() -> addPoint(membershipId, null, -delta, LocalDateTime.now()));
+                return true;
+            }
+        }
+    }
+
+    // 증분은 행을 바꿔 끼운 뒤에야 정해지므로 먼저 반영하고, 로그에 남기지 못하면 그 증분만 되돌린다.
+    // 그 사이에 끼어든 다른 적립도 증분이므로 되돌려도 그대로 남는다
+    private void logPointAdded(long membershipId, int delta, LocalDateTime now) {
+        try {
+            mutationLog.pointAdded(membershipId, delta, now);
+        } catch (RuntimeException e) {
+            revertPoint(membershipId, delta);
+            throw e;
+        }
+    }
+
+    private void revertPoint(long membershipId, int delta) {
+        while (true) {
+            Row row = idIndex.get(membershipId);
+            if (row == null || idIndex.compareAndSet(membershipId, row, row.withPoint(row.point - delta, row.updatedAt)))
+                return;
+        }
+    }
+
+    private int[] lockShardsOf(List<? extends Membership> memberships) {
+        Set<Integer> shardIndexes = new TreeSet<>();
+        for (Membership membership : memberships) {
+            shardIndexes.add(shardIndexOf(membership.getUserId()));
+            Row existing = membership.getId() == null ? null : idIndex.get(membership.getId());
+            if (existing != null)
+                shardIndexes.add(shardIndexOf(existing.userId));
+        }
+
+        // 교착을 피하려고 항상 샤드 번호 순으로 잠근다
+        int[] locked = shardIndexes.stream().mapToInt(Integer::intValue).toArray();
+        for (int shardIndex : locked)
+            shards[shardIndex].writeLock.lock();
+        return locked;
+    }
+
+    private void unlock(int[] lockedShards) {
+        for (int i = lockedShards.length - 1; i >= 0; i--)
+            shards[lockedShards[i]].writeLock.unlock();
+    }
+
+    private void checkUnique(List<? extends Membership> memberships) {
+        Set<MembershipKey> claimed = new HashSet<>();
+        for (Membership membership : memberships) {
+            if (membership.getUserId() == null)
+                throw new DataIntegrityViolationException("Membership userId must not be null");
+            // DB 유니크 제약과 같이 타입이 없는 행은 중복 검사에서 빠진다
+            if (membership.getMembershipType() == null)
+                continue;
+
+            Row owner = rowOf(membership.getUserId(), membership.getMembershipType());
+            boolean ownedByOther = owner != null && !Objects.equals(owner.id, membership.getId());
+            boolean claimedInBatch = !claimed.add(new MembershipKey(membership.getUserId(), membership.getMembershipType()));
+            if (ownedByOther || claimedInBatch)
+                throw new DataIntegrityViolationException(
+                        "Duplicate membership: userId=" + membership.getUserId()
+                                + ", membershipType=" + membership.getMembershipType());
+        }
+    }
+
+    private int countNew(List<? extends Membership> memberships) {
+        int count = 0;
+        for (Membership membership : memberships)
+            if (membership.getId() == null || idIndex.get(membership.getId()) == null)
+                count++;
+        return count;
+    }
+
+    // 호출 전에 사용자 샤드가 잠겨 있어야 한다
+    private void insert(Membership membership, long id, LocalDateTime now) {
+        LocalDateTime createdAt = membership.getCreatedAt() == null ? now : membership.getCreatedAt();
+        Row row = new Row(id, membership.getUserId(), membership.getMembershipType(), membership.getPoint(), createdAt, now);
+
+        mutationLog.inserted(row);
+        idIndex.set(id, row);
+        putSlot(row);
+        size.incrementAndGet();
+        undoOnRollback(() -> removeById(id));
+
+        ReflectionUtils.setField(ID_FIELD, membership, id);
+        ReflectionUtils.setField(CREATED_AT_FIELD, membership, createdAt);
+        ReflectionUtils.setField(UPDATED_AT_FIELD, membership, now);
+    }
+
+    // 호출 전에 이전 사용자와 새 사용자의 샤드가 모두 잠겨 있어야 한다
+    private void update(Row existing, Membership membership, LocalDateTime now) {
+        Row row = new Row(existing.id, membership.getUserId(), membership.getMembershipType(),
+                membership.getPoint(), existing.createdAt, now);
+
+        // 사용자, 타입, 시각은 insert 와 같이 로그에 먼저 남긴 뒤에 공개한다
+        mutationLog.updated(row);
+
+        // 락 없이 진행 중인 적립과 겹칠 수 있으므로 바꿔 끼운 행 기준으로 포인트 증분을 남긴다
+        Row replaced;
+        do {
+            replaced = idIndex.get(existing.id);
+        } while (!idIndex.compareAndSet(existing.id, replaced, row));
+
+        removeSlot(replaced);
+        putSlot(row);
+        int delta = row.point - replaced.point;
+        logPointAdded(row.id, delta, now);
+        Row previous = replaced;
+        undoOnRollback(() -> restoreUpdated(previous, delta));
+
+        ReflectionUtils.setField(CREATED_AT_FIELD, membership, existing.createdAt);
+        ReflectionUtils.setField(UPDATED_AT_FIELD, membership, now);
+    }
+
+    private boolean removeById(long id) {
+        while (true) {
+            Row row = idIndex.get(id);
+            if (row == null)
+                return false;
+            // 락을 기다리는 동안 소유자가 바뀌었으면 바뀐 사용자의 샤드에서 다시 시도한다
+            if (removeIfOwner(row))
+                return true;
+        }
+    }
+
+    private boolean removeIfOwner(Row row) {
+        Shard shard = shardOf(row.userId);
+        shard.writeLock.lock();
+        try {
+            Row current = idIndex.get(row.id);
+            if (current == null || !current.userId.equals(row.userId))
+                return false;
+
+            mutationLog.removed(current.id);
+            removeSlot(current);
+            idIndex.set(current.id, null);
+            size.decrementAndGet();
+            undoOnRollback(() -> reinsert(current));
+            return true;
+        } finally {
+            shard.writeLock.unlock();
+        }
+    }
+
+    // 사용자, 타입을 바꾸기 전으로 돌린다. 포인트는 그 뒤의 적립을 남긴 채 이 변경의 증분만 뺀다
+    private void restoreUpdated(Row previous, int delta) {
+        Row current = idIndex.get(previous.id);
+        if (current == null)
+            return;
+
+        saveAll(List.of(new Membership(previous.id, previous.userId, previous.membershipType,
+                current.point - delta, previous.createdAt, previous.updatedAt)));
+    }
+
+    // 지운 행을 같은 ID 로 되살린다. 그 사이에 같은 맴버십이 다시 등록되었으면 되살리지 않는다
+    private void reinsert(Row row) {
+        Shard shard = shardOf(row.userId);
+        shard.writeLock.lock();
+        try {
+            if (idIndex.get(row.id) != null
+                    || (row.membershipType != null && rowOf(row.userId, row.membershipType) != null))
+                return;
+
+            mutationLog.inserted(row);
+            idIndex.set(row.id, row);
+            putSlot(row);
+            size.incrementAndGet();
+        } finally {
+            shard.writeLock.unlock();
+        }
+    }
+
+    // 트랜잭션 안의 변경이면 롤백될 때 실행할 되돌리기를 남긴다
+    private void undoOnRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+
+        UndoLog undoLog = (UndoLog) TransactionSynchronizationManager.getResource(this);
+        if (undoLog == null) {
+            undoLog = new UndoLog();
+            TransactionSynchronizationManager.bindResource(this, undoLog);
+            TransactionSynchronizationManager.registerSynchronization(undoLog);
+        }
+        undoLog.add(undo);
+    }
+
+    // 슬롯 배열은 공개한 뒤에는 고치지 않고 새로 만들어 바꿔 끼우므로 읽는 쪽은 락이 필요 없다
+    private void putSlot(Row row) {
+        if (row.membershipType == null)
+            return;
+
+        Map<String, long[]> slotsByUserId = shardOf(row.userId).slotsByUserId;
+        long[] current = slotsByUserId.get(row.userId);
+        long[] slots = current == null ? new long[TYPES.length] : current.clone();
+        slots[row.membershipType.ordinal()] = row.id;
+        slotsByUserId.put(row.userId, slots);
+    }
+
+    private void removeSlot(Row row) {
+        Map<String, long[]> slotsByUserId = shardOf(row.userId).slotsByUserId;
+        long[] current = slotsByUserId.get(row.userId);
+        if (current == null || row.membershipType == null || current[row.membershipType.ordinal()] != row.id)
+            return;
+
+        long[] slots = current.clone();
+        slots[row.membershipType.ordinal()] = EMPTY_SLOT;
+        if (Arrays.stream(slots).allMatch(id -> id == EMPTY_SLOT))
+            slotsByUserId.remove(row.userId);
+        else
+            slotsByUserId.put(row.userId, slots);
+    }
+
+    private static Comparator<Membership> comparator(Sort sort) {
+        Comparator<Membership> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Membership> next = propertyComparator(order.getProperty());
+            if (order.isDescending())
+                next = next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private static Comparator<Membership> propertyComparator(String property) {
+        switch (property) {
+            case "id":
+                return Comparator.comparing(Membership::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "userId":
+                return Comparator.comparing(Membership::getUserId, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "membershipType":
+                // DB 에는 이름으로 저장되므로 선언 순서가 아니라 이름 순으로 정렬한다
+                return Comparator.comparing(
+                        membership -> membership.getMembershipType() == null ? null : membership.getMembershipType().name(),
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "point":
+                return Comparator.comparingInt(Membership::getPoint);
+            case "createdAt":
+                return Comparator.comparing(Membership::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "updatedAt":
+                return Comparator.comparing(Membership::getUpdatedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+            default:
+                throw new InvalidDataAccessApiUsageException("Unknown sort property of Membership: " + property);
+        }
+    }
+
+    private static <T> Page<T> page(List<T> all, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(new ArrayList<>(all.subList(from, to)), pageable, all.size());
+    }
+
+    // 행은 Membership 으로만 돌려주므로 예제의 타입이 하위 타입이면 아무것도 찾지 않는다
+    private <S extends Membership> Stream<S> matching(Example<S> example) {
+        Predicate<Membership> predicate = examplePredicate(example);
+        Class<S> probeType = example.getProbeType();
+        return rows().map(Row::toMembership)
+                .filter(probeType::isInstance)
+                .filter(predicate)
+                .map(probeType::cast);
+    }
+
+    /**
+     * JPA 의 Query by Example 과 같은 규칙으로 비교한다. 문자열만 StringMatcher 와 대소문자 무시를 따르고 나머지는 값이 같아야 한다.
+     * 원시 타입인 point 는 null 이 될 수 없으므로 무시 경로로 빼지 않으면 항상 비교한다.
+     */
+    private static Predicate<Membership> examplePredicate(Example<? extends Membership> example) {
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(example.getMatcher());
+        Membership probe = example.getProbe();
+
+        List<Predicate<Membership>> predicates = new ArrayList<>();
+        EXAMPLE_PROPERTIES.forEach((path, getter) -> {
+            if (accessor.isIgnoredPath(path))
+                return;
+
+            Optional<Object> value = accessor.getValueTransformerForPath(path).apply(Optional.ofNullable(getter.apply(probe)));
+            if (value.isEmpty()) {
+                if (accessor.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE)
+                    predicates.add(membership -> getter.apply(membership) == null);
+                return;
+            }
+
+            Object expected = value.get();
+            predicates.add(expected instanceof String
+                    ? stringPredicate(getter, (String) expected, accessor.getStringMatcherForPath(path),
+                            accessor.isIgnoreCaseForPath(path))
+                    : membership -> expected.equals(getter.apply(membership)));
+        });
+
+        BinaryOperator<Predicate<Membership>> combiner = example.getMatcher().isAllMatching() ? Predicate::and : Predicate::or;
+        return predicates.stream().reduce(combiner).orElse(membership -> true);
+    }
+
+    private static Predicate<Membership> stringPredicate(Function<Membership, Object> getter, String expected,
+                                                         ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase) {
+        BiPredicate<String, String> matcher;
+        switch (stringMatcher) {
+            case DEFAULT:
+            case EXACT:
+                matcher = String::equals;
+                break;
+            case STARTING:
+                matcher = String::startsWith;
+                break;
+            case ENDING:
+                matcher = String::endsWith;
+                break;
+            case CONTAINING:
+                matcher = String::contains;
+                break;
+            default:
+                throw new InvalidDataAccessApiUsageException("Unsupported StringMatcher " + stringMatcher);
+        }
+
+        String probe = ignoreCase ? expected.toLowerCase() : expected;
+        return membership -> {
+            Object value = getter.apply(membership);
+            if (value == null)
+                return false;
+            return matcher.test(ignoreCase ? value.toString().toLowerCase() : value.toString(), probe);
+        };
+    }
+
+    private static Field accessibleField(String name) {
+        Field field = ReflectionUtils.findField(Membership.class, name);
+        if (field == null)
+            throw new IllegalStateException("Membership has no field " + name);
+        ReflectionUtils.makeAccessible(field);
+        return field;
+    }
+
+    private final class Applier implements MembershipMutationLog {
+
+        @Override
+        public void inserted(Row row) {
+            Row existing = idIndex.get(row.id);
+            if (existing == null)
+                size.incrementAndGet();
+            else
+                removeSlot(existing);
+
+            idIndex.set(row.id, row);
+            putSlot(row);
+            sequence.accumulateAndGet(row.id, Math::max);
+        }
+
+        @Override
+        public void updated(Row row) {
+            Row existing = idIndex.get(row.id);
+            if (existing == null)
+                return;
+
+            Row updated = new Row(row.id, row.userId, row.membershipType, existing.point, row.createdAt, row.updatedAt);
+            removeSlot(existing);
+            idIndex.set(row.id, updated);
+            putSlot(updated);
+        }
+
+        @Override
+        public void pointAdded(long membershipId, int delta, LocalDateTime updatedAt) {
+            Row existing = idIndex.get(membershipId);
+            if (existing != null)
+                idIndex.set(membershipId, existing.withPoint(existing.point + delta, updatedAt));
+        }
+
+        @Override
+        public void removed(long membershipId) {
+            Row existing = idIndex.get(membershipId);
+            if (existing == null)
+                return;
+
+            removeSlot(existing);
+            idIndex.set(membershipId, null);
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * 트랜잭션 하나에서 한 변경의 되돌리기. 트랜잭션 리소스로 묶어 두고 커밋되지 않고 끝나면 실행한다.
+     */
+    private final class UndoLog implements TransactionSynchronization {
+
+        private final List<Runnable> undos = new ArrayList<>();
+        private boolean completed;
+
+        void add(Runnable undo) {
+            // 되돌리는 중에 생긴 변경은 다시 남기지 않는다
+            if (!completed)
+                undos.add(undo);
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(InMemoryMembershipRepository.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(InMemoryMembershipRepository.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            completed = true;
+            try {
+                if (status != STATUS_COMMITTED)
+                    rollBack(undos);
+            } finally {
+                TransactionSynchronizationManager.unbindResourceIfPossible(InMemoryMembershipRepository.this);
+            }
+        }
+    }
+
+    private static final class Shard {
+
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private final Map<String, long[]> slotsByUserId = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 시퀀스로 발급한 ID 는 빽빽하므로 해시 대신 고정 크기 페이지의 배열로 찾는다. 박싱도 해시 충돌도 없다.
+     */
+    private static final class IdIndex {
+
+        private static final int PAGE_SHIFT = 12;
+        private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+        private static final int OFFSET_MASK = PAGE_SIZE - 1;
+
+        private volatile Page[] pages = newPages(new Page[0], 1);
+
+        Row get(long id) {
+            if (id <= 0)
+                return null;
+
+            Page[] current = pages;
+            long page = id >>> PAGE_SHIFT;
+            return page < current.length ? current[(int) page].rows.get((int) (id & OFFSET_MASK)) : null;
+        }
+
+        void set(long id, Row row) {
+            pageOf(id).rows.set((int) (id & OFFSET_MASK), row);
+        }
+
+        boolean compareAndSet(long id, Row expected, Row row) {
+            return pageOf(id).rows.compareAndSet((int) (id & OFFSET_MASK), expected, row);
+        }
+
+        private Page pageOf(long id) {
+            int page = Math.toIntExact(id >>> PAGE_SHIFT);
+            Page[] current = pages;
+            if (page < current.length)
+                return current[page];
+
+            synchronized (this) {
+                if (page >= pages.length)
+                    pages = newPages(pages, Math.max(page + 1, pages.length * 2));
+                return pages[page];
+            }
+        }
+
+        private static Page[] newPages(Page[] current, int length) {
+            Page[] pages = Arrays.copyOf(current, length);
+            for (int i = current.length; i < length; i++)
+                pages[i] = new Page();
+            return pages;
+        }
+
+        // 제네릭 배열을 만들 수 없으므로 페이지를 한 번 감싼다
+        private static final class Page {
+
+            private final AtomicReferenceArray<Row> rows = new AtomicReferenceArray<>(PAGE_SIZE);
+        }
+    }
+
+    static final class Row {
+
+        final long id;
+        final String userId;
+        final MembershipType membershipType;
+        final int point;
+        final LocalDateTime createdAt;
+        final LocalDateTime updatedAt;
+
+        Row(long id, String userId, MembershipType membershipType, int point,
+                    LocalDateTime createdAt, LocalDateTime updatedAt) {
+            this.id = id;
+            this.userId = userId;
+            this.membershipType = membershipType;
+            this.point = point;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+        }
+
+        private Row withPoint(int point, LocalDateTime updatedAt) {
+            return new Row(id, userId, membershipType, point, createdAt, updatedAt);
+        }
+
+        private Membership toMembership() {
+            return new Membership(id, userId, membershipType, point, createdAt, updatedAt);
+        }
+
+        private MembershipDetailResponse toDetail() {
+            return new MembershipDetailResponse(id, point, membershipType, createdAt);
+        }
+
+        private MembershipExportRow toExportRow() {
+            return new MembershipExportRow(id, userId, membershipType, point);
+        }
+    }
+}
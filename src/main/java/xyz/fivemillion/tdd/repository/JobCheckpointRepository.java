@@ -0,0 +1,7 @@
+package xyz.fivemillion.tdd.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import xyz.fivemillion.tdd.domain.JobCheckpoint;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -0,0 +1,34 @@
+package xyz.fivemillion.tdd.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 메모리 저장소의 변경을 반영 순서대로 받는다. 저장소는 같은 맴버십에 대한 변경끼리의 순서가 메모리와 같도록 호출한다.
+ * 포인트는 pointAdded 로만 바뀌므로, 증분끼리는 순서가 달라도 결과가 같다.
+ */
+interface MembershipMutationLog {
+
+    MembershipMutationLog NONE = new MembershipMutationLog() {
+    };
+
+    /**
+     * 새 행이 조회되기 전에 호출된다.
+     */
+    default void inserted(InMemoryMembershipRepository.Row row) {
+    }
+
+    /**
+     * 사용자, 타입, 시각이 바뀌었다. row 의 point 는 쓰지 않는다.
+     */
+    default void updated(InMemoryMembershipRepository.Row row) {
+    }
+
+    default void pointAdded(long membershipId, int delta, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * 행이 조회에서 빠지기 전에 호출된다.
+     */
+    default void removed(long membershipId) {
+    }
+}
@@ -0,0 +1,81 @@
+package xyz.fivemillion.tdd.repository;
+
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * WAL 과 스냅샷이 함께 쓰는 맴버십 행의 이진 표현. 시각은 UTC 기준 초와 나노초로 남겨 그대로 복원한다.
+ */
+final class MembershipRecordCodec {
+
+    static final int MAX_USER_ID_BYTES = 1024;
+    static final int MAX_ROW_SIZE = Long.BYTES + Short.BYTES + MAX_USER_ID_BYTES + Byte.BYTES + Integer.BYTES
+            + 2 * (Long.BYTES + Integer.BYTES);
+
+    private static final MembershipType[] TYPES = MembershipType.values();
+    private static final byte NO_TYPE = -1;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private MembershipRecordCodec() {
+    }
+
+    static void putRow(ByteBuffer buffer, InMemoryMembershipRepository.Row row) {
+        buffer.putLong(row.id);
+        putUserId(buffer, row.userId);
+        putType(buffer, row.membershipType);
+        buffer.putInt(row.point);
+        putTimestamp(buffer, row.createdAt);
+        putTimestamp(buffer, row.updatedAt);
+    }
+
+    static InMemoryMembershipRepository.Row getRow(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        String userId = getUserId(buffer);
+        MembershipType membershipType = getType(buffer);
+        int point = buffer.getInt();
+        LocalDateTime createdAt = getTimestamp(buffer);
+        LocalDateTime updatedAt = getTimestamp(buffer);
+        return new InMemoryMembershipRepository.Row(id, userId, membershipType, point, createdAt, updatedAt);
+    }
+
+    static void putTimestamp(ByteBuffer buffer, LocalDateTime timestamp) {
+        if (timestamp == null) {
+            buffer.putLong(NO_TIMESTAMP).putInt(0);
+            return;
+        }
+        buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC)).putInt(timestamp.getNano());
+    }
+
+    static LocalDateTime getTimestamp(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        return epochSecond == NO_TIMESTAMP ? null : LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private static void putUserId(ByteBuffer buffer, String userId) {
+        byte[] bytes = userId.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_USER_ID_BYTES)
+            throw new IllegalArgumentException("userId is longer than " + MAX_USER_ID_BYTES + " bytes");
+
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getUserId(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putType(ByteBuffer buffer, MembershipType membershipType) {
+        buffer.put(membershipType == null ? NO_TYPE : (byte) membershipType.ordinal());
+    }
+
+    private static MembershipType getType(ByteBuffer buffer) {
+        byte ordinal = buffer.get();
+        return ordinal == NO_TYPE ? null : TYPES[ordinal];
+    }
+}
@@ -1,13 +1,81 @@
 package xyz.fivemillion.tdd.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import xyz.fivemillion.tdd.domain.Membership;
 import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.MembershipExportRow;
+import xyz.fivemillion.tdd.dto.MembershipKey;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface MembershipRepository extends JpaRepository<Membership, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface MembershipRepository extends JpaRepository<Membership, Long>, MembershipRepositoryCustom {
 
     Membership findByUserIdAndMembershipType(String userId, MembershipType membershipType);
+
+    // l2cache 프로파일에서 사용자별 맴버십 ID 목록을 쿼리 캐시에 둔다. 엔티티는 2차 캐시에서 ID 별로 읽으므로 적립으로는 무효화되지 않는다
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Membership.LIST_QUERY_CACHE_REGION)
+    })
     List<Membership> findAllByUserId(String userId);
+
+    // 조회 전용 경로는 엔티티 대신 필요한 컬럼만 DTO 로 읽어서 영속성 컨텍스트에 올리지 않는다
+    String SELECT_DETAIL = "select new xyz.fivemillion.tdd.dto.MembershipDetailResponse(" +
+            "m.id, m.point, m.membershipType, m.createdAt) from Membership m ";
+
+    @Query(SELECT_DETAIL + "where m.userId = :userId and m.membershipType = :membershipType")
+    MembershipDetailResponse findDetailByUserIdAndMembershipType(
+            @Param("userId") String userId, @Param("membershipType") MembershipType membershipType);
+
+    // 결과에 잔액이 들어 있어 적립마다 바뀌므로 쿼리 캐시에 두지 않는다. 사용자별 목록 캐시가 이 결과를 캐시한다
+    @Query(SELECT_DETAIL + "where m.userId = :userId")
+    List<MembershipDetailResponse> findAllDetailByUserId(@Param("userId") String userId);
+
+    @Query(SELECT_DETAIL + "where m.userId = :userId and m.id > :cursor order by m.id")
+    List<MembershipDetailResponse> findDetailPageByUserId(
+            @Param("userId") String userId, @Param("cursor") Long cursor, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DETAIL + "where m.userId = :userId order by m.id")
+    Stream<MembershipDetailResponse> streamAllDetailByUserId(@Param("userId") String userId);
+
+    // 전체 스냅샷용. 읽는 만큼만 가져오도록 fetch size 를 준다
+    String SELECT_EXPORT_ROW = "select new xyz.fivemillion.tdd.dto.MembershipExportRow(" +
+            "m.id, m.userId, m.membershipType, m.point) from Membership m ";
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_EXPORT_ROW + "order by m.id")
+    Stream<MembershipExportRow> streamAllExportRows();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_EXPORT_ROW + "where m.membershipType = :membershipType order by m.id")
+    Stream<MembershipExportRow> streamExportRowsByMembershipType(@Param("membershipType") MembershipType membershipType);
+
+    @Query("select new xyz.fivemillion.tdd.dto.MembershipKey(m.userId, m.membershipType) " +
+            "from Membership m where m.userId in :userIds")
+    List<MembershipKey> findKeysByUserIdIn(@Param("userIds") Collection<String> userIds);
+
+    @Query("select m.id from Membership m where m.id > :cursor order by m.id")
+    List<Long> findIdsAfter(@Param("cursor") Long cursor, Pageable pageable);
+
+    @Query("select distinct m.userId from Membership m where m.id in :membershipIds")
+    List<String> findUserIdsByIdIn(@Param("membershipIds") Collection<Long> membershipIds);
+
+    boolean existsByIdAndUserId(Long id, String userId);
+
+    @Query("select m.membershipType from Membership m where m.id = :membershipId and m.userId = :userId")
+    MembershipType findMembershipTypeByIdAndUserId(
+            @Param("membershipId") Long membershipId, @Param("userId") String userId);
 }
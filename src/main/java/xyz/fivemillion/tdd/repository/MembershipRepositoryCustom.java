@@ -0,0 +1,26 @@
+package xyz.fivemillion.tdd.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface MembershipRepositoryCustom {
+
+    /**
+     * 동시 적립 시 갱신 유실이 없도록 DB 에서 원자적으로 증가시킨다.
+     * 소유자 조건을 함께 걸어 별도 조회 없이 한 문장으로 검증과 갱신을 끝낸다.
+     * @return 갱신된 행 수. 맴버십이 없거나 소유자가 다르면 0
+     */
+    int addPoint(Long membershipId, String userId, int point);
+
+    /**
+     * @return 삭제된 행 수. 맴버십이 없거나 소유자가 다르면 0
+     */
+    int deleteByIdAndUserId(Long membershipId, String userId);
+
+    int[] addPoints(Map<Long, Integer> pointByMembershipId);
+
+    /**
+     * 포인트 원장의 합계로 맴버십 잔액을 다시 계산한다.
+     */
+    int[] rebuildPoints(Collection<Long> membershipIds);
+}
@@ -0,0 +1,107 @@
+package xyz.fivemillion.tdd.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import xyz.fivemillion.tdd.domain.Membership;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class MembershipRepositoryImpl implements MembershipRepositoryCustom {
+
+    private static final String ADD_POINT_SQL =
+            "update membership set point = point + ?, updated_at = current_timestamp where id = ?";
+    private static final String ADD_OWNED_POINT_SQL = ADD_POINT_SQL + " and user_id = ?";
+    private static final String REBUILD_POINT_SQL =
+            "update membership set point = (" +
+                    "select coalesce(sum(t.point), 0) from point_transaction t where t.membership_id = membership.id" +
+                    "), updated_at = current_timestamp where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // JPQL bulk UPDATE 는 Hibernate 가 2차 캐시 영역 전체와 테이블의 쿼리 캐시를 비우므로, JDBC 로 바꾸고 해당 ID 만 비운다
+    @Override
+    @Transactional
+    public int addPoint(Long membershipId, String userId, int point) {
+        // JPQL 과 같이 보류 중인 변경을 먼저 내보내고, 갱신 뒤에는 영속성 컨텍스트의 이전 잔액을 버린다
+        entityManager.flush();
+        int updated = jdbcTemplate.update(ADD_OWNED_POINT_SQL, point, membershipId, userId);
+        entityManager.clear();
+
+        if (updated > 0)
+            evictSecondLevelCache(List.of(membershipId));
+        return updated;
+    }
+
+    // 엔티티로 지우면 2차 캐시에서는 그 맴버십만 빠진다. ID 목록이 바뀌므로 쿼리 캐시는 Hibernate 가 무효화한다
+    @Override
+    @Transactional
+    public int deleteByIdAndUserId(Long membershipId, String userId) {
+        Membership membership = entityManager.find(Membership.class, membershipId);
+        if (membership == null || !membership.getUserId().equals(userId))
+            return 0;
+
+        entityManager.remove(membership);
+        return 1;
+    }
+
+    @Override
+    @Transactional
+    public int[] addPoints(Map<Long, Integer> pointByMembershipId) {
+        List<Object[]> batchArgs = new ArrayList<>(pointByMembershipId.size());
+        pointByMembershipId.forEach((membershipId, point) -> batchArgs.add(new Object[]{point, membershipId}));
+
+        int[] updated = jdbcTemplate.batchUpdate(ADD_POINT_SQL, batchArgs);
+        evictSecondLevelCache(pointByMembershipId.keySet());
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int[] rebuildPoints(Collection<Long> membershipIds) {
+        List<Object[]> batchArgs = new ArrayList<>(membershipIds.size());
+        membershipIds.forEach(membershipId -> batchArgs.add(new Object[]{membershipId}));
+
+        int[] updated = jdbcTemplate.batchUpdate(REBUILD_POINT_SQL, batchArgs);
+        evictSecondLevelCache(membershipIds);
+        return updated;
+    }
+
+    // JDBC 로 바꾼 행은 Hibernate 가 알지 못하므로 2차 캐시가 켜져 있으면 커밋 후에 그 맴버십만 비운다.
+    // 잔액만 바뀌고 사용자별 ID 목록은 그대로이므로 쿼리 캐시는 비우지 않는다
+    private void evictSecondLevelCache(Collection<Long> membershipIds) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        if (!sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled())
+            return;
+
+        List<Long> evictedIds = new ArrayList<>(membershipIds);
+        Runnable evict = () -> {
+            Cache cache = sessionFactory.getCache();
+            evictedIds.forEach(membershipId -> cache.evictEntityData(Membership.class, membershipId));
+        };
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+}
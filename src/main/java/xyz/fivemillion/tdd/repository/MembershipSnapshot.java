@@ -0,0 +1,207 @@
+package xyz.fivemillion.tdd.repository;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 어느 LSN 까지 반영된 맴버십 전체를 담은 이진 스냅샷.
+ * 머리(magic, LSN, 마지막 발급 ID, 행 수) 뒤에 (길이, 행) 을 이어 쓰고, 끝에 전체의 CRC32C 를 둔다.
+ * 임시 파일에 다 쓰고 디스크에 내린 뒤 이름을 바꾸므로, 파일이 보이면 완전한 스냅샷이다.
+ */
+final class MembershipSnapshot {
+
+    private static final String SNAPSHOT_PREFIX = "membership-snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x4d534e50;
+    private static final int HEADER_SIZE = Integer.BYTES + 3 * Long.BYTES;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private MembershipSnapshot() {
+    }
+
+    static void write(Path directory, long lsn, long lastId, List<InMemoryMembershipRepository.Row> rows)
+            throws IOException {
+        Path temp = directory.resolve(SNAPSHOT_PREFIX + lsn + TEMP_SUFFIX);
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        try (FileChannel out = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.putInt(MAGIC).putLong(lsn).putLong(lastId).putLong(rows.size());
+            for (InMemoryMembershipRepository.Row row : rows) {
+                if (buffer.remaining() < Integer.BYTES + MembershipRecordCodec.MAX_ROW_SIZE)
+                    drain(out, buffer, crc);
+
+                int start = buffer.position();
+                buffer.position(start + Integer.BYTES);
+                MembershipRecordCodec.putRow(buffer, row);
+                buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+            }
+            drain(out, buffer, crc);
+
+            buffer.putInt((int) crc.getValue()).flip();
+            while (buffer.hasRemaining())
+                out.write(buffer);
+            out.force(true);
+        }
+
+        Files.move(temp, snapshotPath(directory, lsn), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 가장 최근 스냅샷의 마지막 발급 ID 와 행을 넘긴다. CRC 가 맞지 않으면 예외를 던진다.
+     *
+     * @return 스냅샷에 반영된 마지막 LSN. 스냅샷이 없으면 0
+     */
+    static long load(Path directory, LongConsumer lastIdConsumer, Consumer<InMemoryMembershipRepository.Row> rowConsumer)
+            throws IOException {
+        for (Path temp : files(directory, TEMP_SUFFIX))
+            Files.delete(temp);
+
+        Optional<Path> latest = latest(directory);
+        if (latest.isEmpty())
+            return 0L;
+
+        try (FileChannel in = FileChannel.open(latest.get(), StandardOpenOption.READ)) {
+            Reader reader = new Reader(in, in.size() - Integer.BYTES);
+            ByteBuffer buffer = reader.require(HEADER_SIZE);
+            if (buffer.getInt() != MAGIC)
+                throw new IllegalStateException("Not a membership snapshot: " + latest.get());
+
+            long lsn = buffer.getLong();
+            lastIdConsumer.accept(buffer.getLong());
+            long rowCount = buffer.getLong();
+            for (long i = 0; i < rowCount; i++) {
+                int length = reader.require(Integer.BYTES).getInt();
+                rowConsumer.accept(readRow(reader.require(length), latest.get()));
+            }
+
+            ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES);
+            while (trailer.hasRemaining())
+                if (in.read(trailer, in.size() - trailer.remaining()) < 0)
+                    throw new EOFException(latest.get().toString());
+            if (!reader.isFullyRead() || trailer.getInt(0) != reader.checksum())
+                throw new IllegalStateException("Membership snapshot is corrupted: " + latest.get());
+
+            return lsn;
+        }
+    }
+
+    /**
+     * lsn 보다 앞선 스냅샷을 지운다.
+     */
+    static void deleteOlderThan(Path directory, long lsn) throws IOException {
+        for (Path snapshot : files(directory, SNAPSHOT_SUFFIX))
+            if (lsnOf(snapshot) < lsn)
+                Files.delete(snapshot);
+    }
+
+    // 망가진 행은 CRC 를 확인하기 전에 해석하다가 먼저 드러날 수 있다
+    private static InMemoryMembershipRepository.Row readRow(ByteBuffer buffer, Path snapshot) {
+        try {
+            return MembershipRecordCodec.getRow(buffer);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Membership snapshot is corrupted: " + snapshot, e);
+        }
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining())
+            out.write(buffer);
+        buffer.clear();
+    }
+
+    private static Optional<Path> latest(Path directory) throws IOException {
+        return files(directory, SNAPSHOT_SUFFIX).stream().max(Comparator.comparingLong(MembershipSnapshot::lsnOf));
+    }
+
+    private static List<Path> files(Path directory, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String fileName = path.getFileName().toString();
+                return fileName.startsWith(SNAPSHOT_PREFIX) && fileName.endsWith(suffix);
+            }).collect(Collectors.toList());
+        }
+    }
+
+    private static Path snapshotPath(Path directory, long lsn) {
+        return directory.resolve(SNAPSHOT_PREFIX + lsn + SNAPSHOT_SUFFIX);
+    }
+
+    private static long lsnOf(Path path) {
+        String fileName = path.getFileName().toString();
+        return Long.parseLong(fileName.substring(SNAPSHOT_PREFIX.length(), fileName.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    /**
+     * 끝의 CRC 를 빼고 본문만 버퍼 단위로 읽으며, 읽은 바이트로 CRC 를 계산한다.
+     */
+    private static final class Reader {
+
+        private final FileChannel in;
+        private final long end;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CRC32C crc = new CRC32C();
+        private long position;
+
+        private Reader(FileChannel in, long end) {
+            this.in = in;
+            this.end = end;
+            buffer.limit(0);
+        }
+
+        // 최소 size 바이트가 남은 버퍼를 돌려준다
+        private ByteBuffer require(int size) throws IOException {
+            if (size > BUFFER_SIZE)
+                throw new IllegalStateException("Membership snapshot record is too large: " + size);
+            if (buffer.remaining() >= size)
+                return buffer;
+
+            buffer.compact();
+            int readable = (int) Math.min(buffer.remaining(), end - position);
+            ByteBuffer target = buffer.duplicate();
+            target.limit(buffer.position() + readable);
+            while (target.hasRemaining()) {
+                int read = in.read(target, position);
+                if (read < 0)
+                    throw new EOFException("Membership snapshot ended early");
+                position += read;
+            }
+
+            ByteBuffer filled = buffer.duplicate();
+            filled.limit(target.position());
+            crc.update(filled);
+
+            buffer.position(target.position());
+            buffer.flip();
+            if (buffer.remaining() < size)
+                throw new EOFException("Membership snapshot ended early");
+            return buffer;
+        }
+
+        private boolean isFullyRead() {
+            return position == end && !buffer.hasRemaining();
+        }
+
+        private int checksum() {
+            return (int) crc.getValue();
+        }
+    }
+}
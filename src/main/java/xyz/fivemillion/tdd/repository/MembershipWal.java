@@ -0,0 +1,458 @@
+package xyz.fivemillion.tdd.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 맴버십 변경을 남기는 memory-mapped write-ahead log.
+ * <p>
+ * 세그먼트는 고정 크기로 매핑하며, 머리에 첫 레코드의 LSN 을 둔다. 레코드는 (길이, CRC32C, 본문) 이고 길이를 마지막에 쓰므로
+ * 길이가 0 이거나 CRC 가 맞지 않는 곳이 로그의 끝이다. 세그먼트가 차면 디스크에 내린 뒤 다음 세그먼트로 넘어간다.
+ * <p>
+ * 디스크 반영은 전용 스레드가 맡는다. sync 를 기다리는 쓰기가 있으면 그때까지 쌓인 레코드를 한 번의 force 로 함께 내리고(group commit),
+ * 없으면 flush 주기마다 내린다.
+ * <p>
+ * 매핑은 GC 될 때까지 남으므로 다 쓴 세그먼트는 넘어갈 때와 닫을 때 직접 해제한다. 닫힌 세그먼트는 매핑하지 않고 읽는다.
+ */
+@Slf4j
+class MembershipWal implements MembershipMutationLog, Closeable {
+
+    private static final String SEGMENT_PREFIX = "membership-wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String DISCARDED_SUFFIX = ".discarded";
+    private static final int MAGIC = 0x4d57414c;
+    private static final int SEGMENT_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final int MAX_PAYLOAD_SIZE = Byte.BYTES + MembershipRecordCodec.MAX_ROW_SIZE;
+
+    private static final byte INSERTED = 1;
+    private static final byte UPDATED = 2;
+    private static final byte POINT_ADDED = 3;
+    private static final byte REMOVED = 4;
+
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean sync;
+    private final long flushIntervalMillis;
+
+    // appendLock 으로 보호한다
+    private final Object appendLock = new Object();
+    private final ByteBuffer payload = ByteBuffer.allocate(MAX_PAYLOAD_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private MappedByteBuffer segment;
+    private long segmentGeneration;
+    private long segmentFirstLsn;
+    private long appendedLsn;
+
+    // commitLock 으로 보호한다
+    private final Object commitLock = new Object();
+    private long requestedLsn;
+    private volatile long durableLsn;
+    private volatile boolean stopping;
+    private volatile boolean closed;
+
+    // forceLock 으로 보호한다. 해제한 매핑을 force 하지 않도록 세그먼트를 해제할 때와 committer 가 force 할 때 잡는다
+    private final Object forceLock = new Object();
+    private long releasedGeneration;
+    private Thread committer;
+
+    private final ThreadLocal<long[]> lastAppendedLsn = ThreadLocal.withInitial(() -> new long[1]);
+
+    MembershipWal(Path directory, int segmentSize, boolean sync, long flushIntervalMillis) throws IOException {
+        if (segmentSize < SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE + MAX_PAYLOAD_SIZE)
+            throw new IllegalArgumentException("WAL segment size is too small: " + segmentSize);
+        if (flushIntervalMillis <= 0)
+            throw new IllegalArgumentException("WAL flush interval must be positive: " + flushIntervalMillis);
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.sync = sync;
+        this.flushIntervalMillis = flushIntervalMillis;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * afterLsn 다음 레코드부터 target 에 다시 적용한다. 끊긴 곳 뒤의 세그먼트는 이어 붙일 수 없으므로 .discarded 로 치워둔다.
+     *
+     * @return 마지막으로 읽은 레코드의 LSN. 읽은 레코드가 없으면 afterLsn
+     */
+    long replay(long afterLsn, MembershipMutationLog target) throws IOException {
+        long lastLsn = afterLsn;
+        List<Path> segments = segments();
+
+        for (int i = 0; i < segments.size(); i++) {
+            Path path = segments.get(i);
+            if (firstLsnOf(path) > lastLsn + 1) {
+                log.warn("Membership WAL has a gap before {}, discarding {} segments", path, segments.size() - i);
+                for (Path discarded : segments.subList(i, segments.size()))
+                    Files.move(discarded, discarded.resolveSibling(discarded.getFileName() + DISCARDED_SUFFIX));
+                break;
+            }
+            lastLsn = Math.max(lastLsn, replaySegment(path, afterLsn, target));
+        }
+
+        return lastLsn;
+    }
+
+    /**
+     * lastLsn 다음부터 새 세그먼트에 쓰기 시작한다.
+     */
+    void openForAppend(long lastLsn) throws IOException {
+        synchronized (appendLock) {
+            appendedLsn = lastLsn;
+            // 같은 LSN 으로 시작하는 세그먼트가 있다면 읽을 수 있는 레코드가 하나도 없던 것이다
+            Files.deleteIfExists(segmentPath(lastLsn + 1));
+            openSegment(lastLsn + 1);
+        }
+        durableLsn = lastLsn;
+        requestedLsn = lastLsn;
+
+        committer = new Thread(this::commitLoop, "membership-wal-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * 지금까지의 레코드를 디스크에 내리고 새 세그먼트로 넘어간다. 현재 세그먼트가 비어 있으면 넘어가지 않는다.
+     *
+     * @return 마지막으로 기록한 레코드의 LSN
+     */
+    long roll() {
+        synchronized (appendLock) {
+            if (appendedLsn >= segmentFirstLsn)
+                rollSegment();
+            return appendedLsn;
+        }
+    }
+
+    /**
+     * 쓰고 있는 세그먼트를 제외하고, 모든 레코드가 lsn 이하인 세그먼트를 지운다. roll 한 뒤에 호출한다.
+     */
+    void deleteSegmentsUpTo(long lsn) throws IOException {
+        long activeFirstLsn;
+        synchronized (appendLock) {
+            activeFirstLsn = segmentFirstLsn;
+        }
+
+        // 세그먼트의 마지막 LSN 은 다음 세그먼트의 첫 LSN 바로 앞이다
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long nextFirstLsn = firstLsnOf(segments.get(i + 1));
+            if (nextFirstLsn > activeFirstLsn || nextFirstLsn - 1 > lsn)
+                break;
+            Files.delete(segments.get(i));
+        }
+    }
+
+    @Override
+    public void inserted(InMemoryMembershipRepository.Row row) {
+        synchronized (appendLock) {
+            MembershipRecordCodec.putRow(beginRecord(INSERTED), row);
+            endRecord();
+        }
+    }
+
+    @Override
+    public void updated(InMemoryMembershipRepository.Row row) {
+        synchronized (appendLock) {
+            MembershipRecordCodec.putRow(beginRecord(UPDATED), row);
+            endRecord();
+        }
+    }
+
+    @Override
+    public void pointAdded(long membershipId, int delta, LocalDateTime updatedAt) {
+        synchronized (appendLock) {
+            ByteBuffer buffer = beginRecord(POINT_ADDED);
+            buffer.putLong(membershipId).putInt(delta);
+            MembershipRecordCodec.putTimestamp(buffer, updatedAt);
+            endRecord();
+        }
+    }
+
+    @Override
+    public void removed(long membershipId) {
+        synchronized (appendLock) {
+            beginRecord(REMOVED).putLong(membershipId);
+            endRecord();
+        }
+    }
+
+    /**
+     * 이 스레드가 남긴 레코드가 디스크에 내려갈 때까지 기다린다. sync 가 꺼져 있으면 기다리지 않는다.
+     */
+    void sync() {
+        long lsn = lastAppendedLsn.get()[0];
+        if (!sync || lsn <= durableLsn)
+            return;
+
+        synchronized (commitLock) {
+            if (requestedLsn < lsn) {
+                requestedLsn = lsn;
+                commitLock.notifyAll();
+            }
+
+            while (durableLsn < lsn) {
+                if (closed)
+                    throw new IllegalStateException("Membership WAL closed before commit");
+                try {
+                    commitLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for membership WAL commit", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        stopping = true;
+        synchronized (commitLock) {
+            commitLock.notifyAll();
+        }
+
+        if (committer != null) {
+            try {
+                committer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (appendLock) {
+            if (segment != null) {
+                segment.force();
+                unmap(segment);
+            }
+            segment = null;
+            durableLsn = appendedLsn;
+        }
+        synchronized (commitLock) {
+            closed = true;
+            commitLock.notifyAll();
+        }
+    }
+
+    private ByteBuffer beginRecord(byte type) {
+        if (segment == null)
+            throw new IllegalStateException("Membership WAL is not open for append");
+
+        payload.clear();
+        return payload.put(type);
+    }
+
+    private void endRecord() {
+        payload.flip();
+        crc.reset();
+        crc.update(payload);
+        payload.rewind();
+
+        int length = payload.remaining();
+        if (segment.remaining() < RECORD_HEADER_SIZE + length)
+            rollSegment();
+
+        int position = segment.position();
+        segment.putInt(position + Integer.BYTES, (int) crc.getValue());
+        segment.position(position + RECORD_HEADER_SIZE);
+        segment.put(payload);
+        segment.putInt(position, length);
+
+        lastAppendedLsn.get()[0] = ++appendedLsn;
+    }
+
+    private void rollSegment() {
+        MappedByteBuffer previous = segment;
+        long previousGeneration = segmentGeneration;
+        previous.force();
+        try {
+            openSegment(appendedLsn + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        synchronized (forceLock) {
+            releasedGeneration = previousGeneration;
+            unmap(previous);
+        }
+    }
+
+    private void openSegment(long firstLsn) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(firstLsn),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.putInt(MAGIC).putLong(firstLsn);
+        segmentGeneration++;
+        segmentFirstLsn = firstLsn;
+    }
+
+    private void commitLoop() {
+        while (!stopping) {
+            synchronized (commitLock) {
+                if (requestedLsn <= durableLsn && !stopping) {
+                    try {
+                        commitLock.wait(flushIntervalMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+
+            try {
+                commit();
+            } catch (RuntimeException e) {
+                log.warn("Membership WAL commit failed", e);
+            }
+        }
+    }
+
+    // force 는 appendLock 밖에서 하므로 그동안 다른 스레드가 계속 기록할 수 있다
+    private void commit() {
+        MappedByteBuffer current;
+        long generation;
+        long target;
+        synchronized (appendLock) {
+            current = segment;
+            generation = segmentGeneration;
+            target = appendedLsn;
+        }
+        if (current == null || target <= durableLsn)
+            return;
+
+        // 그 사이 넘어간 세그먼트는 넘어갈 때 이미 force 했다
+        synchronized (forceLock) {
+            if (generation > releasedGeneration)
+                current.force();
+        }
+        synchronized (commitLock) {
+            durableLsn = target;
+            commitLock.notifyAll();
+        }
+    }
+
+    private long replaySegment(Path path, long afterLsn, MembershipMutationLog target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+
+        long firstLsn = firstLsnOf(path);
+        if (buffer.remaining() < SEGMENT_HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getLong() != firstLsn) {
+            log.warn("Membership WAL segment {} has an invalid header, skipping", path);
+            return firstLsn - 1;
+        }
+
+        CRC32C checksum = new CRC32C();
+        long lsn = firstLsn - 1;
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining())
+                break;
+
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            checksum.reset();
+            checksum.update(record.duplicate());
+            // 쓰다가 끊긴 레코드다. 응답하지 않은 변경이므로 여기까지만 읽는다
+            if ((int) checksum.getValue() != expectedCrc)
+                break;
+
+            buffer.position(buffer.position() + length);
+            if (++lsn > afterLsn)
+                apply(record, target);
+        }
+
+        return lsn;
+    }
+
+    private static void apply(ByteBuffer record, MembershipMutationLog target) {
+        byte type = record.get();
+        switch (type) {
+            case INSERTED:
+                target.inserted(MembershipRecordCodec.getRow(record));
+                break;
+            case UPDATED:
+                target.updated(MembershipRecordCodec.getRow(record));
+                break;
+            case POINT_ADDED:
+                target.pointAdded(record.getLong(), record.getInt(), MembershipRecordCodec.getTimestamp(record));
+                break;
+            case REMOVED:
+                target.removed(record.getLong());
+                break;
+            default:
+                throw new IllegalStateException("Unknown membership WAL record type: " + type);
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null)
+            return;
+
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            log.warn("Failed to unmap membership WAL segment", e);
+        }
+    }
+
+    // 매핑을 바로 해제하는 공개 API 가 없어 Unsafe.invokeCleaner 를 쓴다. 쓸 수 없으면 GC 에 맡긴다
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("Membership WAL segments cannot be unmapped explicitly, leaving them to GC", e);
+            return null;
+        }
+    }
+
+    private Path segmentPath(long firstLsn) {
+        return directory.resolve(SEGMENT_PREFIX + firstLsn + SEGMENT_SUFFIX);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(MembershipWal::isSegment)
+                    .sorted(Comparator.comparingLong(MembershipWal::firstLsnOf))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstLsnOf(Path path) {
+        String fileName = path.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+}
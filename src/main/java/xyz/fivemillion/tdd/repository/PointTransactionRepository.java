@@ -0,0 +1,29 @@
+package xyz.fivemillion.tdd.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import xyz.fivemillion.tdd.domain.PointTransaction;
+import xyz.fivemillion.tdd.dto.PointBalance;
+import xyz.fivemillion.tdd.dto.PointTransactionResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PointTransactionRepository extends JpaRepository<PointTransaction, Long> {
+
+    // (membershipId, createdAt) 인덱스로 조건과 정렬을 함께 처리하고, Slice 라 count 쿼리는 나가지 않는다
+    @Query("select new xyz.fivemillion.tdd.dto.PointTransactionResponse(t.id, t.type, t.point, t.createdAt) " +
+            "from PointTransaction t where t.membershipId = :membershipId order by t.createdAt desc, t.id desc")
+    Slice<PointTransactionResponse> findPageByMembershipId(@Param("membershipId") Long membershipId, Pageable pageable);
+
+    // 만료 작업이 PK 순으로 원장을 훑는다
+    List<PointTransaction> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    // 원장이 없는 맴버십은 결과에 포함되지 않는다
+    @Query("select new xyz.fivemillion.tdd.dto.PointBalance(t.membershipId, sum(t.point)) " +
+            "from PointTransaction t where t.membershipId in :membershipIds group by t.membershipId")
+    List<PointBalance> sumPointByMembershipIdIn(@Param("membershipIds") Collection<Long> membershipIds);
+}
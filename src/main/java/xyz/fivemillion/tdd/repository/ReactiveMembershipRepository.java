@@ -0,0 +1,187 @@
+package xyz.fivemillion.tdd.repository;
+
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.fivemillion.tdd.domain.MembershipIdGenerator;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.domain.PointTransaction;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+
+import java.time.LocalDateTime;
+
+/**
+ * reactive 프로파일에서 맴버십과 포인트 원장을 R2DBC 로 읽고 쓴다. 스키마는 JPA 엔티티 매핑과 같은 테이블을 쓴다.
+ * <p>
+ * ID 는 JPA 와 같은 시퀀스에서 받는다. 시퀀스 값 하나가 가리키는 구간을 JPA 옵티마이저와 같은 규칙으로 정해
+ * 메모리에서 나눠 주므로, 한 번 조회로 구간 전체를 쓰고 두 쪽이 발급한 ID 도 겹치지 않는다.
+ * membership_seq 는 pooled-lo 라 값이 구간의 시작이고, point_transaction_seq 는 pooled 라 값이 구간의 끝이다.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMembershipRepository {
+
+    private static final String SELECT_DETAIL = "select id, point, membership_type, created_at from membership ";
+
+    private final DatabaseClient databaseClient;
+    private final IdBlock membershipIds;
+    private final IdBlock pointTransactionIds = new IdBlock(false, PointTransaction.ID_ALLOCATION_SIZE);
+
+    public ReactiveMembershipRepository(
+            DatabaseClient databaseClient,
+            @Value("${spring.jpa.properties." + MembershipIdGenerator.ALLOCATION_SIZE_SETTING + ":50}") int membershipIdAllocationSize) {
+        this.databaseClient = databaseClient;
+        this.membershipIds = new IdBlock(true, membershipIdAllocationSize);
+    }
+
+    /**
+     * @return 새 맴버십의 ID. (userId, membershipType) 가 이미 있으면 DataIntegrityViolationException 으로 끝난다
+     */
+    public Mono<Long> insert(String userId, MembershipType membershipType, int point) {
+        LocalDateTime now = LocalDateTime.now();
+        return nextId(membershipIds, "membership_seq").flatMap(id -> databaseClient.sql(
+                        "insert into membership (id, user_id, membership_type, point, created_at, updated_at) " +
+                                "values (:id, :userId, :membershipType, :point, :createdAt, :updatedAt)")
+                .bind("id", id)
+                .bind("userId", userId)
+                .bind("membershipType", membershipType.name())
+                .bind("point", point)
+                .bind("createdAt", now)
+                .bind("updatedAt", now)
+                .then()
+                .thenReturn(id));
+    }
+
+    public Mono<Void> insertPointTransaction(Long membershipId, PointTransactionType type, int point) {
+        return nextId(pointTransactionIds, "point_transaction_seq").flatMap(id -> databaseClient.sql(
+                        "insert into point_transaction (id, membership_id, type, point, created_at) " +
+                                "values (:id, :membershipId, :type, :point, :createdAt)")
+                .bind("id", id)
+                .bind("membershipId", membershipId)
+                .bind("type", type.name())
+                .bind("point", point)
+                .bind("createdAt", LocalDateTime.now())
+                .then());
+    }
+
+    public Mono<MembershipDetailResponse> findDetailByUserIdAndMembershipType(String userId, MembershipType membershipType) {
+        return databaseClient.sql(SELECT_DETAIL + "where user_id = :userId and membership_type = :membershipType")
+                .bind("userId", userId)
+                .bind("membershipType", membershipType.name())
+                .map((row, metadata) -> toDetail(row))
+                .one();
+    }
+
+    public Flux<MembershipDetailResponse> findAllDetailByUserId(String userId) {
+        return databaseClient.sql(SELECT_DETAIL + "where user_id = :userId")
+                .bind("userId", userId)
+                .map((row, metadata) -> toDetail(row))
+                .all();
+    }
+
+    public Mono<MembershipType> findMembershipTypeByIdAndUserId(Long membershipId, String userId) {
+        return databaseClient.sql("select membership_type from membership where id = :id and user_id = :userId")
+                .bind("id", membershipId)
+                .bind("userId", userId)
+                .map((row, metadata) -> MembershipType.valueOf(row.get("membership_type", String.class)))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long membershipId) {
+        return databaseClient.sql("select count(*) from membership where id = :id")
+                .bind("id", membershipId)
+                .map((row, metadata) -> row.get(0, Long.class) > 0)
+                .one();
+    }
+
+    /**
+     * userId 가 소유한 맴버십에만 적립한다.
+     * @return 갱신된 행 수. 맴버십이 없거나 소유자가 다르면 0
+     */
+    public Mono<Integer> addPoint(Long membershipId, String userId, int point) {
+        return databaseClient.sql("update membership set point = point + :point, updated_at = :updatedAt " +
+                        "where id = :id and user_id = :userId")
+                .bind("point", point)
+                .bind("updatedAt", LocalDateTime.now())
+                .bind("id", membershipId)
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @return 삭제된 행 수. 맴버십이 없거나 소유자가 다르면 0
+     */
+    public Mono<Integer> deleteByIdAndUserId(Long membershipId, String userId) {
+        return databaseClient.sql("delete from membership where id = :id and user_id = :userId")
+                .bind("id", membershipId)
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Long> nextId(IdBlock block, String sequence) {
+        return Mono.defer(() -> {
+            long id = block.poll();
+            return id > 0 ? Mono.just(id) : nextValue(sequence).map(block::refill);
+        });
+    }
+
+    private Mono<Long> nextValue(String sequence) {
+        return databaseClient.sql("select next value for " + sequence)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    private static MembershipDetailResponse toDetail(Row row) {
+        return new MembershipDetailResponse(
+                row.get("id", Long.class),
+                row.get("point", Integer.class),
+                MembershipType.valueOf(row.get("membership_type", String.class)),
+                row.get("created_at", LocalDateTime.class));
+    }
+
+    /**
+     * 시퀀스 값 하나로 받은 ID 구간. 구간이 바닥나면 시퀀스를 다시 조회한다.
+     */
+    static final class IdBlock {
+
+        private final boolean lo;
+        private final int size;
+        private long next;
+        private long end;
+
+        /**
+         * @param lo 시퀀스 값이 구간의 시작이면 true(pooled-lo), 끝이면 false(pooled)
+         */
+        IdBlock(boolean lo, int size) {
+            this.lo = lo;
+            this.size = size;
+        }
+
+        /**
+         * @return 다음 ID. 구간이 바닥났으면 0
+         */
+        synchronized long poll() {
+            return next < end ? next++ : 0;
+        }
+
+        /**
+         * 새 시퀀스 값의 구간에서 첫 ID 를 꺼낸다. 동시에 조회한 다른 요청이 이미 구간을 채웠으면 나머지는 버린다.
+         */
+        synchronized long refill(long value) {
+            // pooled 의 첫 값(초기값 1)은 음수 구간을 가리키므로 양수 ID 만 쓴다
+            long start = lo ? value : Math.max(1, value - size + 1);
+            if (next >= end) {
+                next = start + 1;
+                end = lo ? value + size : value + 1;
+            }
+            return start;
+        }
+    }
+}
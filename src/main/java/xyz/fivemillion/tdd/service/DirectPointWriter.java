@@ -0,0 +1,26 @@
+package xyz.fivemillion.tdd.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "membership.point.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+public class DirectPointWriter implements PointWriter {
+
+    private final MembershipRepository membershipRepository;
+
+    @Override
+    public boolean write(Long membershipId, String userId, int point) {
+        return membershipRepository.addPoint(membershipId, userId, point) == 1;
+    }
+
+    @Override
+    public void writeAll(String userId, Map<Long, Integer> pointByMembershipId) {
+        membershipRepository.addPoints(pointByMembershipId);
+    }
+}
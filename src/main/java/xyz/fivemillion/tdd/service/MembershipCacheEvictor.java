@@ -0,0 +1,61 @@
+package xyz.fivemillion.tdd.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import static xyz.fivemillion.tdd.config.CacheConfig.MEMBERSHIP_CACHE;
+import static xyz.fivemillion.tdd.config.CacheConfig.MEMBERSHIP_LIST_CACHE;
+
+/**
+ * 사용자의 맴버십 캐시를 비운다. 트랜잭션 안에서 호출되면 커밋 이후에 비워서,
+ * 커밋 전에 다른 요청이 이전 값을 다시 캐시에 올리는 일이 없도록 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MembershipCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    public void evict(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictNow(userId);
+            }
+        });
+    }
+
+    public void evictAll() {
+        for (String cacheName : new String[]{MEMBERSHIP_CACHE, MEMBERSHIP_LIST_CACHE}) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null)
+                cache.clear();
+        }
+    }
+
+    public static String membershipKey(String userId, MembershipType membershipType) {
+        return userId + ":" + membershipType;
+    }
+
+    private void evictNow(String userId) {
+        Cache membershipCache = cacheManager.getCache(MEMBERSHIP_CACHE);
+        if (membershipCache != null) {
+            for (MembershipType membershipType : MembershipType.values())
+                membershipCache.evict(membershipKey(userId, membershipType));
+        }
+
+        Cache membershipListCache = cacheManager.getCache(MEMBERSHIP_LIST_CACHE);
+        if (membershipListCache != null)
+            membershipListCache.evict(userId);
+    }
+}
@@ -0,0 +1,22 @@
+package xyz.fivemillion.tdd.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 실행 허가를 받아 둔 내보내기 작업. 한 번만 실행해야 하며, 실행이 끝나면 허가를 반납한다.
+ * 실행하지 못하고 끝나는 경우에는 {@link #close()} 로 허가를 반납한다.
+ */
+@FunctionalInterface
+public interface MembershipExport extends Closeable {
+
+    void writeTo(OutputStream outputStream) throws IOException;
+
+    /**
+     * 허가를 반납한다. 실행이 끝난 뒤에 불러도 되며, 여러 번 불러도 한 번만 반납한다.
+     */
+    @Override
+    default void close() {
+    }
+}
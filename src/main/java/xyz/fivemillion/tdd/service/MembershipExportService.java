@@ -0,0 +1,164 @@
+package xyz.fivemillion.tdd.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipExportRow;
+import xyz.fivemillion.tdd.dto.MembershipFileFormat;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * 맴버십 잔액 스냅샷을 DB 커서에서 읽는 대로 고정 크기 버퍼를 거쳐 바로 내보낸다. 목록을 메모리에 만들지 않는다.
+ * 내보내기는 끝날 때까지 커넥션 하나를 점유하므로, 일반 요청이 쓸 커넥션이 모자라지 않도록 동시 실행 수를 제한한다.
+ */
+@Service
+public class MembershipExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,userId,membershipType,point\n";
+
+    private final MembershipRepository membershipRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Semaphore exportPermits;
+
+    public MembershipExportService(
+            MembershipRepository membershipRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${membership.export.max-concurrent:1}") int maxConcurrentExports) {
+        this.membershipRepository = membershipRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.exportPermits = new Semaphore(maxConcurrentExports);
+    }
+
+    /**
+     * 동시 실행 수를 넘으면 기다리지 않고 {@link MembershipError#EXPORT_BUSY} 로 실패한다.
+     * membershipType 이 null 이면 전체를 내보낸다.
+     */
+    public MembershipExport prepareExport(MembershipType membershipType, MembershipFileFormat format) {
+        if (!exportPermits.tryAcquire())
+            throw new MembershipException(MembershipError.EXPORT_BUSY);
+
+        AtomicBoolean released = new AtomicBoolean();
+        return new MembershipExport() {
+            @Override
+            public void writeTo(OutputStream outputStream) throws IOException {
+                try {
+                    export(membershipType, format, outputStream);
+                } finally {
+                    close();
+                }
+            }
+
+            @Override
+            public void close() {
+                if (released.compareAndSet(false, true))
+                    exportPermits.release();
+            }
+        };
+    }
+
+    private void export(MembershipType membershipType, MembershipFileFormat format, OutputStream outputStream)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = format == MembershipFileFormat.CSV ? csvRowWriter(writer) : ndjsonRowWriter(writer);
+
+        try {
+            readOnlyTransactionTemplate.execute(status -> {
+                try (Stream<MembershipExportRow> rows = membershipType == null
+                        ? membershipRepository.streamAllExportRows()
+                        : membershipRepository.streamExportRowsByMembershipType(membershipType)) {
+                    rows.forEach(row -> {
+                        try {
+                            rowWriter.write(row);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        rowWriter.flush();
+    }
+
+    private RowWriter csvRowWriter(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+
+        return new RowWriter() {
+            @Override
+            public void write(MembershipExportRow row) throws IOException {
+                writer.write(Long.toString(row.getId()));
+                writer.write(',');
+                writeCsvValue(writer, row.getUserId());
+                writer.write(',');
+                writer.write(row.getMembershipType().name());
+                writer.write(',');
+                writer.write(Integer.toString(row.getPoint()));
+                writer.write('\n');
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    private RowWriter ndjsonRowWriter(Writer writer) throws IOException {
+        SequenceWriter sequenceWriter = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+
+        return new RowWriter() {
+            @Override
+            public void write(MembershipExportRow row) throws IOException {
+                sequenceWriter.write(row);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                sequenceWriter.flush();
+            }
+        };
+    }
+
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private interface RowWriter {
+
+        void write(MembershipExportRow row) throws IOException;
+
+        void flush() throws IOException;
+    }
+}
@@ -0,0 +1,323 @@
+package xyz.fivemillion.tdd.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.domain.JobCheckpoint;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.domain.PointTransaction;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
+import xyz.fivemillion.tdd.dto.MembershipFileFormat;
+import xyz.fivemillion.tdd.dto.MembershipImportResponse;
+import xyz.fivemillion.tdd.dto.MembershipImportResponse.RejectedRow;
+import xyz.fivemillion.tdd.dto.MembershipKey;
+import xyz.fivemillion.tdd.dto.MembershipRegistration;
+import xyz.fivemillion.tdd.dto.MembershipRequest;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.repository.JobCheckpointRepository;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static xyz.fivemillion.tdd.config.ValidationGroups.MembershipAddMarker;
+
+/**
+ * 파일을 한 줄씩 읽어 맴버십을 청크 단위로 등록한다. 메모리에는 현재 청크와 거부 행 보고서만 둔다.
+ * 청크 등록과 체크포인트 갱신을 한 트랜잭션으로 커밋하므로, 같은 importId 로 다시 실행하면 마지막으로 커밋된 청크 다음 줄부터 이어서 등록한다.
+ * 중복은 청크마다 DB 와 대조한다. 앞선 청크는 이미 커밋되어 있으므로 파일 안의 중복도 함께 걸러진다.
+ * 대조한 뒤에 다른 요청이 먼저 등록해 유니크 제약에 걸리면, 그 청크만 한 건씩 다시 등록해 충돌한 행을 거부한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MembershipImportService {
+
+    public static final int MAX_REJECTED_ROWS = 1000;
+    private static final int CHUNK_SIZE = 1000;
+    private static final String JOB_NAME_PREFIX = "membership-import:";
+    private static final String USER_ID_COLUMN = "userId";
+    private static final String MEMBERSHIP_TYPE_COLUMN = "membershipType";
+    private static final String POINT_COLUMN = "point";
+
+    private final MembershipRepository membershipRepository;
+    private final PointTransactionRepository pointTransactionRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final MembershipCacheEvictor membershipCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    public MembershipImportResponse importMemberships(
+            String importId, MembershipFileFormat format, Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return importMemberships(importId, format, inputStream);
+        }
+    }
+
+    public MembershipImportResponse importMemberships(
+            String importId, MembershipFileFormat format, InputStream inputStream) throws IOException {
+        String jobName = JOB_NAME_PREFIX + importId;
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(jobName).orElseGet(() -> new JobCheckpoint(jobName));
+        List<RejectedRow> rejectedRows = new ArrayList<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        Map<String, Integer> csvColumns = format == MembershipFileFormat.CSV ? readCsvHeader(reader.readLine()) : null;
+        long line = format == MembershipFileFormat.CSV ? 1 : 0;
+
+        ImportChunk chunk = new ImportChunk();
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (line <= checkpoint.getLastPosition() || text.isBlank())
+                continue;
+
+            MembershipRegistration registration = csvColumns != null
+                    ? parseCsvRow(line, text, csvColumns, chunk, rejectedRows)
+                    : parseNdjsonRow(line, text, chunk, rejectedRows);
+            if (registration != null)
+                chunk.add(line, registration);
+
+            chunk.lastLine = line;
+            if (chunk.rowCount() >= CHUNK_SIZE) {
+                commitChunk(checkpoint, chunk, rejectedRows);
+                chunk = new ImportChunk();
+            }
+        }
+
+        if (chunk.rowCount() > 0)
+            commitChunk(checkpoint, chunk, rejectedRows);
+
+        return toResponse(importId, checkpoint, rejectedRows);
+    }
+
+    public MembershipImportResponse getImportProgress(String importId) {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME_PREFIX + importId)
+                .orElseThrow(() -> new MembershipException(MembershipError.IMPORT_NOT_FOUND));
+
+        return toResponse(importId, checkpoint, Collections.emptyList());
+    }
+
+    private void commitChunk(JobCheckpoint checkpoint, ImportChunk chunk, List<RejectedRow> rejectedRows) {
+        Set<String> userIds = chunk.registrations.stream()
+                .map(MembershipRegistration::getUserId)
+                .collect(Collectors.toSet());
+
+        List<Long> duplicatedLines;
+        try {
+            duplicatedLines = transactionTemplate.execute(status -> {
+                Set<MembershipKey> registeredKeys = userIds.isEmpty()
+                        ? new HashSet<>()
+                        : new HashSet<>(membershipRepository.findKeysByUserIdIn(userIds));
+
+                List<Long> duplicated = new ArrayList<>();
+                List<Membership> memberships = new ArrayList<>(chunk.registrations.size());
+                for (int i = 0; i < chunk.registrations.size(); i++) {
+                    MembershipRegistration registration = chunk.registrations.get(i);
+                    if (!registeredKeys.add(new MembershipKey(registration.getUserId(), registration.getMembershipType())))
+                        duplicated.add(chunk.lines.get(i));
+                    else
+                        memberships.add(toMembership(registration));
+                }
+
+                saveMemberships(memberships);
+                checkpoint.advance(chunk.lastLine, memberships.size(), chunk.rejectedCount + duplicated.size());
+                jobCheckpointRepository.save(checkpoint);
+                userIds.forEach(membershipCacheEvictor::evict);
+                return duplicated;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 대조한 뒤에 다른 요청이 같은 맴버십을 등록한 경우. 청크가 통째로 롤백되었으므로 한 건씩 다시 등록한다
+            commitChunkByRow(checkpoint, chunk, rejectedRows);
+            return;
+        }
+
+        for (Long line : duplicatedLines)
+            rejectDuplicated(line, chunk, rejectedRows);
+    }
+
+    // 행마다 따로 커밋하고 유니크 제약에 걸린 행만 거부한다.
+    // 체크포인트를 갱신하기 전에 중단되면, 다시 실행할 때 이미 등록된 행은 중복으로 거부된다
+    private void commitChunkByRow(JobCheckpoint checkpoint, ImportChunk chunk, List<RejectedRow> rejectedRows) {
+        int importedCount = 0;
+        for (int i = 0; i < chunk.registrations.size(); i++) {
+            MembershipRegistration registration = chunk.registrations.get(i);
+            try {
+                transactionTemplate.execute(status -> {
+                    saveMemberships(List.of(toMembership(registration)));
+                    membershipCacheEvictor.evict(registration.getUserId());
+                    return null;
+                });
+                importedCount++;
+            } catch (DataIntegrityViolationException e) {
+                rejectDuplicated(chunk.lines.get(i), chunk, rejectedRows);
+            }
+        }
+
+        long successCount = importedCount;
+        transactionTemplate.execute(status -> {
+            checkpoint.advance(chunk.lastLine, successCount, chunk.rejectedCount);
+            jobCheckpointRepository.save(checkpoint);
+            return null;
+        });
+    }
+
+    // 유니크 제약 위반을 체크포인트 갱신 전에 확인하도록 INSERT 를 바로 보낸다
+    private void saveMemberships(List<Membership> memberships) {
+        List<PointTransaction> transactions = new ArrayList<>();
+        for (Membership membership : membershipRepository.saveAll(memberships)) {
+            if (membership.getPoint() != 0)
+                transactions.add(PointTransaction.of(
+                        membership.getId(), PointTransactionType.REGISTER, membership.getPoint()));
+        }
+        membershipRepository.flush();
+        pointTransactionRepository.saveAll(transactions);
+    }
+
+    private static Membership toMembership(MembershipRegistration registration) {
+        return Membership.builder()
+                .userId(registration.getUserId())
+                .membershipType(registration.getMembershipType())
+                .point(registration.getPoint())
+                .build();
+    }
+
+    private static void rejectDuplicated(long line, ImportChunk chunk, List<RejectedRow> rejectedRows) {
+        chunk.reject(line, MembershipError.DUPLICATED_MEMBERSHIP_REGISTER.name(),
+                MembershipError.DUPLICATED_MEMBERSHIP_REGISTER.getDescription(), rejectedRows);
+    }
+
+    private Map<String, Integer> readCsvHeader(String header) {
+        if (header == null)
+            throw new MembershipException(MembershipError.INVALID_IMPORT_FILE);
+
+        String[] names = header.split(",", -1);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.length; i++)
+            columns.put(names[i].trim(), i);
+
+        if (!columns.keySet().containsAll(List.of(USER_ID_COLUMN, MEMBERSHIP_TYPE_COLUMN, POINT_COLUMN)))
+            throw new MembershipException(MembershipError.INVALID_IMPORT_FILE);
+
+        return columns;
+    }
+
+    private MembershipRegistration parseCsvRow(
+            long line, String text, Map<String, Integer> columns, ImportChunk chunk, List<RejectedRow> rejectedRows) {
+        String[] values = text.split(",", -1);
+        if (values.length != columns.size()) {
+            chunk.reject(line, RejectedRow.INVALID_FORMAT, "컬럼 수가 헤더와 다름", rejectedRows);
+            return null;
+        }
+
+        return toRegistration(line,
+                values[columns.get(USER_ID_COLUMN)].trim(),
+                values[columns.get(MEMBERSHIP_TYPE_COLUMN)].trim(),
+                values[columns.get(POINT_COLUMN)].trim(),
+                chunk, rejectedRows);
+    }
+
+    private MembershipRegistration parseNdjsonRow(
+            long line, String text, ImportChunk chunk, List<RejectedRow> rejectedRows) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            chunk.reject(line, RejectedRow.INVALID_FORMAT, "JSON 형식이 아님", rejectedRows);
+            return null;
+        }
+
+        return toRegistration(line,
+                node.path(USER_ID_COLUMN).asText(""),
+                node.path(MEMBERSHIP_TYPE_COLUMN).asText(""),
+                node.path(POINT_COLUMN).asText(""),
+                chunk, rejectedRows);
+    }
+
+    private MembershipRegistration toRegistration(long line, String userId, String membershipTypeText,
+                                                  String pointText, ImportChunk chunk, List<RejectedRow> rejectedRows) {
+        if (userId.isBlank()) {
+            chunk.reject(line, RejectedRow.INVALID_FIELD, "userId 가 비어있음", rejectedRows);
+            return null;
+        }
+
+        MembershipType membershipType = null;
+        Integer point = null;
+        try {
+            if (!membershipTypeText.isEmpty())
+                membershipType = MembershipType.valueOf(membershipTypeText);
+            if (!pointText.isEmpty())
+                point = Integer.valueOf(pointText);
+        } catch (IllegalArgumentException e) {
+            chunk.reject(line, RejectedRow.INVALID_FIELD, "membershipType 또는 point 값이 올바르지 않음", rejectedRows);
+            return null;
+        }
+
+        // 단건 등록 API 와 같은 검증 그룹을 적용한다
+        Set<ConstraintViolation<MembershipRequest>> violations =
+                validator.validate(new MembershipRequest(point, membershipType), MembershipAddMarker.class);
+        if (!violations.isEmpty()) {
+            chunk.reject(line, RejectedRow.INVALID_FIELD, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")), rejectedRows);
+            return null;
+        }
+
+        return new MembershipRegistration(userId, membershipType, point);
+    }
+
+    private MembershipImportResponse toResponse(String importId, JobCheckpoint checkpoint, List<RejectedRow> rejectedRows) {
+        return MembershipImportResponse.builder()
+                .importId(importId)
+                .lastLine(checkpoint.getLastPosition())
+                .importedCount(checkpoint.getSuccessCount())
+                .rejectedCount(checkpoint.getFailureCount())
+                .rejectedRows(rejectedRows)
+                .build();
+    }
+
+    private static class ImportChunk {
+
+        private final List<MembershipRegistration> registrations = new ArrayList<>(CHUNK_SIZE);
+        private final List<Long> lines = new ArrayList<>(CHUNK_SIZE);
+        private int rejectedCount;
+        private long lastLine;
+
+        void add(long line, MembershipRegistration registration) {
+            lines.add(line);
+            registrations.add(registration);
+        }
+
+        void reject(long line, String code, String message, List<RejectedRow> rejectedRows) {
+            rejectedCount++;
+            if (rejectedRows.size() < MAX_REJECTED_ROWS)
+                rejectedRows.add(new RejectedRow(line, code, message));
+        }
+
+        int rowCount() {
+            return registrations.size() + rejectedCount;
+        }
+    }
+}
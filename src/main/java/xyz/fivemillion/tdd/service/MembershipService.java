@@ -1,40 +1,82 @@
 package xyz.fivemillion.tdd.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import xyz.fivemillion.tdd.domain.Membership;
 import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.domain.PointTransaction;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
 import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
 import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipPageResponse;
+import xyz.fivemillion.tdd.dto.MembershipRegistration;
+import xyz.fivemillion.tdd.dto.PointAccumulateBulkRequest;
+import xyz.fivemillion.tdd.dto.PointAccumulateResult;
+import xyz.fivemillion.tdd.dto.PointTransactionPageResponse;
+import xyz.fivemillion.tdd.dto.PointTransactionResponse;
 import xyz.fivemillion.tdd.error.MembershipError;
 import xyz.fivemillion.tdd.exception.MembershipException;
 import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static xyz.fivemillion.tdd.config.CacheConfig.MEMBERSHIP_CACHE;
+import static xyz.fivemillion.tdd.config.CacheConfig.MEMBERSHIP_LIST_CACHE;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class MembershipService {
 
+    private static final int BULK_ACCUMULATE_CHUNK_SIZE = 500;
+    private static final int BULK_ADD_CHUNK_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String OPERATION_METRIC = "membership.operation";
+
     private final MembershipRepository membershipRepository;
+    private final PointTransactionRepository pointTransactionRepository;
     private final PointService ratePointService;
+    private final PointWriter pointWriter;
+    private final MembershipCacheEvictor membershipCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "add"})
     public MembershipAddResponse addMembership(String userId, MembershipType membershipType, int point) {
-        if (membershipRepository.findByUserIdAndMembershipType(userId, membershipType) != null)
+        Membership membership;
+        try {
+            // (userId, membershipType) 유니크 제약으로 중복 등록을 막는다
+            membership = membershipRepository.saveAndFlush(
+                    Membership.builder()
+                            .userId(userId)
+                            .membershipType(membershipType)
+                            .point(point)
+                            .build()
+            );
+        } catch (DataIntegrityViolationException e) {
             throw new MembershipException(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER);
-
-        Membership membership = membershipRepository.save(
-                Membership.builder()
-                        .userId(userId)
-                        .membershipType(membershipType)
-                        .point(point)
-                        .build()
-        );
+        }
+        if (point != 0)
+            pointTransactionRepository.save(
+                    PointTransaction.of(membership.getId(), PointTransactionType.REGISTER, point));
+        membershipCacheEvictor.evict(userId);
 
         MembershipAddResponse response = MembershipAddResponse.builder()
                 .id(membership.getId())
@@ -44,57 +86,198 @@ public class MembershipService {
         return response;
     }
 
+    /**
+     * 대량 등록. 청크마다 트랜잭션을 나누어 커밋하고, ID 는 시퀀스 묶음 할당, INSERT 는 JDBC batch 로 보낸다.
+     * 중복 등록이 있으면 해당 청크만 롤백되며, 앞서 커밋된 청크는 등록된 상태로 남는다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "add.bulk"})
+    public List<MembershipAddResponse> addMemberships(List<MembershipRegistration> registrations) {
+        List<MembershipAddResponse> responses = new ArrayList<>(registrations.size());
+
+        for (int from = 0; from < registrations.size(); from += BULK_ADD_CHUNK_SIZE) {
+            List<MembershipRegistration> chunk =
+                    registrations.subList(from, Math.min(from + BULK_ADD_CHUNK_SIZE, registrations.size()));
+            responses.addAll(transactionTemplate.execute(status -> addChunk(chunk)));
+        }
+
+        return responses;
+    }
+
+    private List<MembershipAddResponse> addChunk(List<MembershipRegistration> chunk) {
+        List<Membership> memberships = new ArrayList<>(chunk.size());
+        for (MembershipRegistration registration : chunk)
+            memberships.add(Membership.builder()
+                    .userId(registration.getUserId())
+                    .membershipType(registration.getMembershipType())
+                    .point(registration.getPoint())
+                    .build());
+
+        try {
+            memberships = membershipRepository.saveAllAndFlush(memberships);
+        } catch (DataIntegrityViolationException e) {
+            throw new MembershipException(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER);
+        }
+
+        List<MembershipAddResponse> responses = new ArrayList<>(memberships.size());
+        List<PointTransaction> transactions = new ArrayList<>();
+        for (Membership membership : memberships) {
+            responses.add(MembershipAddResponse.builder()
+                    .id(membership.getId())
+                    .membershipType(membership.getMembershipType())
+                    .build());
+            if (membership.getPoint() != 0)
+                transactions.add(PointTransaction.of(membership.getId(), PointTransactionType.REGISTER, membership.getPoint()));
+        }
+        pointTransactionRepository.saveAll(transactions);
+
+        chunk.stream()
+                .map(MembershipRegistration::getUserId)
+                .distinct()
+                .forEach(membershipCacheEvictor::evict);
+
+        return responses;
+    }
+
+    // sync 로 읽으면 읽는 도중의 evict 는 읽기가 끝난 뒤에 지우므로, 커밋 전에 읽은 값이 evict 뒤에 남지 않는다
+    @Cacheable(cacheNames = MEMBERSHIP_CACHE, key = "#userId + ':' + #membershipType", sync = true)
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "get"})
     public MembershipDetailResponse getMembership(String userId, MembershipType membershipType) {
-        Membership findResult = membershipRepository.findByUserIdAndMembershipType(userId, membershipType);
+        MembershipDetailResponse findResult =
+                membershipRepository.findDetailByUserIdAndMembershipType(userId, membershipType);
 
         if (findResult == null)
             throw new MembershipException(MembershipError.MEMBERSHIP_NOT_FOUND);
 
-        return MembershipDetailResponse.builder()
-                .id(findResult.getId())
-                .membershipType(findResult.getMembershipType())
-                .point(findResult.getPoint())
-                .createdAt(findResult.getCreatedAt())
-                .build();
+        return findResult;
     }
 
+    @Cacheable(cacheNames = MEMBERSHIP_LIST_CACHE, key = "#userId", sync = true)
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "list"})
     public List<MembershipDetailResponse> getMembershipList(String userId) {
-        List<Membership> membershipList = membershipRepository.findAllByUserId(userId);
-
-        return membershipList.stream().map(v -> MembershipDetailResponse.builder()
-                .id(v.getId())
-                .point(v.getPoint())
-                .membershipType(v.getMembershipType())
-                .createdAt(v.getCreatedAt())
-                .build()
-        ).collect(Collectors.toList());
+        return membershipRepository.findAllDetailByUserId(userId);
     }
 
-    @Transactional
-    public void deleteMembership(Long membershipId, String userId) {
-        Optional<Membership> opt = membershipRepository.findById(membershipId);
+    public MembershipPageResponse getMembershipPage(String userId, Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
 
-        if(opt.isEmpty())
-            throw new MembershipException(MembershipError.MEMBERSHIP_NOT_FOUND);
+        // 다음 페이지 유무를 알기 위해 한 건 더 읽는다
+        List<MembershipDetailResponse> memberships = membershipRepository.findDetailPageByUserId(
+                userId, cursor == null ? 0L : cursor, PageRequest.of(0, pageSize + 1));
 
-        Membership membership = opt.get();
-        if(!membership.getUserId().equals(userId))
-            throw new MembershipException(MembershipError.NOT_MEMBERSHIP_OWNER);
+        if (memberships.size() <= pageSize)
+            return new MembershipPageResponse(memberships, null);
 
-        membershipRepository.deleteById(membershipId);
+        memberships = memberships.subList(0, pageSize);
+        return new MembershipPageResponse(memberships, memberships.get(pageSize - 1).getId());
+    }
+
+    public void streamMembershipList(String userId, Consumer<MembershipDetailResponse> consumer) {
+        // 관리되는 엔티티가 아니므로 영속성 컨텍스트에 쌓이지 않아 목록 크기와 무관하게 메모리를 유지한다
+        try (Stream<MembershipDetailResponse> membershipStream = membershipRepository.streamAllDetailByUserId(userId)) {
+            membershipStream.forEach(consumer);
+        }
     }
 
     @Transactional
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "delete"})
+    public void deleteMembership(Long membershipId, String userId) {
+        if (membershipRepository.deleteByIdAndUserId(membershipId, userId) == 0)
+            throw new MembershipException(resolveWriteFailure(membershipId));
+
+        membershipCacheEvictor.evict(userId);
+    }
+
+    @Transactional
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "accumulate"})
     public void accumulatePoint(Long membershipId, String userId, int price) {
-        Optional<Membership> opt = membershipRepository.findById(membershipId);
-        if(opt.isEmpty())
-            throw new MembershipException(MembershipError.MEMBERSHIP_NOT_FOUND);
+        // 등급별 적립률이 없으면 등급 조회 없이 조건부 UPDATE 한 문장으로 끝난다
+        int point = ratePointService.isMembershipTypeDependent()
+                ? ratePointService.calculateAmount(findMembershipType(membershipId, userId), price)
+                : ratePointService.calculateAmount(price);
+
+        if (!pointWriter.write(membershipId, userId, point))
+            throw new MembershipException(resolveWriteFailure(membershipId));
+
+        pointTransactionRepository.save(PointTransaction.of(membershipId, PointTransactionType.ACCUMULATE, point));
+        membershipCacheEvictor.evict(userId);
+    }
+
+    public PointTransactionPageResponse getPointTransactions(Long membershipId, String userId, int page, int size) {
+        if (!membershipRepository.existsByIdAndUserId(membershipId, userId))
+            throw new MembershipException(resolveWriteFailure(membershipId));
+
+        Slice<PointTransactionResponse> transactions = pointTransactionRepository.findPageByMembershipId(
+                membershipId, PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+
+        return new PointTransactionPageResponse(transactions.getContent(), transactions.hasNext());
+    }
+
+    private MembershipType findMembershipType(Long membershipId, String userId) {
+        MembershipType membershipType = membershipRepository.findMembershipTypeByIdAndUserId(membershipId, userId);
+        if (membershipType == null)
+            throw new MembershipException(resolveWriteFailure(membershipId));
+
+        return membershipType;
+    }
+
+    // 조건부 쓰기가 0건일 때만 존재 여부를 확인해 실패 원인을 구분한다
+    private MembershipError resolveWriteFailure(Long membershipId) {
+        return membershipRepository.existsById(membershipId)
+                ? MembershipError.NOT_MEMBERSHIP_OWNER
+                : MembershipError.MEMBERSHIP_NOT_FOUND;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = OPERATION_METRIC, extraTags = {"operation", "accumulate.bulk"})
+    public List<PointAccumulateResult> accumulatePoints(String userId, List<PointAccumulateBulkRequest.Item> items) {
+        List<PointAccumulateResult> results = new ArrayList<>(items.size());
+
+        for (int from = 0; from < items.size(); from += BULK_ACCUMULATE_CHUNK_SIZE) {
+            List<PointAccumulateBulkRequest.Item> chunk =
+                    items.subList(from, Math.min(from + BULK_ACCUMULATE_CHUNK_SIZE, items.size()));
+            results.addAll(transactionTemplate.execute(status -> accumulateChunk(userId, chunk)));
+        }
+
+        return results;
+    }
+
+    private List<PointAccumulateResult> accumulateChunk(String userId, List<PointAccumulateBulkRequest.Item> chunk) {
+        Set<Long> membershipIds = chunk.stream()
+                .map(PointAccumulateBulkRequest.Item::getMembershipId)
+                .collect(Collectors.toSet());
+        Map<Long, Membership> membershipById = membershipRepository.findAllById(membershipIds).stream()
+                .collect(Collectors.toMap(Membership::getId, Function.identity()));
+
+        List<PointAccumulateResult> results = new ArrayList<>(chunk.size());
+        List<PointTransaction> transactions = new ArrayList<>(chunk.size());
+        Map<Long, Integer> pointByMembershipId = new HashMap<>();
+        for (PointAccumulateBulkRequest.Item item : chunk) {
+            Membership membership = membershipById.get(item.getMembershipId());
+
+            if (membership == null) {
+                results.add(PointAccumulateResult.failure(item.getMembershipId(), MembershipError.MEMBERSHIP_NOT_FOUND));
+                continue;
+            }
+
+            if (!membership.getUserId().equals(userId)) {
+                results.add(PointAccumulateResult.failure(item.getMembershipId(), MembershipError.NOT_MEMBERSHIP_OWNER));
+                continue;
+            }
+
+            int point = ratePointService.calculateAmount(membership.getMembershipType(), item.getPrice());
+            pointByMembershipId.merge(item.getMembershipId(), point, Integer::sum);
+            transactions.add(PointTransaction.of(item.getMembershipId(), PointTransactionType.ACCUMULATE, point));
+            results.add(PointAccumulateResult.success(item.getMembershipId()));
+        }
 
-        Membership membership = opt.get();
-        if(!membership.getUserId().equals(userId))
-            throw new MembershipException(MembershipError.NOT_MEMBERSHIP_OWNER);
+        if (!pointByMembershipId.isEmpty()) {
+            pointWriter.writeAll(userId, pointByMembershipId);
+            // 잔액은 맴버십별로 합쳐서 갱신하고, 원장에는 항목별로 남긴다
+            pointTransactionRepository.saveAll(transactions);
+            membershipCacheEvictor.evict(userId);
+        }
 
-        int point = ratePointService.calculateAmount(price);
-        membership.addPoint(point);
+        return results;
     }
 }
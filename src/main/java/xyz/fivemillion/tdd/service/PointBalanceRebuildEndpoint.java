@@ -0,0 +1,24 @@
+package xyz.fivemillion.tdd.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 운영 중 잔액을 원장 합계로 다시 맞추는 actuator 엔드포인트. POST /actuator/pointbalance 로 실행한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "pointbalance")
+public class PointBalanceRebuildEndpoint {
+
+    private final PointBalanceRebuilder pointBalanceRebuilder;
+
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        return Map.of("rebuilt", pointBalanceRebuilder.rebuildAll());
+    }
+}
@@ -0,0 +1,97 @@
+package xyz.fivemillion.tdd.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 맴버십 잔액을 포인트 원장의 합계로 다시 맞춘다.
+ * ID 순으로 청크를 나누어 청크마다 별도 트랜잭션으로 병렬 처리하므로, 한 청크의 실패가 다른 청크의 커밋을 되돌리지 않는다.
+ * write-behind 로 모아둔 적립은 원장에는 이미 있으므로 먼저 반영하고, 다시 계산하는 동안에는 새 적립을 모아두지 않는다.
+ */
+@Slf4j
+@Service
+public class PointBalanceRebuilder {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final MembershipRepository membershipRepository;
+    private final PointWriter pointWriter;
+    private final MembershipCacheEvictor membershipCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+
+    public PointBalanceRebuilder(
+            MembershipRepository membershipRepository,
+            PointWriter pointWriter,
+            MembershipCacheEvictor membershipCacheEvictor,
+            TransactionTemplate transactionTemplate,
+            @Value("${membership.point.rebuild-parallelism:4}") int parallelism) {
+        this.membershipRepository = membershipRepository;
+        this.pointWriter = pointWriter;
+        this.membershipCacheEvictor = membershipCacheEvictor;
+        this.transactionTemplate = transactionTemplate;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return 잔액을 다시 계산한 맴버십 수
+     */
+    public int rebuildAll() {
+        return pointWriter.runExclusive(this::rebuildChunks);
+    }
+
+    private int rebuildChunks() {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            List<Long> membershipIds = membershipRepository.findIdsAfter(0L, PageRequest.of(0, CHUNK_SIZE));
+            while (!membershipIds.isEmpty()) {
+                List<Long> chunk = membershipIds;
+                futures.add(executor.submit(() -> transactionTemplate.execute(status -> rebuildChunk(chunk))));
+
+                membershipIds = membershipRepository.findIdsAfter(
+                        chunk.get(chunk.size() - 1), PageRequest.of(0, CHUNK_SIZE));
+            }
+
+            int rebuilt = 0;
+            for (Future<Integer> future : futures)
+                rebuilt += await(future);
+
+            log.info("Rebuilt point balance of {} memberships from ledger", rebuilt);
+            return rebuilt;
+        } finally {
+            executor.shutdown();
+            membershipCacheEvictor.evictAll();
+        }
+    }
+
+    private int rebuildChunk(List<Long> membershipIds) {
+        // 드라이버가 batch 를 재작성하면 행별 결과가 오지 않으므로 청크 크기를 센다
+        membershipRepository.rebuildPoints(membershipIds);
+        return membershipIds.size();
+    }
+
+    private static int await(Future<Integer> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Point balance rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        }
+    }
+}
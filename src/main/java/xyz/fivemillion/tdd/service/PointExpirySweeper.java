@@ -0,0 +1,193 @@
+package xyz.fivemillion.tdd.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.domain.JobCheckpoint;
+import xyz.fivemillion.tdd.domain.PointTransaction;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
+import xyz.fivemillion.tdd.repository.JobCheckpointRepository;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 적립 후 정해진 개월 수가 지난 포인트를 만료시킨다.
+ * 맴버십 테이블을 훑지 않고 포인트 원장을 PK 순으로 청크 단위로 읽으며, 청크마다 짧은 트랜잭션으로
+ * 잔액 차감, 만료 원장 기록, 체크포인트 갱신을 함께 커밋한다. 재시작하면 마지막 체크포인트 다음부터 이어서 진행한다.
+ * 아직 만료되지 않은 원장을 만나면 그 앞에서 멈추므로, 원장 하나가 두 번 만료되거나 건너뛰어지지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "membership.point.expiry.enabled", havingValue = "true")
+public class PointExpirySweeper {
+
+    public static final String JOB_NAME = "point-expiry";
+    private static final String METRIC_PREFIX = "membership.point.expiry";
+
+    private final PointTransactionRepository pointTransactionRepository;
+    private final MembershipRepository membershipRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final MembershipCacheEvictor membershipCacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final int expiryMonths;
+    private final int chunkSize;
+    private final int maxRowsPerSecond;
+
+    private final Counter scannedRows;
+    private final Counter expiredRows;
+    private final Timer runTimer;
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public PointExpirySweeper(
+            PointTransactionRepository pointTransactionRepository,
+            MembershipRepository membershipRepository,
+            JobCheckpointRepository jobCheckpointRepository,
+            MembershipCacheEvictor membershipCacheEvictor,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${membership.point.expiry.months:12}") int expiryMonths,
+            @Value("${membership.point.expiry.chunk-size:500}") int chunkSize,
+            @Value("${membership.point.expiry.max-rows-per-second:5000}") int maxRowsPerSecond) {
+        this.pointTransactionRepository = pointTransactionRepository;
+        this.membershipRepository = membershipRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.membershipCacheEvictor = membershipCacheEvictor;
+        this.transactionTemplate = transactionTemplate;
+        this.expiryMonths = expiryMonths;
+        this.chunkSize = chunkSize;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+
+        this.scannedRows = meterRegistry.counter(METRIC_PREFIX + ".scanned");
+        this.expiredRows = meterRegistry.counter(METRIC_PREFIX + ".expired");
+        this.runTimer = meterRegistry.timer(METRIC_PREFIX + ".run");
+        meterRegistry.gauge(METRIC_PREFIX + ".rows.per.second", rowsPerSecond);
+        meterRegistry.gauge(METRIC_PREFIX + ".lag.seconds", lagSeconds);
+    }
+
+    /**
+     * 만료 대상이 남지 않을 때까지 청크를 처리한다. 처리 속도는 max-rows-per-second 를 넘지 않는다.
+     * @return 이번 실행에서 읽은 원장 수
+     */
+    @Scheduled(
+            initialDelayString = "${membership.point.expiry.initial-delay-ms:60000}",
+            fixedDelayString = "${membership.point.expiry.interval-ms:3600000}")
+    public synchronized long sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(expiryMonths);
+        long startedAt = System.nanoTime();
+        long scanned = 0;
+
+        ChunkResult chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> sweepChunk(cutoff));
+            scanned += chunk.scanned;
+            scannedRows.increment(chunk.scanned);
+            expiredRows.increment(chunk.expired);
+            lagSeconds.set(chunk.lag.getSeconds());
+        } while (chunk.hasMore && throttle(scanned, startedAt));
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        rowsPerSecond.set(elapsedNanos == 0 ? 0 : scanned * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+
+        if (scanned > 0)
+            log.info("Point expiry scanned {} ledger rows in {} ms", scanned, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+
+        return scanned;
+    }
+
+    private ChunkResult sweepChunk(LocalDateTime cutoff) {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME).orElseGet(() -> new JobCheckpoint(JOB_NAME));
+        List<PointTransaction> transactions = pointTransactionRepository.findByIdGreaterThanOrderById(
+                checkpoint.getLastPosition(), PageRequest.of(0, chunkSize));
+
+        Map<Long, Integer> expiredPointByMembershipId = new HashMap<>();
+        List<PointTransaction> expiries = new ArrayList<>();
+        long lastPosition = checkpoint.getLastPosition();
+        Duration lag = Duration.ZERO;
+        boolean reachedUnexpired = false;
+        int scanned = 0;
+
+        for (PointTransaction transaction : transactions) {
+            if (!transaction.getCreatedAt().isBefore(cutoff)) {
+                reachedUnexpired = true;
+                break;
+            }
+
+            if (scanned++ == 0)
+                lag = Duration.between(transaction.getCreatedAt(), cutoff);
+            lastPosition = transaction.getId();
+
+            if (transaction.getType() == PointTransactionType.EXPIRE || transaction.getPoint() <= 0)
+                continue;
+
+            expiredPointByMembershipId.merge(transaction.getMembershipId(), -transaction.getPoint(), Integer::sum);
+            expiries.add(PointTransaction.of(
+                    transaction.getMembershipId(), PointTransactionType.EXPIRE, -transaction.getPoint()));
+        }
+
+        if (!expiries.isEmpty()) {
+            membershipRepository.addPoints(expiredPointByMembershipId);
+            pointTransactionRepository.saveAll(expiries);
+            membershipRepository.findUserIdsByIdIn(expiredPointByMembershipId.keySet())
+                    .forEach(membershipCacheEvictor::evict);
+        }
+
+        if (scanned > 0) {
+            checkpoint.advance(lastPosition, expiries.size(), 0);
+            jobCheckpointRepository.save(checkpoint);
+        }
+
+        boolean hasMore = !reachedUnexpired && transactions.size() == chunkSize;
+        return new ChunkResult(scanned, expiries.size(), hasMore ? lag : Duration.ZERO, hasMore);
+    }
+
+    // 목표 속도보다 앞서 있으면 그만큼 쉰다. 인터럽트되면 다음 실행으로 넘긴다
+    private boolean throttle(long scanned, long startedAt) {
+        if (maxRowsPerSecond <= 0)
+            return true;
+
+        long aheadNanos = scanned * TimeUnit.SECONDS.toNanos(1) / maxRowsPerSecond - (System.nanoTime() - startedAt);
+        if (aheadNanos <= 0)
+            return true;
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class ChunkResult {
+
+        private final int scanned;
+        private final int expired;
+        private final Duration lag;
+        private final boolean hasMore;
+
+        private ChunkResult(int scanned, int expired, Duration lag, boolean hasMore) {
+            this.scanned = scanned;
+            this.expired = expired;
+            this.lag = lag;
+            this.hasMore = hasMore;
+        }
+    }
+}
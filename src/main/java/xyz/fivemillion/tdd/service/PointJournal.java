@@ -0,0 +1,251 @@
+package xyz.fivemillion.tdd.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 적립된 포인트 증분을 (membershipId, point) 고정 길이 레코드로 남기는 append-only 저널.
+ * 세그먼트 단위로 회전하며, DB 에 반영된 세그먼트는 삭제한다.
+ * 세그먼트 번호는 계속 증가하므로, 어디까지 반영했는지를 번호 하나로 기록할 수 있다.
+ * <p>
+ * sync 가 켜져 있으면 디스크 반영은 전용 스레드가 맡는다. 기다리는 append 가 있으면 그때까지 쌓인 레코드를 한 번의 force 로
+ * 함께 내리고(group commit), append 는 자기 레코드가 내려갈 때까지만 기다린다.
+ */
+@Slf4j
+class PointJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "point-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int RECORD_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final boolean sync;
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_SIZE);
+
+    // 인스턴스 모니터로 보호한다
+    private long segmentSequence;
+    private Path segment;
+    private FileChannel channel;
+    private long appendedRecords;
+
+    // commitLock 으로 보호한다
+    private final Object commitLock = new Object();
+    private long requestedRecords;
+    private volatile long durableRecords;
+    private volatile boolean closed;
+    private final Thread committer;
+
+    /**
+     * @param lastAppliedSequence 이미 반영된 마지막 세그먼트 번호. 세그먼트가 모두 지워졌어도 새 세그먼트는 이보다 큰 번호를 받는다
+     */
+    PointJournal(Path directory, boolean sync, long lastAppliedSequence) throws IOException {
+        this.directory = directory;
+        this.sync = sync;
+
+        Files.createDirectories(directory);
+        this.segmentSequence = Math.max(lastAppliedSequence, segments().stream()
+                .mapToLong(PointJournal::sequenceOf)
+                .max()
+                .orElse(0L));
+        openNextSegment();
+
+        if (sync) {
+            committer = new Thread(this::commitLoop, "point-journal-committer");
+            committer.setDaemon(true);
+            committer.start();
+        } else {
+            committer = null;
+        }
+    }
+
+    /**
+     * sync 가 켜져 있으면 레코드가 디스크에 내려간 뒤에 돌아온다.
+     */
+    void append(long membershipId, int point) throws IOException {
+        long record = write(membershipId, point);
+        if (sync)
+            awaitDurable(record);
+    }
+
+    private synchronized long write(long membershipId, int point) throws IOException {
+        if (closed)
+            throw new ClosedChannelException();
+
+        recordBuffer.clear();
+        recordBuffer.putLong(membershipId).putInt(point).flip();
+
+        while (recordBuffer.hasRemaining())
+            channel.write(recordBuffer);
+
+        return ++appendedRecords;
+    }
+
+    private void awaitDurable(long record) throws IOException {
+        synchronized (commitLock) {
+            if (requestedRecords < record) {
+                requestedRecords = record;
+                commitLock.notifyAll();
+            }
+
+            while (durableRecords < record) {
+                if (closed)
+                    throw new ClosedChannelException();
+                try {
+                    commitLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for point journal commit");
+                }
+            }
+        }
+    }
+
+    private void commitLoop() {
+        while (!closed) {
+            synchronized (commitLock) {
+                while (requestedRecords <= durableRecords && !closed) {
+                    try {
+                        commitLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+
+            try {
+                commit();
+            } catch (ClosedChannelException e) {
+                // rotate 나 close 가 채널을 닫으면서 이미 내렸다
+            } catch (IOException e) {
+                log.warn("Point journal commit failed", e);
+            }
+        }
+    }
+
+    // force 는 모니터 밖에서 하므로 그동안 다른 스레드가 계속 기록할 수 있다
+    private void commit() throws IOException {
+        FileChannel current;
+        long target;
+        synchronized (this) {
+            current = channel;
+            target = appendedRecords;
+        }
+
+        current.force(false);
+        markDurable(target);
+    }
+
+    private void markDurable(long records) {
+        synchronized (commitLock) {
+            if (records > durableRecords) {
+                durableRecords = records;
+                commitLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 현재 세그먼트를 닫고 새 세그먼트를 연다.
+     *
+     * @return 닫힌 세그먼트
+     */
+    synchronized Path rotate() throws IOException {
+        Path rotated = segment;
+        channel.force(false);
+        channel.close();
+        markDurable(appendedRecords);
+        openNextSegment();
+        return rotated;
+    }
+
+    /**
+     * 현재 쓰고 있는 세그먼트를 제외한 세그먼트들. 오래된 순서로 정렬된다.
+     */
+    synchronized List<Path> closedSegments() throws IOException {
+        return segments().stream()
+                .filter(path -> !path.equals(segment))
+                .collect(Collectors.toList());
+    }
+
+    static void replay(Path segment, BiConsumer<Long, Integer> consumer) throws IOException {
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 1024);
+            while (in.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE)
+                    consumer.accept(buffer.getLong(), buffer.getInt());
+                buffer.compact();
+            }
+            // 쓰다가 중단된 마지막 레코드(RECORD_SIZE 미만)는 응답하지 않은 적립이므로 버린다
+        }
+    }
+
+    void delete(Path segment) throws IOException {
+        Files.deleteIfExists(segment);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed)
+                return;
+
+            channel.force(false);
+            channel.close();
+            markDurable(appendedRecords);
+            if (Files.size(segment) == 0)
+                Files.delete(segment);
+
+            synchronized (commitLock) {
+                closed = true;
+                commitLock.notifyAll();
+            }
+        }
+
+        if (committer != null) {
+            try {
+                committer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        segment = directory.resolve(SEGMENT_PREFIX + (++segmentSequence) + SEGMENT_SUFFIX);
+        channel = FileChannel.open(segment,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(PointJournal::isSegment)
+                    .sorted(Comparator.comparingLong(PointJournal::sequenceOf))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+    }
+
+    static long sequenceOf(Path path) {
+        String fileName = path.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,155 @@
+package xyz.fivemillion.tdd.service;
+
+import xyz.fivemillion.tdd.config.PointRuleProperties;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * {@link PointRuleProperties} 를 미리 계산해 둔 불변 조회 테이블.
+ * 적립 시에는 배열 조회와 이진 탐색만 하고, 객체를 만들지 않는다.
+ */
+final class PointRateTable {
+
+    private static final int PERCENT = 100;
+    private static final long RATE_SCALE = (long) PERCENT * PERCENT * PERCENT;
+    // 맴버십 타입 없이 계산할 때 쓰는 슬롯
+    private static final int DEFAULT_SLOT = MembershipType.values().length;
+
+    private final int[] rates;
+    private final int[] tierMinPrices;
+    private final int[] tierMultipliers;
+    // 슬롯별 프로모션 구간 경계(epoch millis, 오름차순)와 구간별 배수. i 번째 구간은 boundaries[i - 1] 이상 boundaries[i] 미만이다
+    private final long[][] promotionBoundaries;
+    private final int[][] promotionMultipliers;
+    private final boolean membershipTypeDependent;
+
+    private PointRateTable(int[] rates, int[] tierMinPrices, int[] tierMultipliers,
+                           long[][] promotionBoundaries, int[][] promotionMultipliers, boolean membershipTypeDependent) {
+        this.rates = rates;
+        this.tierMinPrices = tierMinPrices;
+        this.tierMultipliers = tierMultipliers;
+        this.promotionBoundaries = promotionBoundaries;
+        this.promotionMultipliers = promotionMultipliers;
+        this.membershipTypeDependent = membershipTypeDependent;
+    }
+
+    boolean isMembershipTypeDependent() {
+        return membershipTypeDependent;
+    }
+
+    int calculateAmount(MembershipType membershipType, int price, long now) {
+        int slot = membershipType == null ? DEFAULT_SLOT : membershipType.ordinal();
+        long amount = (long) price * rates[slot] * tierMultiplier(price) * promotionMultiplier(slot, now);
+
+        return Math.toIntExact(amount / RATE_SCALE);
+    }
+
+    private int tierMultiplier(int price) {
+        int index = Arrays.binarySearch(tierMinPrices, price);
+        if (index < 0)
+            index = -index - 2;
+
+        return index < 0 ? PERCENT : tierMultipliers[index];
+    }
+
+    private int promotionMultiplier(int slot, long now) {
+        int index = Arrays.binarySearch(promotionBoundaries[slot], now);
+        int segment = index >= 0 ? index + 1 : -index - 1;
+
+        return promotionMultipliers[slot][segment];
+    }
+
+    static PointRateTable compile(PointRuleProperties properties, ZoneId zoneId) {
+        MembershipType[] membershipTypes = MembershipType.values();
+        int[] rates = new int[DEFAULT_SLOT + 1];
+        long[][] promotionBoundaries = new long[DEFAULT_SLOT + 1][];
+        int[][] promotionMultipliers = new int[DEFAULT_SLOT + 1][];
+
+        rates[DEFAULT_SLOT] = requireNotNegative(properties.getDefaultRate(), "defaultRate");
+        compilePromotions(properties.getPromotions(), null, zoneId, promotionBoundaries, promotionMultipliers);
+        for (MembershipType membershipType : membershipTypes) {
+            rates[membershipType.ordinal()] = requireNotNegative(
+                    properties.getRates().getOrDefault(membershipType, properties.getDefaultRate()),
+                    "rates." + membershipType);
+            compilePromotions(properties.getPromotions(), membershipType, zoneId, promotionBoundaries, promotionMultipliers);
+        }
+
+        // 같은 최소 금액이 여러 번 나오면 뒤의 설정을 쓴다
+        TreeMap<Integer, Integer> tiers = new TreeMap<>();
+        for (PointRuleProperties.Tier tier : properties.getTiers())
+            tiers.put(tier.getMinPrice(), requireNotNegative(tier.getMultiplier(), "tiers.multiplier"));
+
+        return new PointRateTable(
+                rates,
+                tiers.keySet().stream().mapToInt(Integer::intValue).toArray(),
+                tiers.values().stream().mapToInt(Integer::intValue).toArray(),
+                promotionBoundaries,
+                promotionMultipliers,
+                isMembershipTypeDependent(properties));
+    }
+
+    private static void compilePromotions(List<PointRuleProperties.Promotion> promotions, MembershipType membershipType,
+                                          ZoneId zoneId, long[][] boundariesBySlot, int[][] multipliersBySlot) {
+        TreeSet<Long> boundarySet = new TreeSet<>();
+        for (PointRuleProperties.Promotion promotion : promotions) {
+            requireNotNegative(promotion.getMultiplier(), "promotions.multiplier");
+            if (promotion.getStart() != null && promotion.getEnd() != null && !promotion.getStart().isBefore(promotion.getEnd()))
+                throw new IllegalArgumentException("promotion start must be before end: " + promotion.getStart());
+
+            if (!appliesTo(promotion, membershipType))
+                continue;
+            if (promotion.getStart() != null)
+                boundarySet.add(toEpochMilli(promotion.getStart(), zoneId));
+            if (promotion.getEnd() != null)
+                boundarySet.add(toEpochMilli(promotion.getEnd(), zoneId));
+        }
+
+        long[] boundaries = boundarySet.stream().mapToLong(Long::longValue).toArray();
+        int[] multipliers = new int[boundaries.length + 1];
+        for (int segment = 0; segment < multipliers.length; segment++) {
+            // 구간의 시작 시각으로 그 구간에 걸린 프로모션을 판단한다. 겹치는 프로모션은 배수를 곱한다
+            long at = segment == 0 ? (boundaries.length == 0 ? 0L : boundaries[0] - 1) : boundaries[segment - 1];
+            long multiplier = PERCENT;
+            for (PointRuleProperties.Promotion promotion : promotions) {
+                if (appliesTo(promotion, membershipType) && isActive(promotion, at, zoneId))
+                    multiplier = multiplier * promotion.getMultiplier() / PERCENT;
+            }
+            multipliers[segment] = Math.toIntExact(multiplier);
+        }
+
+        int slot = membershipType == null ? DEFAULT_SLOT : membershipType.ordinal();
+        boundariesBySlot[slot] = boundaries;
+        multipliersBySlot[slot] = multipliers;
+    }
+
+    // 등급별 적립률이나 등급 한정 프로모션이 있으면 등급을 알아야 계산할 수 있다
+    private static boolean isMembershipTypeDependent(PointRuleProperties properties) {
+        return properties.getRates().values().stream().anyMatch(rate -> rate != properties.getDefaultRate())
+                || properties.getPromotions().stream().anyMatch(promotion -> promotion.getMembershipType() != null);
+    }
+
+    private static boolean appliesTo(PointRuleProperties.Promotion promotion, MembershipType membershipType) {
+        return promotion.getMembershipType() == null || promotion.getMembershipType() == membershipType;
+    }
+
+    private static boolean isActive(PointRuleProperties.Promotion promotion, long at, ZoneId zoneId) {
+        return (promotion.getStart() == null || toEpochMilli(promotion.getStart(), zoneId) <= at)
+                && (promotion.getEnd() == null || at < toEpochMilli(promotion.getEnd(), zoneId));
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime, ZoneId zoneId) {
+        return dateTime.atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    private static int requireNotNegative(int value, String name) {
+        if (value < 0)
+            throw new IllegalArgumentException(name + " must not be negative: " + value);
+        return value;
+    }
+}
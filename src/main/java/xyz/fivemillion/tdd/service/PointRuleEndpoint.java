@@ -0,0 +1,77 @@
+package xyz.fivemillion.tdd.service;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.stereotype.Component;
+import xyz.fivemillion.tdd.config.PointRuleProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 운영 중 적립 규칙을 바꾸는 actuator 엔드포인트.
+ * POST /actuator/pointrule 에 name, value 로 규칙 설정 하나를 덮어쓰고, DELETE 로 덮어쓴 값을 모두 지워 원래 설정으로 되돌린다.
+ */
+@Component
+@Endpoint(id = "pointrule")
+@ConditionalOnProperty(name = "membership.point.rule.enabled", havingValue = "true")
+public class PointRuleEndpoint {
+
+    static final String PROPERTY_SOURCE_NAME = "pointRuleOverrides";
+
+    private final ConfigurableEnvironment environment;
+    private final RulePointService rulePointService;
+    private final Map<String, Object> overrides = new HashMap<>();
+
+    public PointRuleEndpoint(ConfigurableEnvironment environment, RulePointService rulePointService) {
+        this.environment = environment;
+        this.rulePointService = rulePointService;
+        environment.getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE_NAME, overrides));
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> overrides() {
+        return Map.copyOf(overrides);
+    }
+
+    /**
+     * @return 덮어쓴 설정 전체. 바인딩할 수 없는 값이면 덮어쓰지 않고 400 으로 끝난다
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> override(String name, String value) {
+        if (!name.startsWith(PointRuleProperties.PREFIX + "."))
+            throw new InvalidEndpointRequestException(name + " 은 적립 규칙 설정이 아님", "Not a point rule property");
+
+        Object previous = overrides.put(name, value);
+        try {
+            reload();
+        } catch (BindException e) {
+            if (previous == null)
+                overrides.remove(name);
+            else
+                overrides.put(name, previous);
+            throw new InvalidEndpointRequestException(name + "=" + value + " 로 규칙을 읽지 못함", "Invalid point rule value");
+        }
+        return Map.copyOf(overrides);
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> reset() {
+        overrides.clear();
+        reload();
+        return Map.of();
+    }
+
+    // 기존 빈에 다시 바인딩하면 지워진 항목이 남을 수 있으므로 새 인스턴스로 바인딩한다
+    private void reload() {
+        rulePointService.reload(Binder.get(environment).bindOrCreate(PointRuleProperties.PREFIX, PointRuleProperties.class));
+    }
+}
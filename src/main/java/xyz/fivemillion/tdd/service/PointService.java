@@ -1,6 +1,19 @@
 package xyz.fivemillion.tdd.service;
 
+import xyz.fivemillion.tdd.domain.MembershipType;
+
 public interface PointService {
 
     int calculateAmount(int price);
+
+    default int calculateAmount(MembershipType membershipType, int price) {
+        return calculateAmount(price);
+    }
+
+    /**
+     * 멤버십 등급에 따라 적립액이 달라지는지 여부. false 면 호출 측은 등급 조회를 생략할 수 있다.
+     */
+    default boolean isMembershipTypeDependent() {
+        return false;
+    }
 }
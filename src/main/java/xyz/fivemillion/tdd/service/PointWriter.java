@@ -0,0 +1,33 @@
+package xyz.fivemillion.tdd.service;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+public interface PointWriter {
+
+    /**
+     * userId 가 소유한 멤버십에만 적립한다.
+     * @return 멤버십이 없거나 소유자가 다르면 false
+     */
+    boolean write(Long membershipId, String userId, int point);
+
+    /**
+     * 소유 여부 검증이 끝난 userId 의 멤버십에 적립한다.
+     */
+    void writeAll(String userId, Map<Long, Integer> pointByMembershipId);
+
+    /**
+     * 모아둔 적립이 있으면 지금 반영한다.
+     */
+    default void flush() {
+    }
+
+    /**
+     * 모아둔 적립을 반영한 뒤, action 이 끝날 때까지 새 적립을 모아두지 않는다.
+     * 원장에는 있지만 아직 잔액에 반영되지 않은 적립이 action 중에 생기지 않는다.
+     */
+    default <T> T runExclusive(Supplier<T> action) {
+        flush();
+        return action.get();
+    }
+}
@@ -0,0 +1,84 @@
+package xyz.fivemillion.tdd.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.repository.ReactiveMembershipRepository;
+
+/**
+ * reactive 프로파일의 맴버십 서비스. {@link MembershipService} 와 같은 규칙과 오류 코드로 R2DBC 위에서 처리한다.
+ * 적립은 조건부 UPDATE 로 바로 반영하며, write-behind 적립과 메모리 저장소는 이 경로에 적용되지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMembershipService {
+
+    private final ReactiveMembershipRepository membershipRepository;
+    private final PointService ratePointService;
+    private final TransactionalOperator membershipTransactionalOperator;
+
+    public Mono<MembershipAddResponse> addMembership(String userId, MembershipType membershipType, int point) {
+        // (userId, membershipType) 유니크 제약으로 중복 등록을 막는다
+        Mono<MembershipAddResponse> added = membershipRepository.insert(userId, membershipType, point)
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new MembershipException(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER))
+                .flatMap(id -> (point == 0
+                        ? Mono.<Void>empty()
+                        : membershipRepository.insertPointTransaction(id, PointTransactionType.REGISTER, point))
+                        .thenReturn(MembershipAddResponse.builder()
+                                .id(id)
+                                .membershipType(membershipType)
+                                .build()));
+
+        return membershipTransactionalOperator.transactional(added);
+    }
+
+    public Mono<MembershipDetailResponse> getMembership(String userId, MembershipType membershipType) {
+        return membershipRepository.findDetailByUserIdAndMembershipType(userId, membershipType)
+                .switchIfEmpty(Mono.error(() -> new MembershipException(MembershipError.MEMBERSHIP_NOT_FOUND)));
+    }
+
+    public Flux<MembershipDetailResponse> getMembershipList(String userId) {
+        return membershipRepository.findAllDetailByUserId(userId);
+    }
+
+    public Mono<Void> deleteMembership(Long membershipId, String userId) {
+        return membershipRepository.deleteByIdAndUserId(membershipId, userId)
+                .flatMap(deleted -> deleted == 0 ? resolveWriteFailure(membershipId) : Mono.empty());
+    }
+
+    public Mono<Void> accumulatePoint(Long membershipId, String userId, int price) {
+        // 등급별 적립률이 없으면 등급 조회 없이 조건부 UPDATE 한 문장으로 끝난다
+        Mono<Integer> point = ratePointService.isMembershipTypeDependent()
+                ? membershipRepository.findMembershipTypeByIdAndUserId(membershipId, userId)
+                        .switchIfEmpty(Mono.defer(() -> resolveWriteFailure(membershipId)))
+                        .map(membershipType -> ratePointService.calculateAmount(membershipType, price))
+                : Mono.fromSupplier(() -> ratePointService.calculateAmount(price));
+
+        Mono<Void> accumulated = point.flatMap(amount -> membershipRepository.addPoint(membershipId, userId, amount)
+                .flatMap(updated -> updated == 0
+                        ? resolveWriteFailure(membershipId)
+                        : membershipRepository.insertPointTransaction(membershipId, PointTransactionType.ACCUMULATE, amount)));
+
+        return membershipTransactionalOperator.transactional(accumulated);
+    }
+
+    // 조건부 쓰기가 0건일 때만 존재 여부를 확인해 실패 원인을 구분한다
+    private <T> Mono<T> resolveWriteFailure(Long membershipId) {
+        return membershipRepository.existsById(membershipId)
+                .flatMap(exists -> Mono.error(new MembershipException(exists
+                        ? MembershipError.NOT_MEMBERSHIP_OWNER
+                        : MembershipError.MEMBERSHIP_NOT_FOUND)));
+    }
+}
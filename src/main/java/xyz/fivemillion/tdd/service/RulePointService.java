@@ -0,0 +1,53 @@
+package xyz.fivemillion.tdd.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import xyz.fivemillion.tdd.config.PointRuleProperties;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import java.time.Clock;
+
+/**
+ * 맴버십 타입별 적립률, 결제 금액 구간별 배수, 기간 한정 프로모션 배수를 적용한다.
+ * 규칙은 {@link PointRateTable} 로 미리 계산해 두고, 다시 읽을 때는 새 테이블로 참조만 바꾼다.
+ * 운영 중에는 {@link PointRuleEndpoint}(/actuator/pointrule) 로 규칙을 바꿔 다시 읽는다.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "membership.point.rule.enabled", havingValue = "true")
+public class RulePointService implements PointService {
+
+    private final Clock clock;
+    private volatile PointRateTable rateTable;
+
+    @Autowired
+    public RulePointService(PointRuleProperties properties) {
+        this(properties, Clock.systemDefaultZone());
+    }
+
+    RulePointService(PointRuleProperties properties, Clock clock) {
+        this.clock = clock;
+        reload(properties);
+    }
+
+    public void reload(PointRuleProperties properties) {
+        rateTable = PointRateTable.compile(properties, clock.getZone());
+    }
+
+    @Override
+    public int calculateAmount(int price) {
+        return rateTable.calculateAmount(null, price, clock.millis());
+    }
+
+    @Override
+    public int calculateAmount(MembershipType membershipType, int price) {
+        return rateTable.calculateAmount(membershipType, price, clock.millis());
+    }
+
+    @Override
+    public boolean isMembershipTypeDependent() {
+        return rateTable.isMembershipTypeDependent();
+    }
+}
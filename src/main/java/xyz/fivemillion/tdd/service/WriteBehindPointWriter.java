@@ -0,0 +1,259 @@
+package xyz.fivemillion.tdd.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.domain.JobCheckpoint;
+import xyz.fivemillion.tdd.repository.JobCheckpointRepository;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 적립 포인트를 저널에 남긴 뒤 메모리에 모아두었다가, 건수 또는 주기 조건에서 한번에 batch UPDATE 한다.
+ * 저널에 기록된 적립은 재시작 시 다시 반영되므로 응답한 적립은 유실되지 않는다.
+ * 반영한 마지막 세그먼트 번호를 batch UPDATE 와 같은 트랜잭션에서 체크포인트로 남기므로,
+ * 반영 직후 세그먼트를 지우기 전에 중단되어도 재시작 시 같은 적립을 두 번 반영하지 않는다.
+ * 반영 전까지는 조회 결과에 적립분이 보이지 않으며, 반영한 뒤에 적립한 사용자의 캐시를 다시 비운다.
+ * 트랜잭션 안에서 적립하면 커밋된 뒤에 저널에 남긴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "membership.point.write-behind.enabled", havingValue = "true")
+public class WriteBehindPointWriter implements PointWriter {
+
+    static final String CHECKPOINT_NAME = "point-write-behind";
+
+    private final MembershipRepository membershipRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MembershipCacheEvictor membershipCacheEvictor;
+    private final PointJournal journal;
+    private final int batchSize;
+
+    // write 는 read lock 으로 동시에 진행하고, flush 는 write lock 으로 버퍼와 저널 세그먼트를 함께 교체한다
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final AtomicInteger appendCount = new AtomicInteger();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor();
+    private final List<Path> unflushedSegments = new ArrayList<>();
+    private volatile ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private volatile Set<String> pendingUserIds = ConcurrentHashMap.newKeySet();
+
+    public WriteBehindPointWriter(
+            MembershipRepository membershipRepository,
+            JobCheckpointRepository jobCheckpointRepository,
+            TransactionTemplate transactionTemplate,
+            MembershipCacheEvictor membershipCacheEvictor,
+            @Value("${membership.point.write-behind.journal-dir:./data/point-journal}") String journalDir,
+            @Value("${membership.point.write-behind.journal-sync:true}") boolean journalSync,
+            @Value("${membership.point.write-behind.batch-size:1000}") int batchSize) throws IOException {
+        this.membershipRepository = membershipRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.membershipCacheEvictor = membershipCacheEvictor;
+        this.journal = new PointJournal(Paths.get(journalDir), journalSync, lastAppliedSegment());
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void replay() throws IOException {
+        long lastApplied = lastAppliedSegment();
+        long lastReplayed = lastApplied;
+        Map<Long, Long> replayed = new HashMap<>();
+        List<Path> segments = journal.closedSegments();
+        for (Path segment : segments) {
+            // 체크포인트 이하의 세그먼트는 반영은 커밋됐지만 지우기 전에 중단된 것이다
+            long sequence = PointJournal.sequenceOf(segment);
+            if (sequence <= lastApplied)
+                continue;
+
+            PointJournal.replay(segment, (membershipId, point) -> replayed.merge(membershipId, (long) point, Long::sum));
+            lastReplayed = sequence;
+        }
+
+        if (lastReplayed > lastApplied) {
+            log.info("Replaying {} journaled point deltas up to segment {}", replayed.size(), lastReplayed);
+            apply(toPoints(replayed), lastReplayed);
+        }
+
+        for (Path segment : segments)
+            journal.delete(segment);
+    }
+
+    @Override
+    public boolean write(Long membershipId, String userId, int point) {
+        // 버퍼에 쌓인 적립은 나중에 무조건 반영되므로 소유 여부는 쌓기 전에 확인한다
+        if (!membershipRepository.existsByIdAndUserId(membershipId, userId))
+            return false;
+
+        appendAfterCommit(userId, Map.of(membershipId, point));
+        return true;
+    }
+
+    @Override
+    public void writeAll(String userId, Map<Long, Integer> pointByMembershipId) {
+        appendAfterCommit(userId, new HashMap<>(pointByMembershipId));
+    }
+
+    // 원장과 함께 커밋된 적립만 저널에 남긴다. 롤백되면 남기지 않으므로 잔액이 원장과 어긋나지 않는다.
+    // 커밋이 끝날 때까지 read lock 을 잡고 있어, 재계산이 원장 커밋과 저널 기록 사이에 끼어들지 못한다
+    private void appendAfterCommit(String userId, Map<Long, Integer> pointByMembershipId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pointByMembershipId.forEach((membershipId, point) -> append(membershipId, userId, point));
+            return;
+        }
+
+        swapLock.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pointByMembershipId.forEach((membershipId, point) -> append(membershipId, userId, point));
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                swapLock.readLock().unlock();
+            }
+        });
+    }
+
+    private void append(Long membershipId, String userId, int point) {
+        swapLock.readLock().lock();
+        try {
+            journal.append(membershipId, point);
+            pending.computeIfAbsent(membershipId, key -> new LongAdder()).add(point);
+            pendingUserIds.add(userId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+
+        if (appendCount.incrementAndGet() == batchSize)
+            flushExecutor.execute(this::flush);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${membership.point.write-behind.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        ConcurrentHashMap<Long, LongAdder> batch;
+        Set<String> batchUserIds;
+        long lastSegment;
+
+        swapLock.writeLock().lock();
+        try {
+            appendCount.set(0);
+            if (pending.isEmpty())
+                return;
+
+            batch = pending;
+            batchUserIds = pendingUserIds;
+            pending = new ConcurrentHashMap<>();
+            pendingUserIds = ConcurrentHashMap.newKeySet();
+            Path rotated = journal.rotate();
+            unflushedSegments.add(rotated);
+            lastSegment = PointJournal.sequenceOf(rotated);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Map<Long, Long> sumByMembershipId = new HashMap<>(batch.size() * 2);
+        batch.forEach((membershipId, adder) -> sumByMembershipId.put(membershipId, adder.sum()));
+
+        try {
+            apply(toPoints(sumByMembershipId), lastSegment);
+        } catch (RuntimeException e) {
+            // 반영에 실패한 증분은 다음 flush 에 다시 시도하고, 그 전까지 세그먼트는 남겨둔다
+            log.warn("Point write-behind flush failed, {} memberships will be retried", sumByMembershipId.size(), e);
+            sumByMembershipId.forEach((membershipId, sum) ->
+                    pending.computeIfAbsent(membershipId, key -> new LongAdder()).add(sum));
+            pendingUserIds.addAll(batchUserIds);
+            return;
+        }
+
+        // 적립 요청 때 비운 캐시에 반영 전 잔액이 다시 올라가 있을 수 있다
+        batchUserIds.forEach(membershipCacheEvictor::evict);
+
+        try {
+            for (Path segment : unflushedSegments)
+                journal.delete(segment);
+            unflushedSegments.clear();
+        } catch (IOException e) {
+            log.warn("Failed to delete flushed point journal segment", e);
+        }
+    }
+
+    /**
+     * flush 와 같은 순서로 모니터와 write lock 을 잡으므로, action 이 끝날 때까지 적립과 주기 flush 는 기다린다.
+     * 모아둔 적립을 반영하지 못하면 action 을 실행하지 않는다.
+     */
+    @Override
+    public synchronized <T> T runExclusive(Supplier<T> action) {
+        swapLock.writeLock().lock();
+        try {
+            flush();
+            if (!pending.isEmpty())
+                throw new IllegalStateException("Point write-behind flush failed, " + pending.size() + " memberships pending");
+
+            return action.get();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    // 증분과 체크포인트를 함께 커밋한다. 어느 한쪽만 반영되는 일이 없다
+    private void apply(Map<Long, Integer> pointByMembershipId, long lastSegment) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!pointByMembershipId.isEmpty())
+                membershipRepository.addPoints(pointByMembershipId);
+
+            JobCheckpoint checkpoint = jobCheckpointRepository.findById(CHECKPOINT_NAME)
+                    .orElseGet(() -> new JobCheckpoint(CHECKPOINT_NAME));
+            checkpoint.advance(lastSegment, pointByMembershipId.size(), 0);
+            jobCheckpointRepository.save(checkpoint);
+        });
+    }
+
+    private long lastAppliedSegment() {
+        return jobCheckpointRepository.findById(CHECKPOINT_NAME)
+                .map(JobCheckpoint::getLastPosition)
+                .orElse(0L);
+    }
+
+    private static Map<Long, Integer> toPoints(Map<Long, Long> sumByMembershipId) {
+        Map<Long, Integer> pointByMembershipId = new HashMap<>(sumByMembershipId.size() * 2);
+        sumByMembershipId.forEach((membershipId, sum) -> pointByMembershipId.put(membershipId, Math.toIntExact(sum)));
+        return pointByMembershipId;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        flushExecutor.shutdown();
+        flush();
+        journal.close();
+    }
+}
@@ -0,0 +1,143 @@
+package xyz.fivemillion.tdd.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipRequest;
+
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static xyz.fivemillion.tdd.config.ValidationGroups.MembershipAddMarker;
+import static xyz.fivemillion.tdd.config.ValidationGroups.PointAccumulateMarker;
+
+public class MembershipRequestValidatorTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static SpringValidatorAdapter standardValidator;
+    private static MembershipRequestValidator fastValidator;
+
+    @BeforeAll
+    public static void init() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        standardValidator = new SpringValidatorAdapter(validatorFactory.getValidator());
+        fastValidator = new MembershipRequestValidator(standardValidator);
+    }
+
+    @AfterAll
+    public static void close() {
+        validatorFactory.close();
+    }
+
+    @Test
+    public void 모든입력조합에서_표준검증기와같은결과() {
+        //given
+        final List<Integer> points = Arrays.asList(null, Integer.MIN_VALUE, -1, 0, 10000, Integer.MAX_VALUE);
+        final List<MembershipType> membershipTypes = Arrays.asList(null, MembershipType.NAVER, MembershipType.KAKAO);
+        final List<Class<?>> groups = Arrays.asList(MembershipAddMarker.class, PointAccumulateMarker.class);
+
+        for (Integer point : points) {
+            for (MembershipType membershipType : membershipTypes) {
+                for (Class<?> group : groups) {
+                    final MembershipRequest request = MembershipRequest.builder()
+                            .point(point)
+                            .membershipType(membershipType)
+                            .build();
+
+                    //when
+                    final Errors expected = validate(standardValidator, request, group);
+                    final Errors actual = validate(fastValidator, request, group);
+
+                    //then
+                    final String input = point + ", " + membershipType + ", " + group.getSimpleName();
+                    assertEquals(describe(expected), describe(actual), input);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void 맴버십등록_유효한요청은오류없음() {
+        //given
+        final MembershipRequest request = MembershipRequest.builder()
+                .point(10000)
+                .membershipType(MembershipType.NAVER)
+                .build();
+
+        //when
+        final Errors result = validate(fastValidator, request, MembershipAddMarker.class);
+
+        //then
+        assertFalse(result.hasErrors());
+    }
+
+    @Test
+    public void 맴버십등록_포인트음수와타입누락을모두보고() {
+        //given
+        final MembershipRequest request = MembershipRequest.builder()
+                .point(-1)
+                .build();
+
+        //when
+        final Errors result = validate(fastValidator, request, MembershipAddMarker.class);
+
+        //then
+        assertEquals(2, result.getErrorCount());
+        assertEquals("Min", result.getFieldError("point").getCode());
+        assertEquals("NotNull", result.getFieldError("membershipType").getCode());
+    }
+
+    @Test
+    public void 포인트적립_맴버십타입은검사하지않음() {
+        //given
+        final MembershipRequest request = MembershipRequest.builder()
+                .point(10000)
+                .build();
+
+        //when
+        final Errors result = validate(fastValidator, request, PointAccumulateMarker.class);
+
+        //then
+        assertFalse(result.hasErrors());
+    }
+
+    @Test
+    public void 그룹지정없음_표준검증기로처리() {
+        //given
+        final MembershipRequest request = MembershipRequest.builder().build();
+        final Errors result = new BeanPropertyBindingResult(request, "membershipRequest");
+
+        //when
+        fastValidator.validate(request, result);
+
+        //then
+        assertFalse(result.hasErrors());
+        assertTrue(fastValidator.supports(MembershipRequest.class));
+    }
+
+    private static Errors validate(SmartValidator validator, MembershipRequest request, Class<?> group) {
+        final Errors errors = new BeanPropertyBindingResult(request, "membershipRequest");
+        validator.validate(request, errors, group);
+        return errors;
+    }
+
+    private static List<String> describe(Errors errors) {
+        final List<String> result = new ArrayList<>();
+        for (FieldError error : errors.getFieldErrors())
+            result.add(error.getField() + "|" + error.getCode() + "|" + error.getDefaultMessage() + "|" + error.getRejectedValue());
+        result.sort(null);
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package xyz.fivemillion.tdd.controller;
+
+import org.junit.jupiter.api.Test;
+import xyz.fivemillion.tdd.error.MembershipError;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ErrorLogSamplerTest {
+
+    @Test
+    public void 간격안의오류는생략하고건수를센다() {
+        //given
+        ErrorLogSampler sampler = new ErrorLogSampler(Duration.ofHours(1));
+
+        //when
+        long first = sampler.tryAcquire(MembershipError.MEMBERSHIP_NOT_FOUND);
+        long second = sampler.tryAcquire(MembershipError.MEMBERSHIP_NOT_FOUND);
+        long third = sampler.tryAcquire(MembershipError.MEMBERSHIP_NOT_FOUND);
+
+        //then
+        assertEquals(0, first);
+        assertEquals(-1, second);
+        assertEquals(-1, third);
+    }
+
+    @Test
+    public void 오류코드별로따로샘플링() {
+        //given
+        ErrorLogSampler sampler = new ErrorLogSampler(Duration.ofHours(1));
+        sampler.tryAcquire(MembershipError.MEMBERSHIP_NOT_FOUND);
+
+        //when
+        long result = sampler.tryAcquire(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER);
+
+        //then
+        assertEquals(0, result);
+    }
+
+    @Test
+    public void 간격이지나면생략한건수와함께기록() throws Exception {
+        //given
+        ErrorLogSampler sampler = new ErrorLogSampler(Duration.ofMillis(50));
+        sampler.tryAcquire(MembershipError.MEMBERSHIP_NOT_FOUND);
+        sampler.tryAcquire(MembershipError.MEMBERSHIP_NOT_FOUND);
+        sampler.tryAcquire(MembershipError.MEMBERSHIP_NOT_FOUND);
+
+        //when
+        Thread.sleep(100);
+        long result = sampler.tryAcquire(MembershipError.MEMBERSHIP_NOT_FOUND);
+
+        //then
+        assertEquals(2, result);
+    }
+}
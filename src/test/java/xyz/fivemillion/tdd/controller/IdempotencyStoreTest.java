@@ -0,0 +1,195 @@
+package xyz.fivemillion.tdd.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotencyStoreTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    private IdempotencyStore idempotencyStore;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    public void init() {
+        idempotencyStore = new IdempotencyStore(1000, Duration.ofMinutes(1), Duration.ofSeconds(10));
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    public void 멱등키없음_매번처리() {
+        //when
+        idempotencyStore.execute("12345", "add", null, 1, this::created);
+        idempotencyStore.execute("12345", "add", null, 1, this::created);
+
+        //then
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void 같은멱등키_저장된응답반환() {
+        //given
+        final ResponseEntity<Integer> first = idempotencyStore.execute("12345", "add", "key", 1, this::created);
+
+        //when
+        final ResponseEntity<Integer> replayed = idempotencyStore.execute("12345", "add", "key", 1, this::created);
+
+        //then
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+        assertEquals(first.getBody(), replayed.getBody());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    public void 같은멱등키_사용자와작업이다르면따로처리() {
+        //when
+        idempotencyStore.execute("12345", "add", "key", 1, this::created);
+        idempotencyStore.execute("54321", "add", "key", 1, this::created);
+        idempotencyStore.execute("12345", "accumulate", "key", 1, this::created);
+
+        //then
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void 같은멱등키_다른요청이면실패() {
+        //given
+        idempotencyStore.execute("12345", "add", "key", 1, this::created);
+
+        //when
+        final MembershipException result = assertThrows(MembershipException.class,
+                () -> idempotencyStore.execute("12345", "add", "key", 2, this::created));
+
+        //then
+        assertEquals(MembershipError.IDEMPOTENCY_KEY_REUSED, result.getErrorCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void 같은멱등키_해시코드가같은다른요청이면실패() {
+        //given
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        idempotencyStore.execute("12345", "add", "key", "Aa", this::created);
+
+        //when
+        final MembershipException result = assertThrows(MembershipException.class,
+                () -> idempotencyStore.execute("12345", "add", "key", "BB", this::created));
+
+        //then
+        assertEquals(MembershipError.IDEMPOTENCY_KEY_REUSED, result.getErrorCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void 처리중인요청을기다리다시간이지나면실패() throws Exception {
+        //given
+        idempotencyStore = new IdempotencyStore(1000, Duration.ofMinutes(1), Duration.ofMillis(50));
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<ResponseEntity<Integer>> first = executorService.submit(() ->
+                idempotencyStore.execute("12345", "add", "key", 1, () -> {
+                    started.countDown();
+                    await(release);
+                    return created();
+                }));
+        started.await();
+
+        //when
+        final MembershipException result = assertThrows(MembershipException.class,
+                () -> idempotencyStore.execute("12345", "add", "key", 1, this::created));
+
+        //then
+        assertEquals(MembershipError.IDEMPOTENCY_REQUEST_IN_PROGRESS, result.getErrorCode());
+        release.countDown();
+        assertEquals(HttpStatus.CREATED, first.get(1, TimeUnit.MINUTES).getStatusCode());
+        assertEquals(1, calls.get());
+        executorService.shutdown();
+    }
+
+    @Test
+    public void 실패한요청_저장하지않아재시도가능() {
+        //given
+        assertThrows(MembershipException.class, () -> idempotencyStore.execute("12345", "add", "key", 1, () -> {
+            throw new MembershipException(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER);
+        }));
+
+        //when
+        final ResponseEntity<Integer> result = idempotencyStore.execute("12345", "add", "key", 1, this::created);
+
+        //then
+        assertEquals(HttpStatus.CREATED, result.getStatusCode());
+        assertNull(result.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void 동시에같은멱등키_한번만처리() throws Exception {
+        //given
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Future<ResponseEntity<Integer>>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                return idempotencyStore.execute("12345", "add", "key", 1, () -> {
+                    sleep(50);
+                    return created();
+                });
+            }));
+        }
+
+        //when
+        startLatch.countDown();
+        final List<ResponseEntity<Integer>> results = new ArrayList<>();
+        for (Future<ResponseEntity<Integer>> future : futures)
+            results.add(future.get(1, TimeUnit.MINUTES));
+        executorService.shutdown();
+
+        //then
+        assertEquals(1, calls.get());
+        for (ResponseEntity<Integer> result : results)
+            assertEquals(1, result.getBody());
+    }
+
+    private ResponseEntity<Integer> created() {
+        return ResponseEntity.status(HttpStatus.CREATED).body(calls.incrementAndGet());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package xyz.fivemillion.tdd.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipRequest;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.service.MembershipService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static xyz.fivemillion.tdd.controller.MembershipConstants.USER_ID_HEADER;
+
+@ExtendWith(MockitoExtension.class)
+public class MembershipAsyncControllerTest {
+
+    @Mock
+    private MembershipService membershipService;
+
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(1000, Duration.ofMinutes(1), Duration.ofSeconds(10));
+
+    private MockMvc mvc;
+    private Gson gson;
+
+    @BeforeEach
+    public void init() {
+        gson = new Gson();
+        mvc = MockMvcBuilders
+                .standaloneSetup(new MembershipAsyncController(new MembershipRequestHandler(membershipService, objectMapper, idempotencyStore)))
+                .build();
+    }
+
+    @Test
+    public void 맴버십등록성공() throws Exception {
+        //given
+        given(membershipService.addMembership("12345", MembershipType.NAVER, 10000))
+                .willReturn(new MembershipAddResponse(-1L, MembershipType.NAVER));
+
+        //when
+        MvcResult mvcResult = mvc.perform(
+                MockMvcRequestBuilders
+                        .post("/api/v1/membership")
+                        .header(USER_ID_HEADER, "12345")
+                        .content(gson.toJson(new MembershipRequest(10000, MembershipType.NAVER)))
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(request().asyncStarted()).andReturn();
+        ResultActions result = mvc.perform(asyncDispatch(mvcResult));
+
+        //then
+        result.andExpect(status().isCreated());
+
+        final MembershipAddResponse resultResponse = gson.fromJson(
+                mvcResult.getResponse().getContentAsString(StandardCharsets.UTF_8),
+                MembershipAddResponse.class);
+        assertEquals(-1L, resultResponse.getId());
+    }
+
+    @Test
+    public void 맴버십등록실패_검증은요청스레드에서() throws Exception {
+        //given
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders
+                        .post("/api/v1/membership")
+                        .header(USER_ID_HEADER, "12345")
+                        .content(gson.toJson(new MembershipRequest(-1, MembershipType.NAVER)))
+                        .contentType(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isBadRequest());
+        verify(membershipService, never()).addMembership(any(), any(), anyInt());
+    }
+
+    @Test
+    public void 맴버십상세조회실패_존재하지않음() throws Exception {
+        //given
+        given(membershipService.getMembership("12345", MembershipType.NAVER))
+                .willThrow(new MembershipException(MembershipError.MEMBERSHIP_NOT_FOUND));
+
+        //when
+        MvcResult mvcResult = mvc.perform(
+                MockMvcRequestBuilders
+                        .get("/api/v1/membership/detail")
+                        .header(USER_ID_HEADER, "12345")
+                        .param("membershipType", MembershipType.NAVER.name())
+        ).andExpect(request().asyncStarted()).andReturn();
+        ResultActions result = mvc.perform(asyncDispatch(mvcResult));
+
+        //then
+        result.andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void 맴버십삭제성공() throws Exception {
+        //given
+
+        //when
+        MvcResult mvcResult = mvc.perform(
+                MockMvcRequestBuilders
+                        .delete("/api/v1/membership/-1")
+                        .header(USER_ID_HEADER, "12345")
+        ).andExpect(request().asyncStarted()).andReturn();
+        ResultActions result = mvc.perform(asyncDispatch(mvcResult));
+
+        //then
+        result.andExpect(status().isNoContent());
+        verify(membershipService).deleteMembership(-1L, "12345");
+    }
+}
@@ -1,31 +1,59 @@
 package xyz.fivemillion.tdd.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.ErrorResponse;
 import xyz.fivemillion.tdd.dto.MembershipAddResponse;
 import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.MembershipPageResponse;
 import xyz.fivemillion.tdd.dto.MembershipRequest;
+import xyz.fivemillion.tdd.dto.PointAccumulateBulkRequest;
+import xyz.fivemillion.tdd.dto.PointAccumulateResult;
+import xyz.fivemillion.tdd.dto.PointTransactionPageResponse;
 import xyz.fivemillion.tdd.error.MembershipError;
 import xyz.fivemillion.tdd.exception.MembershipException;
 import xyz.fivemillion.tdd.service.MembershipService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static xyz.fivemillion.tdd.controller.MembershipConstants.USER_ID_HEADER;
 
@@ -35,8 +63,11 @@ public class MembershipControllerTest {
     @Mock
     private MembershipService membershipService;
 
-    @InjectMocks
-    private MembershipController membershipController;
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(1000, Duration.ofMinutes(1), Duration.ofSeconds(10));
 
     private MockMvc mvc;
     private Gson gson;
@@ -44,7 +75,9 @@ public class MembershipControllerTest {
     @BeforeEach
     public void init() {
         gson = new Gson();
-        mvc = MockMvcBuilders.standaloneSetup(membershipController).build();
+        mvc = MockMvcBuilders
+                .standaloneSetup(new MembershipController(new MembershipRequestHandler(membershipService, objectMapper, idempotencyStore)))
+                .build();
     }
 
     @Test
@@ -87,6 +120,13 @@ public class MembershipControllerTest {
 
         //then
         result.andExpect(status().isBadRequest());
+
+        final ErrorResponse resultResponse = gson.fromJson(
+                result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8),
+                ErrorResponse.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST.toString(), resultResponse.getCode());
+        assertTrue(resultResponse.getMessage().startsWith("["));
     }
 
     @Test
@@ -143,7 +183,65 @@ public class MembershipControllerTest {
         );
 
         //then
-        result.andExpect(status().isBadRequest());
+        result.andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        final ErrorResponse resultResponse = gson.fromJson(
+                result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8),
+                ErrorResponse.class);
+
+        assertEquals(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER.name(), resultResponse.getCode());
+        assertEquals(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER.getDescription(), resultResponse.getMessage());
+    }
+
+    @Test
+    public void 맴버십에러코드별_건수기록() throws Exception {
+        //given
+        String url = "/api/v1/membership";
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+        given(
+                membershipService.addMembership("12345", MembershipType.NAVER, 10000)
+        ).willThrow(new MembershipException(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER));
+
+        //when
+        try {
+            mvc.perform(
+                    MockMvcRequestBuilders
+                            .post(url)
+                            .header(USER_ID_HEADER, "12345")
+                            .content(gson.toJson(buildMembershipRequest(10000, MembershipType.NAVER))
+                            ).contentType(MediaType.APPLICATION_JSON)
+            );
+        } finally {
+            Metrics.removeRegistry(meterRegistry);
+        }
+
+        //then
+        assertEquals(1, meterRegistry.get("membership.errors")
+                .tag("code", MembershipError.DUPLICATED_MEMBERSHIP_REGISTER.name())
+                .counter().count());
+    }
+
+    @Test
+    public void 맴버십등록실패_처리중인요청이많음() throws Exception {
+        //given
+        String url = "/api/v1/membership";
+        given(
+                membershipService.addMembership("12345", MembershipType.NAVER, 10000)
+        ).willThrow(new TaskRejectedException("queue is full"));
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders
+                        .post(url)
+                        .header(USER_ID_HEADER, "12345")
+                        .content(gson.toJson(buildMembershipRequest(10000, MembershipType.NAVER))
+                        ).contentType(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isServiceUnavailable());
     }
 
     @Test
@@ -179,6 +277,62 @@ public class MembershipControllerTest {
         assertEquals(response.getMembershipType(), resultResponse.getMembershipType());
     }
 
+    @Test
+    public void 맴버십등록성공_같은멱등키로재요청하면저장된응답반환() throws Exception {
+        //given
+        String url = "/api/v1/membership";
+        MembershipAddResponse response = MembershipAddResponse.builder()
+                .id(-1L)
+                .membershipType(MembershipType.NAVER)
+                .build();
+
+        given(
+                membershipService.addMembership("12345", MembershipType.NAVER, 10000)
+        ).willReturn(response);
+
+        //when
+        mvc.perform(buildIdempotentAddRequest(url, "retry-key", 10000));
+        ResultActions result = mvc.perform(buildIdempotentAddRequest(url, "retry-key", 10000));
+
+        //then
+        result.andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"));
+
+        final MembershipAddResponse resultResponse = gson.fromJson(
+                result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8),
+                MembershipAddResponse.class);
+
+        assertEquals(response.getId(), resultResponse.getId());
+        verify(membershipService, times(1)).addMembership("12345", MembershipType.NAVER, 10000);
+    }
+
+    @Test
+    public void 맴버십등록실패_멱등키를다른요청에재사용() throws Exception {
+        //given
+        String url = "/api/v1/membership";
+
+        given(
+                membershipService.addMembership("12345", MembershipType.NAVER, 10000)
+        ).willReturn(MembershipAddResponse.builder().id(-1L).membershipType(MembershipType.NAVER).build());
+
+        //when
+        mvc.perform(buildIdempotentAddRequest(url, "retry-key", 10000));
+        ResultActions result = mvc.perform(buildIdempotentAddRequest(url, "retry-key", 20000));
+
+        //then
+        result.andExpect(status().isUnprocessableEntity());
+        verify(membershipService, times(1)).addMembership(any(), any(), anyInt());
+    }
+
+    private MockHttpServletRequestBuilder buildIdempotentAddRequest(String url, String idempotencyKey, int point) {
+        return MockMvcRequestBuilders
+                .post(url)
+                .header(USER_ID_HEADER, "12345")
+                .header(IdempotencyStore.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .content(gson.toJson(buildMembershipRequest(point, MembershipType.NAVER)))
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
     @Test
     public void 맴버십조회실패_사용자식별값헤더에없음() throws Exception {
         //given
@@ -215,6 +369,67 @@ public class MembershipControllerTest {
         result.andExpect(status().isOk());
     }
 
+    @Test
+    public void 맴버십페이지조회성공() throws Exception {
+        //given
+        String url = "/api/v1/membership/list/page";
+        given(membershipService.getMembershipPage("12345", 10L, 2)).willReturn(
+                MembershipPageResponse.builder()
+                        .memberships(Arrays.asList(
+                                MembershipDetailResponse.builder().id(11L).build(),
+                                MembershipDetailResponse.builder().id(12L).build()
+                        ))
+                        .nextCursor(12L)
+                        .build()
+        );
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders
+                        .get(url)
+                        .header(USER_ID_HEADER, "12345")
+                        .param("cursor", "10")
+                        .param("size", "2")
+        );
+
+        //then
+        result.andExpect(status().isOk());
+
+        final MembershipPageResponse resultResponse = gson.fromJson(
+                result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8),
+                MembershipPageResponse.class);
+
+        assertEquals(2, resultResponse.getMemberships().size());
+        assertEquals(12L, resultResponse.getNextCursor());
+    }
+
+    @Test
+    public void 맴버십스트림조회성공() throws Exception {
+        //given
+        String url = "/api/v1/membership/list/stream";
+        willAnswer(invocation -> {
+            Consumer<MembershipDetailResponse> consumer = invocation.getArgument(1);
+            consumer.accept(MembershipDetailResponse.builder().id(1L).membershipType(MembershipType.NAVER).build());
+            consumer.accept(MembershipDetailResponse.builder().id(2L).membershipType(MembershipType.KAKAO).build());
+            return null;
+        }).given(membershipService).streamMembershipList(eq("12345"), any());
+
+        //when
+        MvcResult mvcResult = mvc.perform(
+                MockMvcRequestBuilders
+                        .get(url)
+                        .header(USER_ID_HEADER, "12345")
+        ).andExpect(request().asyncStarted()).andReturn();
+        ResultActions result = mvc.perform(asyncDispatch(mvcResult));
+
+        //then
+        result.andExpect(status().isOk());
+
+        final String[] lines = mvcResult.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, gson.fromJson(lines[1], MembershipDetailResponse.class).getId());
+    }
+
     @Test
     public void 맴버십상세조회실패_사용자식별자없음() throws Exception {
         //given
@@ -284,6 +499,50 @@ public class MembershipControllerTest {
         result.andExpect(status().isOk());
     }
 
+    @Test
+    public void 포인트내역조회성공() throws Exception {
+        //given
+        String url = "/api/v1/membership/-1/transactions";
+        given(membershipService.getPointTransactions(-1L, "12345", 1, 20)).willReturn(
+                new PointTransactionPageResponse(Collections.emptyList(), false));
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders
+                        .get(url)
+                        .header(USER_ID_HEADER, "12345")
+                        .param("page", "1")
+                        .param("size", "20")
+        );
+
+        //then
+        result.andExpect(status().isOk());
+
+        final PointTransactionPageResponse resultResponse = gson.fromJson(
+                result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8),
+                PointTransactionPageResponse.class);
+
+        assertEquals(0, resultResponse.getTransactions().size());
+    }
+
+    @Test
+    public void 포인트내역조회실패_본인이아님() throws Exception {
+        //given
+        String url = "/api/v1/membership/-1/transactions";
+        given(membershipService.getPointTransactions(-1L, "12345", 0, 100))
+                .willThrow(new MembershipException(MembershipError.NOT_MEMBERSHIP_OWNER));
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders
+                        .get(url)
+                        .header(USER_ID_HEADER, "12345")
+        );
+
+        //then
+        result.andExpect(status().isBadRequest());
+    }
+
     @Test
     public void 맴버십삭제실패_사용자식별자가헤더에없음() throws Exception {
         //given
@@ -371,4 +630,80 @@ public class MembershipControllerTest {
     private MembershipRequest buildMembershipRequest(int point) {
         return MembershipRequest.builder().point(point).build();
     }
+
+    @Test
+    public void 포인트일괄적립실패_항목이없음() throws Exception {
+        //given
+        String url = "/api/v1/membership/accumulate/bulk";
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders
+                        .post(url)
+                        .header(USER_ID_HEADER, "12345")
+                        .content(gson.toJson(PointAccumulateBulkRequest.builder().items(Collections.emptyList()).build()))
+                        .contentType(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void 포인트일괄적립실패_가격이음수() throws Exception {
+        //given
+        String url = "/api/v1/membership/accumulate/bulk";
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders
+                        .post(url)
+                        .header(USER_ID_HEADER, "12345")
+                        .content(gson.toJson(buildBulkRequest(-1)))
+                        .contentType(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void 포인트일괄적립성공() throws Exception {
+        //given
+        String url = "/api/v1/membership/accumulate/bulk";
+        given(membershipService.accumulatePoints(eq("12345"), anyList())).willReturn(
+                Arrays.asList(
+                        PointAccumulateResult.success(-1L),
+                        PointAccumulateResult.failure(-2L, MembershipError.MEMBERSHIP_NOT_FOUND)
+                )
+        );
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders
+                        .post(url)
+                        .header(USER_ID_HEADER, "12345")
+                        .content(gson.toJson(buildBulkRequest(10000)))
+                        .contentType(MediaType.APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpect(status().isOk());
+
+        final PointAccumulateResult[] resultResponse = gson.fromJson(
+                result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8),
+                PointAccumulateResult[].class);
+
+        assertEquals(2, resultResponse.length);
+        assertEquals(MembershipError.MEMBERSHIP_NOT_FOUND.name(), resultResponse[1].getCode());
+    }
+
+    private PointAccumulateBulkRequest buildBulkRequest(Integer price) {
+        return PointAccumulateBulkRequest.builder()
+                .items(Arrays.asList(
+                        PointAccumulateBulkRequest.Item.builder().membershipId(-1L).price(price).build(),
+                        PointAccumulateBulkRequest.Item.builder().membershipId(-2L).price(price).build()
+                ))
+                .build();
+    }
 }
@@ -0,0 +1,129 @@
+package xyz.fivemillion.tdd.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipFileFormat;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.service.MembershipExport;
+import xyz.fivemillion.tdd.service.MembershipExportService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class MembershipExportControllerTest {
+
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(30);
+
+    @Mock
+    private MembershipExportService membershipExportService;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    public void init() {
+        mvc = MockMvcBuilders
+                .standaloneSetup(new MembershipExportController(membershipExportService, EXPORT_TIMEOUT, Optional.empty()))
+                .build();
+    }
+
+    @Test
+    public void 맴버십내보내기성공() throws Exception {
+        //given
+        given(membershipExportService.prepareExport(MembershipType.NAVER, MembershipFileFormat.CSV))
+                .willReturn(outputStream -> outputStream.write("id,userId,membershipType,point\n".getBytes(StandardCharsets.UTF_8)));
+
+        //when
+        MvcResult mvcResult = mvc.perform(
+                MockMvcRequestBuilders
+                        .get("/api/v1/membership/export")
+                        .param("membershipType", "NAVER")
+        ).andExpect(request().asyncStarted()).andReturn();
+        ResultActions result = mvc.perform(asyncDispatch(mvcResult));
+
+        //then
+        result.andExpect(status().isOk());
+        assertEquals("id,userId,membershipType,point\n", mvcResult.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(EXPORT_TIMEOUT.toMillis(), mvcResult.getRequest().getAsyncContext().getTimeout());
+    }
+
+    @Test
+    public void 내보내기전용실행기가있으면_본문을그실행기에서씀() throws Exception {
+        //given
+        ThreadPoolTaskExecutor exportExecutor = new ThreadPoolTaskExecutor();
+        exportExecutor.setThreadNamePrefix("test-export-");
+        exportExecutor.initialize();
+        MockMvc exportMvc = MockMvcBuilders
+                .standaloneSetup(new MembershipExportController(membershipExportService, EXPORT_TIMEOUT, Optional.of(exportExecutor)))
+                .build();
+        AtomicReference<String> threadName = new AtomicReference<>();
+        given(membershipExportService.prepareExport(null, MembershipFileFormat.CSV))
+                .willReturn(outputStream -> threadName.set(Thread.currentThread().getName()));
+
+        try {
+            //when
+            MvcResult mvcResult = exportMvc.perform(MockMvcRequestBuilders.get("/api/v1/membership/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            exportMvc.perform(asyncDispatch(mvcResult));
+
+            //then
+            assertTrue(threadName.get().startsWith("test-export-"));
+        } finally {
+            exportExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void 본문이허가를반납하지않아도_요청이끝나면반납() throws Exception {
+        //given
+        MembershipExport export = mock(MembershipExport.class);
+        given(membershipExportService.prepareExport(null, MembershipFileFormat.CSV)).willReturn(export);
+        MvcResult mvcResult = mvc.perform(MockMvcRequestBuilders.get("/api/v1/membership/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //when
+        ((MockAsyncContext) mvcResult.getRequest().getAsyncContext()).complete();
+
+        //then
+        verify(export, times(1)).close();
+    }
+
+    @Test
+    public void 맴버십내보내기실패_동시실행수초과() throws Exception {
+        //given
+        given(membershipExportService.prepareExport(null, MembershipFileFormat.CSV))
+                .willThrow(new MembershipException(MembershipError.EXPORT_BUSY));
+
+        //when
+        ResultActions result = mvc.perform(MockMvcRequestBuilders.get("/api/v1/membership/export"));
+
+        //then
+        result.andExpect(status().isTooManyRequests());
+    }
+}
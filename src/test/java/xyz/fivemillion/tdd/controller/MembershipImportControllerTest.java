@@ -0,0 +1,136 @@
+package xyz.fivemillion.tdd.controller;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import xyz.fivemillion.tdd.dto.MembershipFileFormat;
+import xyz.fivemillion.tdd.dto.MembershipImportResponse;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.service.MembershipImportService;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class MembershipImportControllerTest {
+
+    @Mock
+    private MembershipImportService membershipImportService;
+
+    @InjectMocks
+    private MembershipImportController membershipImportController;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    public void init() {
+        mvc = MockMvcBuilders.standaloneSetup(membershipImportController).build();
+    }
+
+    @Test
+    public void 맴버십가져오기성공() throws Exception {
+        //given
+        MockMultipartFile file = new MockMultipartFile("file", "memberships.ndjson", "application/x-ndjson",
+                "{\"userId\":\"12345\",\"membershipType\":\"NAVER\",\"point\":100}".getBytes(StandardCharsets.UTF_8));
+        given(membershipImportService.importMemberships(eq("import-1"), eq(MembershipFileFormat.NDJSON), any(InputStream.class)))
+                .willReturn(new MembershipImportResponse("import-1", 1, 1, 0, Collections.emptyList()));
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders.multipart("/api/v1/membership/import")
+                        .file(file)
+                        .param("format", "NDJSON")
+                        .param("importId", "import-1")
+        );
+
+        //then
+        result.andExpect(status().isOk());
+
+        final MembershipImportResponse resultResponse = new Gson().fromJson(
+                result.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8),
+                MembershipImportResponse.class);
+        assertEquals("import-1", resultResponse.getImportId());
+        assertEquals(1, resultResponse.getImportedCount());
+    }
+
+    @Test
+    public void 맴버십가져오기실패_importId없음() throws Exception {
+        //given
+        MockMultipartFile file = new MockMultipartFile("file", "memberships.csv", "text/csv",
+                "userId,membershipType,point".getBytes(StandardCharsets.UTF_8));
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders.multipart("/api/v1/membership/import")
+                        .file(file)
+        );
+
+        //then
+        result.andExpect(status().isBadRequest());
+        verify(membershipImportService, never()).importMemberships(anyString(), any(), any(InputStream.class));
+    }
+
+    @Test
+    public void 맴버십가져오기실패후_같은importId로이어서등록() throws Exception {
+        //given
+        MockMultipartFile file = new MockMultipartFile("file", "memberships.csv", "text/csv",
+                "userId,membershipType,point\nuser1,NAVER,100".getBytes(StandardCharsets.UTF_8));
+        given(membershipImportService.importMemberships(eq("import-1"), eq(MembershipFileFormat.CSV), any(InputStream.class)))
+                .willThrow(new IllegalStateException("db down"))
+                .willReturn(new MembershipImportResponse("import-1", 2, 1, 0, Collections.emptyList()));
+
+        //when
+        ResultActions failed = mvc.perform(
+                MockMvcRequestBuilders.multipart("/api/v1/membership/import")
+                        .file(file)
+                        .param("importId", "import-1")
+        );
+        ResultActions resumed = mvc.perform(
+                MockMvcRequestBuilders.multipart("/api/v1/membership/import")
+                        .file(file)
+                        .param("importId", "import-1")
+        );
+
+        //then
+        failed.andExpect(status().isInternalServerError());
+        resumed.andExpect(status().isOk());
+        verify(membershipImportService, times(2))
+                .importMemberships(eq("import-1"), eq(MembershipFileFormat.CSV), any(InputStream.class));
+    }
+
+    @Test
+    public void 맴버십가져오기진행조회실패_존재하지않음() throws Exception {
+        //given
+        given(membershipImportService.getImportProgress("import-1"))
+                .willThrow(new MembershipException(MembershipError.IMPORT_NOT_FOUND));
+
+        //when
+        ResultActions result = mvc.perform(
+                MockMvcRequestBuilders.get("/api/v1/membership/import/import-1")
+        );
+
+        //then
+        result.andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,272 @@
+package xyz.fivemillion.tdd.controller;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.ErrorResponse;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.MembershipRequest;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.service.ReactiveMembershipService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static xyz.fivemillion.tdd.controller.MembershipConstants.USER_ID_HEADER;
+
+@ExtendWith(MockitoExtension.class)
+public class MembershipReactiveControllerTest {
+
+    @Mock
+    private ReactiveMembershipService membershipService;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    public void init() {
+        client = WebTestClient.bindToController(new MembershipReactiveController(membershipService)).build();
+    }
+
+    @Test
+    public void 맴버십등록실패_userId_is_empty() {
+        //when
+        WebTestClient.ResponseSpec result = client.post().uri("/api/v1/membership")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildMembershipRequest(10000, MembershipType.NAVER))
+                .exchange();
+
+        //then
+        result.expectStatus().isBadRequest()
+                .expectBody().isEmpty();
+        verifyNoInteractions(membershipService);
+    }
+
+    @Test
+    public void 맴버십등록실패_point_is_negative() {
+        //when
+        WebTestClient.ResponseSpec result = client.post().uri("/api/v1/membership")
+                .header(USER_ID_HEADER, "12345")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildMembershipRequest(-1, MembershipType.NAVER))
+                .exchange();
+
+        //then
+        result.expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+        ErrorResponse response = errorResponse(result);
+        assertEquals(HttpStatus.BAD_REQUEST.toString(), response.getCode());
+        assertTrue(response.getMessage().startsWith("["));
+    }
+
+    @Test
+    public void 맴버십등록실패_membershipType_is_null() {
+        //when
+        WebTestClient.ResponseSpec result = client.post().uri("/api/v1/membership")
+                .header(USER_ID_HEADER, "12345")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildMembershipRequest(10000, null))
+                .exchange();
+
+        //then
+        result.expectStatus().isBadRequest();
+        verifyNoInteractions(membershipService);
+    }
+
+    @Test
+    public void 맴버십등록실패_이미_존재하는_맴버십() {
+        //given
+        given(membershipService.addMembership("12345", MembershipType.NAVER, 10000))
+                .willReturn(Mono.error(new MembershipException(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER)));
+
+        //when
+        WebTestClient.ResponseSpec result = client.post().uri("/api/v1/membership")
+                .header(USER_ID_HEADER, "12345")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildMembershipRequest(10000, MembershipType.NAVER))
+                .exchange();
+
+        //then
+        result.expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+        ErrorResponse response = errorResponse(result);
+        assertEquals(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER.name(), response.getCode());
+        assertEquals(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER.getDescription(), response.getMessage());
+    }
+
+    @Test
+    public void 맴버십등록성공() {
+        //given
+        given(membershipService.addMembership("12345", MembershipType.NAVER, 10000))
+                .willReturn(Mono.just(MembershipAddResponse.builder()
+                        .id(-1L)
+                        .membershipType(MembershipType.NAVER)
+                        .build()));
+
+        //when
+        WebTestClient.ResponseSpec result = client.post().uri("/api/v1/membership")
+                .header(USER_ID_HEADER, "12345")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildMembershipRequest(10000, MembershipType.NAVER))
+                .exchange();
+
+        //then
+        result.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(-1)
+                .jsonPath("$.membershipType").isEqualTo(MembershipType.NAVER.name());
+    }
+
+    @Test
+    public void 맴버십조회성공() {
+        //given
+        given(membershipService.getMembershipList("12345")).willReturn(Flux.just(
+                MembershipDetailResponse.builder().id(1L).membershipType(MembershipType.NAVER).point(100).build(),
+                MembershipDetailResponse.builder().id(2L).membershipType(MembershipType.KAKAO).point(200).build()));
+
+        //when
+        WebTestClient.ResponseSpec result = client.get().uri("/api/v1/membership/list")
+                .header(USER_ID_HEADER, "12345")
+                .exchange();
+
+        //then
+        List<MembershipDetailResponse> memberships = result.expectStatus().isOk()
+                .expectBodyList(MembershipDetailResponse.class).returnResult().getResponseBody();
+        assertEquals(2, memberships.size());
+        assertEquals(MembershipType.KAKAO, memberships.get(1).getMembershipType());
+    }
+
+    @Test
+    public void 맴버십상세조회실패_맴버십타입이파라미터에없음() {
+        //when
+        WebTestClient.ResponseSpec result = client.get().uri("/api/v1/membership/detail")
+                .header(USER_ID_HEADER, "12345")
+                .exchange();
+
+        //then
+        result.expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void 맴버십상세조회실패_결과없음() {
+        //given
+        given(membershipService.getMembership("12345", MembershipType.NAVER))
+                .willReturn(Mono.error(new MembershipException(MembershipError.MEMBERSHIP_NOT_FOUND)));
+
+        //when
+        WebTestClient.ResponseSpec result = client.get().uri("/api/v1/membership/detail?membershipType=NAVER")
+                .header(USER_ID_HEADER, "12345")
+                .exchange();
+
+        //then
+        result.expectStatus().isNotFound();
+        ErrorResponse response = errorResponse(result);
+        assertEquals(MembershipError.MEMBERSHIP_NOT_FOUND.name(), response.getCode());
+    }
+
+    @Test
+    public void 맴버십삭제성공() {
+        //given
+        given(membershipService.deleteMembership(-1L, "12345")).willReturn(Mono.empty());
+
+        //when
+        WebTestClient.ResponseSpec result = client.delete().uri("/api/v1/membership/-1")
+                .header(USER_ID_HEADER, "12345")
+                .exchange();
+
+        //then
+        result.expectStatus().isNoContent();
+    }
+
+    @Test
+    public void 포인트적립실패_포인트가음수() {
+        //when
+        WebTestClient.ResponseSpec result = client.post().uri("/api/v1/membership/-1/accumulate")
+                .header(USER_ID_HEADER, "12345")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildMembershipRequest(-1, null))
+                .exchange();
+
+        //then
+        result.expectStatus().isBadRequest();
+        verifyNoInteractions(membershipService);
+    }
+
+    @Test
+    public void 포인트적립실패_본인이아님() {
+        //given
+        given(membershipService.accumulatePoint(-1L, "12345", 10000))
+                .willReturn(Mono.error(new MembershipException(MembershipError.NOT_MEMBERSHIP_OWNER)));
+
+        //when
+        WebTestClient.ResponseSpec result = client.post().uri("/api/v1/membership/-1/accumulate")
+                .header(USER_ID_HEADER, "12345")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildMembershipRequest(10000, null))
+                .exchange();
+
+        //then
+        result.expectStatus().isBadRequest();
+        ErrorResponse response = errorResponse(result);
+        assertEquals(MembershipError.NOT_MEMBERSHIP_OWNER.name(), response.getCode());
+    }
+
+    @Test
+    public void 포인트적립성공() {
+        //given
+        given(membershipService.accumulatePoint(-1L, "12345", 10000)).willReturn(Mono.empty());
+
+        //when
+        WebTestClient.ResponseSpec result = client.post().uri("/api/v1/membership/-1/accumulate")
+                .header(USER_ID_HEADER, "12345")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(buildMembershipRequest(10000, null))
+                .exchange();
+
+        //then
+        result.expectStatus().isOk();
+    }
+
+    @Test
+    public void 처리중예외는_UNKNOWN_EXCEPTION으로응답() {
+        //given
+        given(membershipService.getMembership("12345", MembershipType.NAVER))
+                .willReturn(Mono.error(new IllegalStateException("boom")));
+
+        //when
+        WebTestClient.ResponseSpec result = client.get().uri("/api/v1/membership/detail?membershipType=NAVER")
+                .header(USER_ID_HEADER, "12345")
+                .exchange();
+
+        //then
+        result.expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        ErrorResponse response = errorResponse(result);
+        assertEquals(MembershipError.UNKNOWN_EXCEPTION.name(), response.getCode());
+    }
+
+    private ErrorResponse errorResponse(WebTestClient.ResponseSpec result) {
+        byte[] body = result.expectBody().returnResult().getResponseBody();
+        return new Gson().fromJson(new String(body, StandardCharsets.UTF_8), ErrorResponse.class);
+    }
+
+    private MembershipRequest buildMembershipRequest(Integer point, MembershipType membershipType) {
+        return MembershipRequest.builder()
+                .point(point)
+                .membershipType(membershipType)
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package xyz.fivemillion.tdd.controller;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.domain.PointTransaction;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.MembershipRequest;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static xyz.fivemillion.tdd.controller.MembershipConstants.USER_ID_HEADER;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+public class MembershipReactiveIntegrationTest {
+
+    @Autowired WebTestClient client;
+    @Autowired ApplicationContext context;
+    @Autowired MembershipRepository membershipRepository;
+    @Autowired PointTransactionRepository pointTransactionRepository;
+
+    private final String userId = "reactiveUser";
+
+    @AfterEach
+    public void cleanUp() {
+        pointTransactionRepository.deleteAll();
+        membershipRepository.deleteAll();
+    }
+
+    @Test
+    public void reactive프로파일은_WebFlux와R2DBC로동작() {
+        //then
+        assertTrue(context instanceof ReactiveWebServerApplicationContext);
+        assertTrue(((ReactiveWebServerApplicationContext) context).getWebServer() instanceof NettyWebServer);
+        assertFalse(context.containsBean("membershipController"));
+        assertTrue(context.containsBean("membershipReactiveController"));
+    }
+
+    @Test
+    public void 맴버십등록후_상세와목록조회() {
+        //given
+        MembershipAddResponse added = addMembership(userId, MembershipType.NAVER, 10000);
+
+        //when
+        MembershipDetailResponse detail = client.get().uri("/api/v1/membership/detail?membershipType=NAVER")
+                .header(USER_ID_HEADER, userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(MembershipDetailResponse.class).returnResult().getResponseBody();
+        List<MembershipDetailResponse> list = client.get().uri("/api/v1/membership/list")
+                .header(USER_ID_HEADER, userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MembershipDetailResponse.class).returnResult().getResponseBody();
+
+        //then
+        assertEquals(added.getId(), detail.getId());
+        assertEquals(10000, detail.getPoint());
+        assertNotNull(detail.getCreatedAt());
+        assertEquals(1, list.size());
+        assertEquals(List.of(PointTransactionType.REGISTER), transactionTypes(added.getId()));
+    }
+
+    @Test
+    public void 같은맴버십을다시등록하면_중복오류() {
+        //given
+        addMembership(userId, MembershipType.NAVER, 10000);
+
+        //when
+        WebTestClient.ResponseSpec result = postMembership(userId, MembershipType.NAVER, 10000);
+
+        //then
+        result.expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER.name());
+        assertEquals(1, membershipRepository.count());
+    }
+
+    @Test
+    public void JPA와R2DBC가발급한ID가겹치지않음() {
+        //given
+        Long reactiveId = addMembership(userId, MembershipType.NAVER, 0).getId();
+
+        //when
+        Long jpaId = membershipRepository.save(Membership.builder()
+                .userId(userId)
+                .membershipType(MembershipType.KAKAO)
+                .point(0)
+                .build()).getId();
+        Long nextReactiveId = addMembership(userId, MembershipType.LINE, 0).getId();
+
+        //then
+        assertEquals(3, List.of(reactiveId, jpaId, nextReactiveId).stream().distinct().count());
+    }
+
+    @Test
+    public void 연달아등록하면_시퀀스구간에서연속된ID를받음() {
+        //given
+        Long first = addMembership(userId, MembershipType.NAVER, 100).getId();
+
+        //when
+        Long second = addMembership(userId, MembershipType.KAKAO, 100).getId();
+        Long jpaTransactionId = pointTransactionRepository.save(
+                PointTransaction.of(first, PointTransactionType.ACCUMULATE, 100)).getId();
+        Long third = addMembership(userId, MembershipType.LINE, 100).getId();
+
+        //then
+        assertEquals(List.of(first, first + 1, first + 2), List.of(first, second, third));
+        List<Long> reactiveTransactionIds = pointTransactionRepository.findAll().stream()
+                .filter(transaction -> transaction.getType() == PointTransactionType.REGISTER)
+                .map(PointTransaction::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        Long firstTransactionId = reactiveTransactionIds.get(0);
+        assertEquals(List.of(firstTransactionId, firstTransactionId + 1, firstTransactionId + 2), reactiveTransactionIds);
+        assertFalse(reactiveTransactionIds.contains(jpaTransactionId));
+    }
+
+    @Test
+    public void 포인트적립후_잔액과원장반영() {
+        //given
+        MembershipAddResponse added = addMembership(userId, MembershipType.NAVER, 10000);
+
+        //when
+        client.post().uri("/api/v1/membership/{id}/accumulate", added.getId())
+                .header(USER_ID_HEADER, userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(MembershipRequest.builder().point(10000).build())
+                .exchange()
+                .expectStatus().isOk();
+
+        //then
+        assertEquals(10100, membershipRepository.findById(added.getId()).get().getPoint());
+        assertEquals(List.of(PointTransactionType.REGISTER, PointTransactionType.ACCUMULATE),
+                transactionTypes(added.getId()));
+    }
+
+    @Test
+    public void 다른사용자의맴버십에는적립하지않음() {
+        //given
+        MembershipAddResponse added = addMembership(userId, MembershipType.NAVER, 10000);
+
+        //when
+        WebTestClient.ResponseSpec result = client.post().uri("/api/v1/membership/{id}/accumulate", added.getId())
+                .header(USER_ID_HEADER, "otherUser")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(MembershipRequest.builder().point(10000).build())
+                .exchange();
+
+        //then
+        result.expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo(MembershipError.NOT_MEMBERSHIP_OWNER.name());
+        assertEquals(10000, membershipRepository.findById(added.getId()).get().getPoint());
+        assertEquals(List.of(PointTransactionType.REGISTER), transactionTypes(added.getId()));
+    }
+
+    @Test
+    public void 맴버십삭제후_조회하면없음() {
+        //given
+        MembershipAddResponse added = addMembership(userId, MembershipType.NAVER, 10000);
+
+        //when
+        client.delete().uri("/api/v1/membership/{id}", added.getId())
+                .header(USER_ID_HEADER, userId)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        //then
+        client.get().uri("/api/v1/membership/detail?membershipType=NAVER")
+                .header(USER_ID_HEADER, userId)
+                .exchange()
+                .expectStatus().isNotFound();
+        client.delete().uri("/api/v1/membership/{id}", added.getId())
+                .header(USER_ID_HEADER, userId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private MembershipAddResponse addMembership(String userId, MembershipType membershipType, int point) {
+        byte[] body = postMembership(userId, membershipType, point)
+                .expectStatus().isCreated()
+                .expectBody().returnResult().getResponseBody();
+        return new Gson().fromJson(new String(body, StandardCharsets.UTF_8), MembershipAddResponse.class);
+    }
+
+    private WebTestClient.ResponseSpec postMembership(String userId, MembershipType membershipType, int point) {
+        return client.post().uri("/api/v1/membership")
+                .header(USER_ID_HEADER, userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(MembershipRequest.builder().point(point).membershipType(membershipType).build())
+                .exchange();
+    }
+
+    private List<PointTransactionType> transactionTypes(Long membershipId) {
+        return pointTransactionRepository.findAll().stream()
+                .filter(transaction -> transaction.getMembershipId().equals(membershipId))
+                .sorted(Comparator.comparing(PointTransaction::getId))
+                .map(PointTransaction::getType)
+                .collect(Collectors.toList());
+    }
+}
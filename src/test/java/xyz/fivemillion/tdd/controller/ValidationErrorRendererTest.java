@@ -0,0 +1,50 @@
+package xyz.fivemillion.tdd.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.ObjectError;
+import xyz.fivemillion.tdd.dto.ErrorResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ValidationErrorRendererTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void Jackson직렬화와같은본문() throws Exception {
+        //given
+        List<ObjectError> errors = Arrays.asList(
+                new ObjectError("request", "포인트는 0 이상이어야 함"),
+                new ObjectError("request", "quote \" and \\ backslash\n"),
+                new ObjectError("request", null));
+
+        //when
+        byte[] result = ValidationErrorRenderer.render(errors);
+
+        //then
+        byte[] expected = objectMapper.writeValueAsBytes(new ErrorResponse(
+                HttpStatus.BAD_REQUEST.toString(),
+                "[포인트는 0 이상이어야 함, quote \" and \\ backslash\n, null]"));
+        assertArrayEquals(expected, result);
+    }
+
+    @Test
+    public void 버퍼를재사용해도이전내용이남지않음() {
+        //given
+        ValidationErrorRenderer.render(Collections.singletonList(new ObjectError("request", "a long message ".repeat(200))));
+
+        //when
+        byte[] result = ValidationErrorRenderer.render(Collections.singletonList(new ObjectError("request", "short")));
+
+        //then
+        assertEquals("{\"code\":\"400 BAD_REQUEST\",\"message\":\"[short]\"}", new String(result, StandardCharsets.UTF_8));
+    }
+}
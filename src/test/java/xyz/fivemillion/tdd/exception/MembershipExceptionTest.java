@@ -0,0 +1,20 @@
+package xyz.fivemillion.tdd.exception;
+
+import org.junit.jupiter.api.Test;
+import xyz.fivemillion.tdd.error.MembershipError;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MembershipExceptionTest {
+
+    @Test
+    public void 스택트레이스를채우지않음() {
+        //when
+        MembershipException result = new MembershipException(MembershipError.MEMBERSHIP_NOT_FOUND);
+
+        //then
+        assertEquals(0, result.getStackTrace().length);
+        assertEquals(MembershipError.MEMBERSHIP_NOT_FOUND, result.getErrorCode());
+        assertEquals(MembershipError.MEMBERSHIP_NOT_FOUND.name(), result.getMessage());
+    }
+}
@@ -0,0 +1,249 @@
+package xyz.fivemillion.tdd.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DurableMembershipRepositoryTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    // 1000만 건 복구 시간은 -Dmembership.recovery.rows=10000000 으로 잰다
+    private static final int RECOVERY_ROWS = Integer.getInteger("membership.recovery.rows", 200_000);
+    private static final int BATCH_SIZE = 10_000;
+
+    @Mock
+    private PointTransactionRepository pointTransactionRepository;
+
+    @TempDir
+    Path walDir;
+
+    private DurableMembershipRepository repository;
+
+    @AfterEach
+    public void cleanUp() {
+        if (repository != null)
+            repository.close();
+    }
+
+    @Test
+    public void 재시작후_등록한맴버십복구() {
+        //given
+        repository = open(SEGMENT_SIZE);
+        Membership membership = repository.save(buildMembership("12345", MembershipType.NAVER, 10000));
+
+        //when
+        repository = reopen(SEGMENT_SIZE);
+
+        //then
+        Membership recovered = repository.findById(membership.getId()).get();
+        assertEquals("12345", recovered.getUserId());
+        assertEquals(MembershipType.NAVER, recovered.getMembershipType());
+        assertEquals(10000, recovered.getPoint());
+        assertEquals(membership.getCreatedAt(), recovered.getCreatedAt());
+        assertNotNull(repository.findByUserIdAndMembershipType("12345", MembershipType.NAVER));
+    }
+
+    @Test
+    public void 재시작후_포인트적립과삭제복구() {
+        //given
+        repository = open(SEGMENT_SIZE);
+        Membership naver = repository.save(buildMembership("12345", MembershipType.NAVER, 10000));
+        Membership kakao = repository.save(buildMembership("12345", MembershipType.KAKAO, 10000));
+        repository.addPoint(naver.getId(), "12345", 100);
+        repository.addPoints(Map.of(naver.getId(), 200));
+        repository.deleteByIdAndUserId(kakao.getId(), "12345");
+
+        //when
+        repository = reopen(SEGMENT_SIZE);
+
+        //then
+        assertEquals(10300, repository.findById(naver.getId()).get().getPoint());
+        assertFalse(repository.existsById(kakao.getId()));
+        assertNull(repository.findByUserIdAndMembershipType("12345", MembershipType.KAKAO));
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    public void 재시작후_수정한맴버십복구() {
+        //given
+        repository = open(SEGMENT_SIZE);
+        Membership membership = repository.save(buildMembership("12345", MembershipType.NAVER, 10000));
+        repository.save(Membership.builder()
+                .id(membership.getId())
+                .userId("12345")
+                .membershipType(MembershipType.LINE)
+                .point(5000)
+                .build());
+
+        //when
+        repository = reopen(SEGMENT_SIZE);
+
+        //then
+        Membership recovered = repository.findById(membership.getId()).get();
+        assertEquals(MembershipType.LINE, recovered.getMembershipType());
+        assertEquals(5000, recovered.getPoint());
+        assertNull(repository.findByUserIdAndMembershipType("12345", MembershipType.NAVER));
+        assertNotNull(repository.findByUserIdAndMembershipType("12345", MembershipType.LINE));
+    }
+
+    @Test
+    public void 스냅샷이후변경은WAL에서이어서복구() throws Exception {
+        //given
+        repository = open(SEGMENT_SIZE);
+        List<Membership> memberships = repository.saveAll(buildMemberships(3000));
+        repository.addPoint(memberships.get(0).getId(), memberships.get(0).getUserId(), 100);
+        repository.compact();
+        repository.addPoint(memberships.get(0).getId(), memberships.get(0).getUserId(), 200);
+        repository.deleteById(memberships.get(1).getId());
+
+        //when
+        repository = reopen(SEGMENT_SIZE);
+
+        //then
+        assertEquals(2999, repository.count());
+        assertEquals(300, repository.findById(memberships.get(0).getId()).get().getPoint());
+        assertFalse(repository.existsById(memberships.get(1).getId()));
+        assertEquals(1, filesEndingWith(".snap").size());
+        assertTrue(filesEndingWith(".log").size() <= 2);
+    }
+
+    @Test
+    public void 변경이없으면스냅샷을새로쓰지않음() throws Exception {
+        //given
+        repository = open(SEGMENT_SIZE);
+        repository.save(buildMembership("12345", MembershipType.NAVER, 10000));
+        repository.compact();
+        List<Path> snapshots = filesEndingWith(".snap");
+
+        //when
+        repository.compact();
+
+        //then
+        assertEquals(snapshots, filesEndingWith(".snap"));
+    }
+
+    @Test
+    public void 재시작후_삭제된ID를다시발급하지않음() throws Exception {
+        //given
+        repository = open(SEGMENT_SIZE);
+        repository.save(buildMembership("12345", MembershipType.NAVER, 10000));
+        Membership last = repository.save(buildMembership("12345", MembershipType.KAKAO, 10000));
+        repository.delete(last);
+        repository.compact();
+
+        //when
+        repository = reopen(SEGMENT_SIZE);
+        Membership membership = repository.save(buildMembership("12345", MembershipType.LINE, 10000));
+
+        //then
+        assertTrue(membership.getId() > last.getId());
+    }
+
+    @Test
+    public void 기록할수없는userId는저장하지않음() {
+        //given
+        repository = open(SEGMENT_SIZE);
+        List<Membership> memberships = List.of(
+                buildMembership("12345", MembershipType.NAVER, 10000),
+                buildMembership("1".repeat(MembershipRecordCodec.MAX_USER_ID_BYTES + 1), MembershipType.NAVER, 10000));
+
+        //when
+        assertThrows(DataIntegrityViolationException.class, () -> repository.saveAll(memberships));
+
+        //then
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    public void 쓰다가끊긴스냅샷은무시하고WAL로복구() throws Exception {
+        //given
+        repository = open(SEGMENT_SIZE);
+        Membership membership = repository.save(buildMembership("12345", MembershipType.NAVER, 10000));
+        Files.write(walDir.resolve("membership-snapshot-99.tmp"), new byte[]{1, 2, 3});
+
+        //when
+        repository = reopen(SEGMENT_SIZE);
+
+        //then
+        assertTrue(repository.existsById(membership.getId()));
+        assertTrue(filesEndingWith(".tmp").isEmpty());
+    }
+
+    @Test
+    public void 복구시간측정(TestReporter testReporter) throws Exception {
+        //given
+        int segmentSize = 64 * 1024 * 1024;
+        repository = new DurableMembershipRepository(pointTransactionRepository, 16, walDir, segmentSize, false, 10);
+        int tail = RECOVERY_ROWS / 10;
+        for (int from = 0; from < RECOVERY_ROWS - tail; from += BATCH_SIZE)
+            repository.saveAll(buildMemberships(from, Math.min(from + BATCH_SIZE, RECOVERY_ROWS - tail)));
+        repository.compact();
+        for (int from = RECOVERY_ROWS - tail; from < RECOVERY_ROWS; from += BATCH_SIZE)
+            repository.saveAll(buildMemberships(from, Math.min(from + BATCH_SIZE, RECOVERY_ROWS)));
+
+        //when
+        repository.close();
+        long startedAt = System.nanoTime();
+        repository = open(segmentSize);
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        //then
+        assertEquals(RECOVERY_ROWS, repository.count());
+        testReporter.publishEntry("membership recovery", String.format("%d rows (%d from WAL) in %d ms, %.0f rows/s",
+                RECOVERY_ROWS, tail, elapsedNanos / 1_000_000, RECOVERY_ROWS * 1e9 / elapsedNanos));
+    }
+
+    private DurableMembershipRepository open(int segmentSize) {
+        return new DurableMembershipRepository(pointTransactionRepository, 16, walDir, segmentSize, true, 10);
+    }
+
+    private DurableMembershipRepository reopen(int segmentSize) {
+        repository.close();
+        return open(segmentSize);
+    }
+
+    private List<Path> filesEndingWith(String suffix) throws Exception {
+        try (Stream<Path> files = Files.list(walDir)) {
+            return files.filter(path -> path.toString().endsWith(suffix)).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static List<Membership> buildMemberships(int count) {
+        return buildMemberships(0, count);
+    }
+
+    // 사용자마다 타입별로 하나씩 둔다
+    private static List<Membership> buildMemberships(int from, int to) {
+        MembershipType[] types = MembershipType.values();
+        List<Membership> memberships = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++)
+            memberships.add(buildMembership("user" + i / types.length, types[i % types.length], 0));
+        return memberships;
+    }
+
+    private static Membership buildMembership(String userId, MembershipType membershipType, int point) {
+        return Membership.builder()
+                .userId(userId)
+                .membershipType(membershipType)
+                .point(point)
+                .build();
+    }
+}
@@ -0,0 +1,191 @@
+package xyz.fivemillion.tdd.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.config.InMemoryRepositoryConfig;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MembershipRepositoryTest 의 계약을 메모리 저장소로 다시 돌린다. 테스트 트랜잭션이 롤백되면 그 안의 변경은 되돌아가지만,
+ * 다른 스레드가 트랜잭션 밖에서 바꾼 행은 남으므로 트랜잭션이 끝난 뒤에 직접 비운다.
+ */
+@DataJpaTest(properties = "membership.repository.in-memory.enabled=true")
+@Import(InMemoryRepositoryConfig.class)
+public class InMemoryMembershipRepositoryTest extends MembershipRepositoryTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterTransaction
+    public void cleanUp() {
+        membershipRepository.deleteAll();
+    }
+
+    @Test
+    public void 메모리저장소_주입() {
+        assertTrue(membershipRepository instanceof InMemoryMembershipRepository);
+    }
+
+    @Test
+    public void 일괄저장중_중복이있으면아무것도저장하지않음() {
+        //given
+        membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        List<Membership> memberships = Arrays.asList(
+                buildMembership("12346", MembershipType.NAVER),
+                buildMembership("12345", MembershipType.NAVER));
+
+        //when
+        assertThrows(DataIntegrityViolationException.class, () -> membershipRepository.saveAll(memberships));
+
+        //then
+        assertEquals(1, membershipRepository.count());
+        assertNull(membershipRepository.findByUserIdAndMembershipType("12346", MembershipType.NAVER));
+    }
+
+    @Test
+    public void 삭제후같은타입재등록() {
+        //given
+        Membership membership = membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        membershipRepository.deleteByIdAndUserId(membership.getId(), "12345");
+
+        //when
+        Membership result = membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+
+        //then
+        assertNotEquals(membership.getId(), result.getId());
+        assertEquals(result.getId(),
+                membershipRepository.findByUserIdAndMembershipType("12345", MembershipType.NAVER).getId());
+    }
+
+    @Test
+    public void 동시에포인트적립_유실없음() throws Exception {
+        //given
+        Membership membership = membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                for (int j = 0; j < 1000; j++)
+                    membershipRepository.addPoint(membership.getId(), "12345", 1);
+                return null;
+            }));
+        }
+
+        //when
+        startLatch.countDown();
+        for (Future<?> future : futures)
+            future.get(1, TimeUnit.MINUTES);
+        executorService.shutdown();
+
+        //then
+        assertEquals(10000 + THREAD_COUNT * 1000, membershipRepository.findById(membership.getId()).get().getPoint());
+    }
+
+    @Test
+    public void 트랜잭션이롤백되면_메모리의변경도되돌림() {
+        //given
+        Membership updated = membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        Membership deleted = membershipRepository.save(buildMembership("12347", MembershipType.NAVER));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        //when
+        transactionTemplate.executeWithoutResult(status -> {
+            membershipRepository.save(buildMembership("12346", MembershipType.NAVER));
+            membershipRepository.addPoint(updated.getId(), "12345", 100);
+            membershipRepository.save(Membership.builder()
+                    .id(updated.getId())
+                    .userId("12345")
+                    .membershipType(MembershipType.KAKAO)
+                    .point(20000)
+                    .build());
+            membershipRepository.deleteByIdAndUserId(deleted.getId(), "12347");
+            status.setRollbackOnly();
+        });
+
+        //then
+        assertEquals(2, membershipRepository.count());
+        assertNull(membershipRepository.findByUserIdAndMembershipType("12346", MembershipType.NAVER));
+        assertNull(membershipRepository.findByUserIdAndMembershipType("12345", MembershipType.KAKAO));
+        assertEquals(10000, membershipRepository.findByUserIdAndMembershipType("12345", MembershipType.NAVER).getPoint());
+        assertEquals(deleted.getId(), membershipRepository.findByUserIdAndMembershipType("12347", MembershipType.NAVER).getId());
+    }
+
+    @Test
+    public void 로그에남기지못한적립은_메모리에서되돌림() {
+        //given
+        InMemoryMembershipRepository repository = new InMemoryMembershipRepository(null, 1, new FailingPointLog());
+        Membership membership = repository.save(buildMembership("12345", MembershipType.NAVER));
+
+        //when
+        assertThrows(UncheckedIOException.class, () -> repository.addPoint(membership.getId(), "12345", 100));
+        assertThrows(UncheckedIOException.class, () -> repository.addPoints(Map.of(membership.getId(), 100)));
+
+        //then
+        assertEquals(10000, repository.findById(membership.getId()).get().getPoint());
+    }
+
+    @Test
+    public void 로그에남기지못한잔액변경은_메모리에서되돌림() {
+        //given
+        InMemoryMembershipRepository repository = new InMemoryMembershipRepository(null, 1, new FailingPointLog());
+        Membership membership = repository.save(buildMembership("12345", MembershipType.NAVER));
+
+        //when
+        assertThrows(UncheckedIOException.class, () -> repository.save(Membership.builder()
+                .id(membership.getId())
+                .userId("12345")
+                .membershipType(MembershipType.NAVER)
+                .point(20000)
+                .build()));
+
+        //then
+        assertEquals(10000, repository.findById(membership.getId()).get().getPoint());
+        assertEquals(10000, repository.findDetailByUserIdAndMembershipType("12345", MembershipType.NAVER).getPoint());
+    }
+
+    private Membership buildMembership(String userId, MembershipType membershipType) {
+        return Membership.builder()
+                .userId(userId)
+                .membershipType(membershipType)
+                .point(10000)
+                .build();
+    }
+
+    // 등록은 남기고 포인트 증분만 남기지 못하는 로그
+    private static final class FailingPointLog implements MembershipMutationLog {
+
+        @Override
+        public void pointAdded(long membershipId, int delta, LocalDateTime updatedAt) {
+            throw new UncheckedIOException(new IOException("disk full"));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package xyz.fivemillion.tdd.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.membership.id.initial-value=100001")
+public class MembershipIdGeneratorTest {
+
+    @Autowired MembershipRepository membershipRepository;
+
+    @Test
+    public void 시퀀스는설정한시작값부터할당() {
+        //given
+        Membership membership = Membership.builder()
+                .userId("userId")
+                .membershipType(MembershipType.NAVER)
+                .point(10000)
+                .build();
+
+        //when
+        Membership saved = membershipRepository.save(membership);
+
+        //then
+        assertEquals(100001L, saved.getId());
+    }
+}
@@ -4,12 +4,27 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import xyz.fivemillion.tdd.domain.Membership;
 import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.domain.PointTransaction;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.MembershipExportRow;
+import xyz.fivemillion.tdd.dto.MembershipKey;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,6 +32,8 @@ import static org.junit.jupiter.api.Assertions.*;
 public class MembershipRepositoryTest {
 
     @Autowired MembershipRepository membershipRepository;
+    @Autowired PointTransactionRepository pointTransactionRepository;
+    @Autowired EntityManager entityManager;
 
     @Test
     void 멤버십_레포지토리_연결() {
@@ -64,6 +81,26 @@ public class MembershipRepositoryTest {
        assertEquals(findResult.getPoint(), 10000);
     }
 
+    @Test
+    void 멤버십_중복등록시_유니크제약위반() {
+        //given
+        membershipRepository.save(Membership.builder()
+                .userId("userId")
+                .membershipType(MembershipType.NAVER)
+                .point(10000)
+                .build());
+
+        //when
+        Membership duplicated = Membership.builder()
+                .userId("userId")
+                .membershipType(MembershipType.NAVER)
+                .point(5000)
+                .build();
+
+        //then
+        assertThrows(DataIntegrityViolationException.class, () -> membershipRepository.saveAndFlush(duplicated));
+    }
+
     @Test
     public void 맴버십_조회_size_is_0() {
         //given
@@ -117,4 +154,301 @@ public class MembershipRepositoryTest {
 
         //then
     }
+
+    @Test
+    public void 포인트적립_원자적증가() {
+        //given
+        Membership savedMembership = membershipRepository.save(Membership.builder()
+                .userId("12345")
+                .membershipType(MembershipType.NAVER)
+                .point(10000)
+                .build());
+
+        //when
+        int result = membershipRepository.addPoint(savedMembership.getId(), "12345", 100);
+
+        //then
+        assertEquals(1, result);
+        assertEquals(10100, membershipRepository.findById(savedMembership.getId()).get().getPoint());
+    }
+
+    @Test
+    public void 포인트잔액_원장합계로재계산() {
+        //given
+        Membership membership = membershipRepository.saveAndFlush(buildMembership("12345", MembershipType.NAVER));
+        Membership empty = membershipRepository.saveAndFlush(buildMembership("12345", MembershipType.KAKAO));
+        pointTransactionRepository.saveAllAndFlush(Arrays.asList(
+                PointTransaction.of(membership.getId(), PointTransactionType.REGISTER, 10000),
+                PointTransaction.of(membership.getId(), PointTransactionType.ACCUMULATE, 100),
+                PointTransaction.of(membership.getId(), PointTransactionType.ACCUMULATE, 200)
+        ));
+
+        //when
+        membershipRepository.rebuildPoints(Arrays.asList(membership.getId(), empty.getId()));
+        entityManager.clear();
+
+        //then
+        assertEquals(10300, membershipRepository.findById(membership.getId()).get().getPoint());
+        assertEquals(0, membershipRepository.findById(empty.getId()).get().getPoint());
+    }
+
+    @Test
+    public void 맴버십ID_커서이후조회() {
+        //given
+        Membership first = membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        Membership second = membershipRepository.save(buildMembership("12345", MembershipType.KAKAO));
+        Membership third = membershipRepository.save(buildMembership("12345", MembershipType.LINE));
+
+        //when
+        List<Long> result = membershipRepository.findIdsAfter(first.getId(), PageRequest.of(0, 10));
+
+        //then
+        assertEquals(Arrays.asList(second.getId(), third.getId()), result);
+    }
+
+    @Test
+    public void 포인트적립_존재하지않는맴버십() {
+        //given
+
+        //when
+        int result = membershipRepository.addPoint(-1L, "12345", 100);
+
+        //then
+        assertEquals(0, result);
+    }
+
+    @Test
+    public void 포인트적립_본인맴버십이아님() {
+        //given
+        Membership savedMembership = membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+
+        //when
+        int result = membershipRepository.addPoint(savedMembership.getId(), "12346", 100);
+
+        //then
+        assertEquals(0, result);
+        assertEquals(10000, membershipRepository.findById(savedMembership.getId()).get().getPoint());
+    }
+
+    @Test
+    public void 맴버십_소유자조건삭제() {
+        //given
+        Membership savedMembership = membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+
+        //when
+        int notOwner = membershipRepository.deleteByIdAndUserId(savedMembership.getId(), "12346");
+        int owner = membershipRepository.deleteByIdAndUserId(savedMembership.getId(), "12345");
+
+        //then
+        assertEquals(0, notOwner);
+        assertEquals(1, owner);
+        assertFalse(membershipRepository.existsById(savedMembership.getId()));
+    }
+
+    @Test
+    public void 맴버십타입_소유자조건조회() {
+        //given
+        Membership savedMembership = membershipRepository.save(buildMembership("12345", MembershipType.KAKAO));
+
+        //when
+        MembershipType owner = membershipRepository.findMembershipTypeByIdAndUserId(savedMembership.getId(), "12345");
+        MembershipType notOwner = membershipRepository.findMembershipTypeByIdAndUserId(savedMembership.getId(), "12346");
+
+        //then
+        assertEquals(MembershipType.KAKAO, owner);
+        assertNull(notOwner);
+    }
+
+    @Test
+    public void 맴버십ID_대량저장시연속할당() {
+        //given
+        List<Membership> memberships = new ArrayList<>();
+        for (int i = 0; i < 60; i++)
+            memberships.add(buildMembership("user" + i, MembershipType.NAVER));
+
+        //when
+        List<Membership> result = membershipRepository.saveAllAndFlush(memberships);
+
+        //then
+        Long firstId = result.get(0).getId();
+        for (int i = 0; i < result.size(); i++)
+            assertEquals(firstId + i, result.get(i).getId());
+    }
+
+    @Test
+    public void 맴버십키_사용자목록으로조회() {
+        //given
+        membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        membershipRepository.save(buildMembership("12345", MembershipType.KAKAO));
+        membershipRepository.save(buildMembership("12346", MembershipType.LINE));
+        membershipRepository.save(buildMembership("12347", MembershipType.LINE));
+
+        //when
+        List<MembershipKey> result = membershipRepository.findKeysByUserIdIn(List.of("12345", "12346"));
+
+        //then
+        assertEquals(3, result.size());
+        assertTrue(result.contains(new MembershipKey("12345", MembershipType.KAKAO)));
+        assertTrue(result.contains(new MembershipKey("12346", MembershipType.LINE)));
+    }
+
+    @Test
+    public void 맴버십_커서조회() {
+        //given
+        Membership naverMembership = membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        Membership kakaoMembership = membershipRepository.save(buildMembership("12345", MembershipType.KAKAO));
+        Membership lineMembership = membershipRepository.save(buildMembership("12345", MembershipType.LINE));
+        membershipRepository.save(buildMembership("12346", MembershipType.NAVER));
+
+        //when
+        List<MembershipDetailResponse> firstPage = membershipRepository.findDetailPageByUserId(
+                "12345", 0L, PageRequest.of(0, 2));
+        List<MembershipDetailResponse> secondPage = membershipRepository.findDetailPageByUserId(
+                "12345", firstPage.get(1).getId(), PageRequest.of(0, 2));
+
+        //then
+        assertEquals(2, firstPage.size());
+        assertEquals(naverMembership.getId(), firstPage.get(0).getId());
+        assertEquals(kakaoMembership.getId(), firstPage.get(1).getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(lineMembership.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    public void 맴버십_스트림조회() {
+        //given
+        membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        membershipRepository.save(buildMembership("12345", MembershipType.KAKAO));
+
+        //when
+        List<MembershipDetailResponse> result;
+        try (Stream<MembershipDetailResponse> stream = membershipRepository.streamAllDetailByUserId("12345")) {
+            result = stream.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(2, result.size());
+        assertTrue(result.get(0).getId() < result.get(1).getId());
+    }
+
+    @Test
+    public void 맴버십_내보내기스트림조회() {
+        //given
+        membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        membershipRepository.save(buildMembership("12345", MembershipType.KAKAO));
+        membershipRepository.save(buildMembership("12346", MembershipType.NAVER));
+
+        //when
+        List<MembershipExportRow> result;
+        try (Stream<MembershipExportRow> rows = membershipRepository.streamExportRowsByMembershipType(MembershipType.NAVER)) {
+            result = rows.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(2, result.size());
+        assertEquals("12345", result.get(0).getUserId());
+        assertEquals("12346", result.get(1).getUserId());
+        assertEquals(10000, result.get(1).getPoint());
+    }
+
+    @Test
+    public void 맴버십_상세_프로젝션조회() {
+        //given
+        Membership savedMembership = membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+
+        //when
+        MembershipDetailResponse result =
+                membershipRepository.findDetailByUserIdAndMembershipType("12345", MembershipType.NAVER);
+
+        //then
+        assertNotNull(result);
+        assertEquals(savedMembership.getId(), result.getId());
+        assertEquals(MembershipType.NAVER, result.getMembershipType());
+        assertEquals(10000, result.getPoint());
+        assertNotNull(result.getCreatedAt());
+    }
+
+    @Test
+    public void 맴버십_상세_프로젝션조회_결과없음() {
+        //given
+
+        //when
+        MembershipDetailResponse result =
+                membershipRepository.findDetailByUserIdAndMembershipType("12345", MembershipType.NAVER);
+
+        //then
+        assertNull(result);
+    }
+
+    @Test
+    public void 맴버십_목록_프로젝션조회() {
+        //given
+        membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        membershipRepository.save(buildMembership("12345", MembershipType.KAKAO));
+        membershipRepository.save(buildMembership("12346", MembershipType.NAVER));
+
+        //when
+        List<MembershipDetailResponse> result = membershipRepository.findAllDetailByUserId("12345");
+
+        //then
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void 예제로조회() {
+        //given
+        membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        membershipRepository.save(buildMembership("12345", MembershipType.KAKAO));
+        membershipRepository.save(buildMembership("12346", MembershipType.NAVER));
+        Example<Membership> example = Example.of(
+                Membership.builder().userId("12345").build(),
+                ExampleMatcher.matching().withIgnorePaths("point"));
+
+        //when
+        List<Membership> result = membershipRepository.findAll(example, Sort.by("membershipType"));
+
+        //then
+        assertEquals(2, result.size());
+        assertEquals(MembershipType.KAKAO, result.get(0).getMembershipType());
+        assertEquals(2, membershipRepository.count(example));
+        assertTrue(membershipRepository.exists(example));
+    }
+
+    @Test
+    void 예제로조회_문자열부분일치와대소문자무시() {
+        //given
+        membershipRepository.save(buildMembership("abc123", MembershipType.NAVER));
+        membershipRepository.save(buildMembership("ABC456", MembershipType.NAVER));
+        membershipRepository.save(buildMembership("xyz789", MembershipType.NAVER));
+        Example<Membership> example = Example.of(
+                Membership.builder().userId("bc").point(10000).build(),
+                ExampleMatcher.matching().withMatcher("userId", matcher -> matcher.contains().ignoreCase()));
+
+        //when
+        List<Membership> result = membershipRepository.findAll(example);
+
+        //then
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void 예제로한건조회실패_여러건일치() {
+        //given
+        membershipRepository.save(buildMembership("12345", MembershipType.NAVER));
+        membershipRepository.save(buildMembership("12345", MembershipType.KAKAO));
+        Example<Membership> example = Example.of(
+                Membership.builder().userId("12345").build(),
+                ExampleMatcher.matching().withIgnorePaths("point"));
+
+        //when then
+        assertThrows(IncorrectResultSizeDataAccessException.class, () -> membershipRepository.findOne(example));
+    }
+
+    private Membership buildMembership(String userId, MembershipType membershipType) {
+        return Membership.builder()
+                .userId(userId)
+                .membershipType(membershipType)
+                .point(10000)
+                .build();
+    }
 }
@@ -0,0 +1,226 @@
+package xyz.fivemillion.tdd.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class MembershipWalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final Path PROC_MAPS = Path.of("/proc/self/maps");
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 11, 1, 12, 0, 0, 123_456_789);
+
+    @TempDir
+    Path walDir;
+
+    @Test
+    public void 기록한순서대로다시적용() throws Exception {
+        //given
+        try (MembershipWal wal = openForAppend(0)) {
+            wal.inserted(buildRow(1L));
+            wal.pointAdded(1L, 100, NOW);
+            wal.removed(1L);
+        }
+        Recorder recorder = new Recorder();
+
+        //when
+        long lastLsn = new MembershipWal(walDir, SEGMENT_SIZE, true, 10).replay(0, recorder);
+
+        //then
+        assertEquals(3, lastLsn);
+        assertEquals(List.of("inserted 1 12345 NAVER 10000 " + NOW, "pointAdded 1 100 " + NOW, "removed 1"), recorder.events);
+    }
+
+    @Test
+    public void 세그먼트가차면다음세그먼트에이어서기록() throws Exception {
+        //given
+        try (MembershipWal wal = openForAppend(0)) {
+            for (long id = 1; id <= 200; id++)
+                wal.pointAdded(id, 1, NOW);
+        }
+        Recorder recorder = new Recorder();
+
+        //when
+        long lastLsn = new MembershipWal(walDir, SEGMENT_SIZE, true, 10).replay(0, recorder);
+
+        //then
+        assertEquals(200, lastLsn);
+        assertEquals(200, recorder.events.size());
+        assertTrue(segments(".log").size() > 1);
+    }
+
+    @Test
+    public void 지정한LSN이후만다시적용() throws Exception {
+        //given
+        try (MembershipWal wal = openForAppend(0)) {
+            wal.removed(1L);
+            wal.removed(2L);
+            wal.removed(3L);
+        }
+        Recorder recorder = new Recorder();
+
+        //when
+        new MembershipWal(walDir, SEGMENT_SIZE, true, 10).replay(2, recorder);
+
+        //then
+        assertEquals(List.of("removed 3"), recorder.events);
+    }
+
+    @Test
+    public void CRC가맞지않는레코드부터는적용하지않음() throws Exception {
+        //given
+        try (MembershipWal wal = openForAppend(0)) {
+            wal.removed(1L);
+            wal.removed(2L);
+        }
+        // 두 번째 레코드 본문의 마지막 바이트를 망가뜨린다
+        Path segment = segments(".log").get(0);
+        int recordSize = Integer.BYTES * 2 + Byte.BYTES + Long.BYTES;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xff}),
+                    Integer.BYTES + Long.BYTES + recordSize * 2 - 1);
+        }
+        Recorder recorder = new Recorder();
+
+        //when
+        long lastLsn = new MembershipWal(walDir, SEGMENT_SIZE, true, 10).replay(0, recorder);
+
+        //then
+        assertEquals(1, lastLsn);
+        assertEquals(List.of("removed 1"), recorder.events);
+    }
+
+    @Test
+    public void 다시열면끊긴곳다음부터기록() throws Exception {
+        //given
+        try (MembershipWal wal = openForAppend(0)) {
+            wal.removed(1L);
+        }
+        MembershipWal reopened = new MembershipWal(walDir, SEGMENT_SIZE, true, 10);
+        long lastLsn = reopened.replay(0, new Recorder());
+
+        //when
+        reopened.openForAppend(lastLsn);
+        reopened.removed(2L);
+        reopened.sync();
+        reopened.close();
+
+        //then
+        Recorder recorder = new Recorder();
+        assertEquals(2, new MembershipWal(walDir, SEGMENT_SIZE, true, 10).replay(0, recorder));
+        assertEquals(List.of("removed 1", "removed 2"), recorder.events);
+    }
+
+    @Test
+    public void 끊긴구간뒤의세그먼트는치워둠() throws Exception {
+        //given
+        try (MembershipWal wal = openForAppend(0)) {
+            wal.removed(1L);
+        }
+        Files.write(walDir.resolve("membership-wal-5.log"), new byte[SEGMENT_SIZE]);
+        Recorder recorder = new Recorder();
+
+        //when
+        long lastLsn = new MembershipWal(walDir, SEGMENT_SIZE, true, 10).replay(0, recorder);
+
+        //then
+        assertEquals(1, lastLsn);
+        assertEquals(1, segments(".log").size());
+        assertEquals(1, segments(".discarded").size());
+    }
+
+    @Test
+    public void 스냅샷에담긴세그먼트삭제() throws Exception {
+        //given
+        long lsn;
+        try (MembershipWal wal = openForAppend(0)) {
+            wal.removed(1L);
+            lsn = wal.roll();
+            wal.removed(2L);
+
+            //when
+            wal.deleteSegmentsUpTo(lsn);
+        }
+
+        //then
+        assertEquals(List.of(walDir.resolve("membership-wal-2.log")), segments(".log"));
+    }
+
+    @Test
+    public void 넘어간세그먼트와다시읽은세그먼트는매핑을해제() throws Exception {
+        //given
+        assumeTrue(Files.isReadable(PROC_MAPS));
+        MembershipWal wal = openForAppend(0);
+        wal.removed(1L);
+
+        //when
+        wal.roll();
+        wal.removed(2L);
+        List<String> mappedWhileOpen = mappedSegments();
+        wal.close();
+        new MembershipWal(walDir, SEGMENT_SIZE, true, 10).replay(0, new Recorder());
+
+        //then
+        assertEquals(List.of("membership-wal-2.log"), mappedWhileOpen);
+        assertEquals(List.of(), mappedSegments());
+    }
+
+    private MembershipWal openForAppend(long lastLsn) throws Exception {
+        MembershipWal wal = new MembershipWal(walDir, SEGMENT_SIZE, true, 10);
+        wal.openForAppend(lastLsn);
+        return wal;
+    }
+
+    private List<Path> segments(String suffix) throws Exception {
+        try (Stream<Path> files = Files.list(walDir)) {
+            return files.filter(path -> path.toString().endsWith(suffix)).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private List<String> mappedSegments() throws Exception {
+        try (Stream<String> lines = Files.lines(PROC_MAPS)) {
+            return lines.filter(line -> line.contains(walDir.toString()))
+                    .map(line -> Path.of(line.substring(line.indexOf('/'))).getFileName().toString())
+                    .distinct()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static InMemoryMembershipRepository.Row buildRow(long id) {
+        return new InMemoryMembershipRepository.Row(id, "12345", MembershipType.NAVER, 10000, NOW, NOW);
+    }
+
+    private static class Recorder implements MembershipMutationLog {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void inserted(InMemoryMembershipRepository.Row row) {
+            events.add("inserted " + row.id + " " + row.userId + " " + row.membershipType + " " + row.point + " " + row.createdAt);
+        }
+
+        @Override
+        public void pointAdded(long membershipId, int delta, LocalDateTime updatedAt) {
+            events.add("pointAdded " + membershipId + " " + delta + " " + updatedAt);
+        }
+
+        @Override
+        public void removed(long membershipId) {
+            events.add("removed " + membershipId);
+        }
+    }
+}
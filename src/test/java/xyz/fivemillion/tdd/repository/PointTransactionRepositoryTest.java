@@ -0,0 +1,79 @@
+package xyz.fivemillion.tdd.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import xyz.fivemillion.tdd.domain.PointTransaction;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
+import xyz.fivemillion.tdd.dto.PointTransactionResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class PointTransactionRepositoryTest {
+
+    @Autowired PointTransactionRepository pointTransactionRepository;
+
+    @Test
+    public void 포인트원장_대량저장() {
+        //given
+        List<PointTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 250; i++)
+            transactions.add(PointTransaction.of(-1L, PointTransactionType.ACCUMULATE, 100));
+
+        //when
+        List<PointTransaction> result = pointTransactionRepository.saveAllAndFlush(transactions);
+
+        //then
+        assertEquals(250, result.size());
+        assertTrue(result.stream().allMatch(transaction -> transaction.getId() != null));
+        assertTrue(result.stream().allMatch(transaction -> transaction.getCreatedAt() != null));
+    }
+
+    @Test
+    public void 포인트원장_맴버십별최신순페이지조회() {
+        //given
+        pointTransactionRepository.save(PointTransaction.of(-1L, PointTransactionType.REGISTER, 10000));
+        pointTransactionRepository.save(PointTransaction.of(-1L, PointTransactionType.ACCUMULATE, 100));
+        pointTransactionRepository.save(PointTransaction.of(-1L, PointTransactionType.ACCUMULATE, 200));
+        pointTransactionRepository.save(PointTransaction.of(-2L, PointTransactionType.ACCUMULATE, 300));
+
+        //when
+        Slice<PointTransactionResponse> firstPage =
+                pointTransactionRepository.findPageByMembershipId(-1L, PageRequest.of(0, 2));
+        Slice<PointTransactionResponse> lastPage =
+                pointTransactionRepository.findPageByMembershipId(-1L, PageRequest.of(1, 2));
+
+        //then
+        assertEquals(2, firstPage.getContent().size());
+        assertTrue(firstPage.hasNext());
+        assertEquals(200, firstPage.getContent().get(0).getPoint());
+        assertEquals(100, firstPage.getContent().get(1).getPoint());
+
+        assertEquals(1, lastPage.getContent().size());
+        assertFalse(lastPage.hasNext());
+        assertEquals(PointTransactionType.REGISTER, lastPage.getContent().get(0).getType());
+    }
+
+    @Test
+    public void 포인트원장_PK커서이후조회() {
+        //given
+        PointTransaction first = pointTransactionRepository.save(PointTransaction.of(-1L, PointTransactionType.ACCUMULATE, 100));
+        PointTransaction second = pointTransactionRepository.save(PointTransaction.of(-2L, PointTransactionType.ACCUMULATE, 200));
+        PointTransaction third = pointTransactionRepository.save(PointTransaction.of(-1L, PointTransactionType.ACCUMULATE, 300));
+
+        //when
+        List<PointTransaction> result =
+                pointTransactionRepository.findByIdGreaterThanOrderById(first.getId(), PageRequest.of(0, 10));
+
+        //then
+        assertEquals(2, result.size());
+        assertEquals(second.getId(), result.get(0).getId());
+        assertEquals(third.getId(), result.get(1).getId());
+    }
+}
@@ -0,0 +1,49 @@
+package xyz.fivemillion.tdd.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class DirectPointWriterTest {
+
+    @Mock
+    private MembershipRepository membershipRepository;
+
+    @InjectMocks
+    private DirectPointWriter directPointWriter;
+
+    @Test
+    public void 포인트반영성공() {
+        //given
+        given(membershipRepository.addPoint(-1L, "12345", 100)).willReturn(1);
+
+        //when
+        boolean result = directPointWriter.write(-1L, "12345", 100);
+
+        //then
+        assertTrue(result);
+        verify(membershipRepository, times(1)).addPoint(-1L, "12345", 100);
+    }
+
+    @Test
+    public void 포인트반영실패_조건불일치() {
+        //given
+        given(membershipRepository.addPoint(-1L, "12345", 100)).willReturn(0);
+
+        //when
+        boolean result = directPointWriter.write(-1L, "12345", 100);
+
+        //then
+        assertFalse(result);
+    }
+}
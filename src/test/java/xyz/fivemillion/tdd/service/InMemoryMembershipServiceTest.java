@@ -0,0 +1,114 @@
+package xyz.fivemillion.tdd.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
+import xyz.fivemillion.tdd.dto.PointAccumulateBulkRequest;
+import xyz.fivemillion.tdd.dto.PointAccumulateResult;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.repository.InMemoryMembershipRepository;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static xyz.fivemillion.tdd.config.CacheConfig.MEMBERSHIP_CACHE;
+import static xyz.fivemillion.tdd.config.CacheConfig.MEMBERSHIP_LIST_CACHE;
+
+@SpringBootTest(properties = "membership.repository.in-memory.enabled=true")
+public class InMemoryMembershipServiceTest {
+
+    @Autowired MembershipService membershipService;
+    @Autowired MembershipRepository membershipRepository;
+    @Autowired PointTransactionRepository pointTransactionRepository;
+    @Autowired PointBalanceRebuilder pointBalanceRebuilder;
+    @Autowired CacheManager cacheManager;
+
+    private final String userId = "inMemoryUser";
+
+    @AfterEach
+    public void cleanUp() {
+        membershipRepository.deleteAll();
+        pointTransactionRepository.deleteAll();
+        cacheManager.getCache(MEMBERSHIP_CACHE).clear();
+        cacheManager.getCache(MEMBERSHIP_LIST_CACHE).clear();
+    }
+
+    @Test
+    public void 메모리저장소로서비스구동() {
+        assertTrue(membershipRepository instanceof InMemoryMembershipRepository);
+    }
+
+    @Test
+    public void 맴버십등록후조회() {
+        //given
+        MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+
+        //when
+        MembershipDetailResponse result = membershipService.getMembership(userId, MembershipType.NAVER);
+
+        //then
+        assertEquals(membership.getId(), result.getId());
+        assertEquals(10000, result.getPoint());
+        assertNotNull(result.getCreatedAt());
+    }
+
+    @Test
+    public void 맴버십중복등록실패() {
+        //given
+        membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+
+        //when
+        MembershipException result = assertThrows(MembershipException.class,
+                () -> membershipService.addMembership(userId, MembershipType.NAVER, 10000));
+
+        //then
+        assertEquals(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER, result.getErrorCode());
+    }
+
+    @Test
+    public void 포인트적립과일괄적립후_원장으로재계산해도같은잔액() {
+        //given
+        MembershipAddResponse naver = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        MembershipAddResponse kakao = membershipService.addMembership(userId, MembershipType.KAKAO, 0);
+
+        //when
+        membershipService.accumulatePoint(naver.getId(), userId, 10000);
+        List<PointAccumulateResult> results = membershipService.accumulatePoints(userId, Arrays.asList(
+                PointAccumulateBulkRequest.Item.builder().membershipId(kakao.getId()).price(10000).build(),
+                PointAccumulateBulkRequest.Item.builder().membershipId(-1L).price(10000).build()));
+        int naverPoint = membershipService.getMembership(userId, MembershipType.NAVER).getPoint();
+        int kakaoPoint = membershipService.getMembership(userId, MembershipType.KAKAO).getPoint();
+        pointBalanceRebuilder.rebuildAll();
+
+        //then
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(MembershipError.MEMBERSHIP_NOT_FOUND.name(), results.get(1).getCode());
+        assertEquals(10100, naverPoint);
+        assertEquals(100, kakaoPoint);
+        assertEquals(naverPoint, membershipService.getMembership(userId, MembershipType.NAVER).getPoint());
+        assertEquals(kakaoPoint, membershipService.getMembership(userId, MembershipType.KAKAO).getPoint());
+    }
+
+    @Test
+    public void 다른사용자의맴버십삭제실패() {
+        //given
+        MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+
+        //when
+        MembershipException result = assertThrows(MembershipException.class,
+                () -> membershipService.deleteMembership(membership.getId(), "otherUser"));
+
+        //then
+        assertEquals(MembershipError.NOT_MEMBERSHIP_OWNER, result.getErrorCode());
+        assertEquals(1, membershipService.getMembershipList(userId).size());
+    }
+}
@@ -0,0 +1,117 @@
+package xyz.fivemillion.tdd.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipExportRow;
+import xyz.fivemillion.tdd.dto.MembershipFileFormat;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class MembershipExportServiceTest {
+
+    @Mock
+    private MembershipRepository membershipRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MembershipExportService membershipExportService;
+
+    @BeforeEach
+    public void init() {
+        membershipExportService =
+                new MembershipExportService(membershipRepository, transactionManager, new ObjectMapper(), 1);
+    }
+
+    @Test
+    public void CSV내보내기() throws Exception {
+        //given
+        given(membershipRepository.streamExportRowsByMembershipType(MembershipType.NAVER)).willReturn(Stream.of(
+                new MembershipExportRow(1L, "12345", MembershipType.NAVER, 100),
+                new MembershipExportRow(2L, "a,\"b\"", MembershipType.NAVER, 200)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        membershipExportService.prepareExport(MembershipType.NAVER, MembershipFileFormat.CSV).writeTo(outputStream);
+
+        //then
+        assertEquals("id,userId,membershipType,point\n" +
+                        "1,12345,NAVER,100\n" +
+                        "2,\"a,\"\"b\"\"\",NAVER,200\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void NDJSON내보내기_전체() throws Exception {
+        //given
+        given(membershipRepository.streamAllExportRows()).willReturn(Stream.of(
+                new MembershipExportRow(1L, "12345", MembershipType.NAVER, 100),
+                new MembershipExportRow(2L, "12345", MembershipType.KAKAO, 200)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        membershipExportService.prepareExport(null, MembershipFileFormat.NDJSON).writeTo(outputStream);
+
+        //then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":2,\"userId\":\"12345\",\"membershipType\":\"KAKAO\",\"point\":200}", lines[1]);
+    }
+
+    @Test
+    public void 내보내기실패_동시실행수초과() {
+        //given
+        membershipExportService.prepareExport(null, MembershipFileFormat.CSV);
+
+        //when
+        MembershipException result = assertThrows(MembershipException.class, () ->
+                membershipExportService.prepareExport(null, MembershipFileFormat.CSV));
+
+        //then
+        assertEquals(MembershipError.EXPORT_BUSY, result.getErrorCode());
+    }
+
+    @Test
+    public void 내보내기가끝나면_다시실행가능() throws Exception {
+        //given
+        given(membershipRepository.streamAllExportRows()).willReturn(Stream.empty());
+        membershipExportService.prepareExport(null, MembershipFileFormat.CSV).writeTo(new ByteArrayOutputStream());
+
+        //when
+        MembershipExport result = membershipExportService.prepareExport(null, MembershipFileFormat.CSV);
+
+        //then
+        assertNotNull(result);
+    }
+
+    @Test
+    public void 실행하지못하고닫으면_다시실행가능() {
+        //given
+        MembershipExport export = membershipExportService.prepareExport(null, MembershipFileFormat.CSV);
+
+        //when
+        export.close();
+        export.close();
+
+        //then
+        assertNotNull(membershipExportService.prepareExport(null, MembershipFileFormat.CSV));
+        assertThrows(MembershipException.class, () -> membershipExportService.prepareExport(null, MembershipFileFormat.CSV));
+    }
+}
@@ -0,0 +1,285 @@
+package xyz.fivemillion.tdd.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.domain.JobCheckpoint;
+import xyz.fivemillion.tdd.domain.Membership;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipFileFormat;
+import xyz.fivemillion.tdd.dto.MembershipImportResponse;
+import xyz.fivemillion.tdd.dto.MembershipKey;
+import xyz.fivemillion.tdd.error.MembershipError;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.repository.JobCheckpointRepository;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class MembershipImportServiceTest {
+
+    @Mock
+    private MembershipRepository membershipRepository;
+
+    @Mock
+    private PointTransactionRepository pointTransactionRepository;
+
+    @Mock
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Mock
+    private MembershipCacheEvictor membershipCacheEvictor;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MembershipImportService membershipImportService;
+
+    @BeforeEach
+    public void init() {
+        membershipImportService = new MembershipImportService(
+                membershipRepository, pointTransactionRepository, jobCheckpointRepository, membershipCacheEvictor,
+                transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(jobCheckpointRepository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    public void CSV가져오기_잘못된행은거부() throws Exception {
+        //given
+        InputStream file = toInputStream(
+                "userId,membershipType,point",
+                "user1,NAVER,100",
+                "user2,PLATINUM,100",
+                "user3,KAKAO,-1",
+                ",LINE,100",
+                "user4,LINE",
+                "user5,LINE,100");
+
+        //when
+        MembershipImportResponse result =
+                membershipImportService.importMemberships("import-1", MembershipFileFormat.CSV, file);
+
+        //then
+        assertEquals(7, result.getLastLine());
+        assertEquals(2, result.getImportedCount());
+        assertEquals(4, result.getRejectedCount());
+        assertEquals(List.of(3L, 4L, 5L, 6L), result.getRejectedRows().stream()
+                .map(MembershipImportResponse.RejectedRow::getLine)
+                .collect(Collectors.toList()));
+        assertEquals(MembershipImportResponse.RejectedRow.INVALID_FORMAT, result.getRejectedRows().get(3).getCode());
+    }
+
+    @Test
+    public void NDJSON가져오기() throws Exception {
+        //given
+        InputStream file = toInputStream(
+                "{\"userId\":\"user1\",\"membershipType\":\"NAVER\",\"point\":100}",
+                "",
+                "{\"userId\":\"user2\",\"membershipType\":null,\"point\":100}",
+                "{not json}");
+
+        //when
+        MembershipImportResponse result =
+                membershipImportService.importMemberships("import-1", MembershipFileFormat.NDJSON, file);
+
+        //then
+        assertEquals(1, result.getImportedCount());
+        assertEquals(2, result.getRejectedCount());
+        assertEquals(MembershipImportResponse.RejectedRow.INVALID_FIELD, result.getRejectedRows().get(0).getCode());
+        assertEquals(MembershipImportResponse.RejectedRow.INVALID_FORMAT, result.getRejectedRows().get(1).getCode());
+    }
+
+    @Test
+    public void 가져오기_파일내중복과기등록맴버십은거부() throws Exception {
+        //given
+        given(membershipRepository.findKeysByUserIdIn(anyCollection()))
+                .willReturn(List.of(new MembershipKey("user2", MembershipType.NAVER)));
+        InputStream file = toInputStream(
+                "userId,membershipType,point",
+                "user1,NAVER,100",
+                "user1,NAVER,200",
+                "user2,NAVER,100",
+                "user2,KAKAO,100");
+
+        //when
+        MembershipImportResponse result =
+                membershipImportService.importMemberships("import-1", MembershipFileFormat.CSV, file);
+
+        //then
+        assertEquals(2, result.getImportedCount());
+        assertEquals(2, result.getRejectedCount());
+        assertEquals(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER.name(), result.getRejectedRows().get(0).getCode());
+        assertEquals(3L, result.getRejectedRows().get(0).getLine());
+        assertEquals(4L, result.getRejectedRows().get(1).getLine());
+    }
+
+    @Test
+    public void 가져오기_대조후에등록된맴버십은_행단위로다시등록하여거부() throws Exception {
+        //given
+        given(membershipRepository.saveAll(any())).willAnswer(invocation -> {
+            List<Membership> memberships = invocation.getArgument(0);
+            if (memberships.stream().anyMatch(membership -> membership.getUserId().equals("user2")))
+                throw new DataIntegrityViolationException("Duplicate membership");
+            return memberships;
+        });
+        InputStream file = toInputStream(
+                "userId,membershipType,point",
+                "user1,NAVER,100",
+                "user2,NAVER,100",
+                "user3,NAVER,100");
+
+        //when
+        MembershipImportResponse result =
+                membershipImportService.importMemberships("import-1", MembershipFileFormat.CSV, file);
+
+        //then
+        assertEquals(2, result.getImportedCount());
+        assertEquals(1, result.getRejectedCount());
+        assertEquals(4, result.getLastLine());
+        assertEquals(1, result.getRejectedRows().size());
+        assertEquals(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER.name(), result.getRejectedRows().get(0).getCode());
+        assertEquals(3L, result.getRejectedRows().get(0).getLine());
+        verify(membershipRepository, times(4)).saveAll(any());
+    }
+
+    @Test
+    public void 가져오기_청크단위로커밋하고체크포인트갱신() throws Exception {
+        //given
+        StringBuilder content = new StringBuilder("userId,membershipType,point\n");
+        for (int i = 0; i < 2500; i++)
+            content.append("user").append(i).append(",NAVER,100\n");
+
+        //when
+        MembershipImportResponse result = membershipImportService.importMemberships(
+                "import-1", MembershipFileFormat.CSV, toInputStream(content.toString()));
+
+        //then
+        assertEquals(2500, result.getImportedCount());
+        assertEquals(2501, result.getLastLine());
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(jobCheckpointRepository, times(3)).save(any(JobCheckpoint.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void 가져오기재시도_커밋된줄이후부터등록() throws Exception {
+        //given
+        JobCheckpoint checkpoint = new JobCheckpoint("membership-import:import-1");
+        checkpoint.advance(3, 2, 0);
+        given(jobCheckpointRepository.findById("membership-import:import-1")).willReturn(Optional.of(checkpoint));
+        InputStream file = toInputStream(
+                "userId,membershipType,point",
+                "user1,NAVER,100",
+                "user2,NAVER,100",
+                "user3,NAVER,100");
+
+        //when
+        MembershipImportResponse result =
+                membershipImportService.importMemberships("import-1", MembershipFileFormat.CSV, file);
+
+        //then
+        ArgumentCaptor<List<Membership>> captor = ArgumentCaptor.forClass(List.class);
+        verify(membershipRepository, times(1)).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("user3", captor.getValue().get(0).getUserId());
+        assertEquals(3, result.getImportedCount());
+        assertEquals(4, result.getLastLine());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void 가져오기실패후_같은importId로다시실행하면_실패한청크부터등록() throws Exception {
+        //given
+        Map<String, JobCheckpoint> checkpoints = new HashMap<>();
+        given(jobCheckpointRepository.findById("membership-import:import-1"))
+                .willAnswer(invocation -> Optional.ofNullable(checkpoints.get("membership-import:import-1")));
+        given(jobCheckpointRepository.save(any(JobCheckpoint.class))).willAnswer(invocation -> {
+            JobCheckpoint checkpoint = invocation.getArgument(0);
+            checkpoints.put(checkpoint.getName(), checkpoint);
+            return checkpoint;
+        });
+        given(membershipRepository.saveAll(any()))
+                .willAnswer(invocation -> invocation.getArgument(0))
+                .willThrow(new IllegalStateException("db down"))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        StringBuilder content = new StringBuilder("userId,membershipType,point\n");
+        for (int i = 0; i < 1500; i++)
+            content.append("user").append(i).append(",NAVER,0\n");
+
+        //when
+        assertThrows(IllegalStateException.class, () -> membershipImportService.importMemberships(
+                "import-1", MembershipFileFormat.CSV, toInputStream(content.toString())));
+        MembershipImportResponse result = membershipImportService.importMemberships(
+                "import-1", MembershipFileFormat.CSV, toInputStream(content.toString()));
+
+        //then
+        ArgumentCaptor<List<Membership>> captor = ArgumentCaptor.forClass(List.class);
+        verify(membershipRepository, times(3)).saveAll(captor.capture());
+        assertEquals(500, captor.getAllValues().get(2).size());
+        assertEquals("user1000", captor.getAllValues().get(2).get(0).getUserId());
+        assertEquals(1500, result.getImportedCount());
+        assertEquals(1501, result.getLastLine());
+    }
+
+    @Test
+    public void CSV가져오기실패_필수헤더없음() {
+        //given
+        InputStream file = toInputStream("userId,point", "user1,100");
+
+        //when
+        MembershipException result = assertThrows(MembershipException.class, () ->
+                membershipImportService.importMemberships("import-1", MembershipFileFormat.CSV, file));
+
+        //then
+        assertEquals(MembershipError.INVALID_IMPORT_FILE, result.getErrorCode());
+        verify(membershipRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void 가져오기진행조회실패_존재하지않음() {
+        //given
+
+        //when
+        MembershipException result = assertThrows(MembershipException.class, () ->
+                membershipImportService.getImportProgress("import-1"));
+
+        //then
+        assertEquals(MembershipError.IMPORT_NOT_FOUND, result.getErrorCode());
+    }
+
+    private InputStream toInputStream(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
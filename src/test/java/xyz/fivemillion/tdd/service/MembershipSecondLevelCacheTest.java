@@ -0,0 +1,167 @@
+package xyz.fivemillion.tdd.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.PointAccumulateBulkRequest;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cache;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("l2cache")
+public class MembershipSecondLevelCacheTest {
+
+    @Autowired MembershipService membershipService;
+    @Autowired MembershipRepository membershipRepository;
+    @Autowired PointTransactionRepository pointTransactionRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    private final String userId = "l2cacheUser";
+    private Statistics statistics;
+
+    @BeforeEach
+    public void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        membershipRepository.deleteAll();
+        pointTransactionRepository.deleteAll();
+    }
+
+    @Test
+    public void 반복조회시_SQL없이2차캐시에서응답() {
+        //given
+        MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        membershipRepository.findById(membership.getId());
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        //when
+        membershipRepository.findById(membership.getId());
+        membershipRepository.findById(membership.getId());
+
+        //then
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(hits + 2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    public void 사용자목록반복조회시_SQL없이쿼리캐시에서응답() {
+        //given
+        membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        membershipService.addMembership(userId, MembershipType.KAKAO, 10000);
+        membershipRepository.findAllByUserId(userId);
+        long statements = statistics.getPrepareStatementCount();
+        long queryHits = statistics.getQueryCacheHitCount();
+
+        //when
+        membershipRepository.findAllByUserId(userId);
+        membershipRepository.findAllByUserId(userId);
+
+        //then
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(queryHits + 2, statistics.getQueryCacheHitCount());
+        assertEquals(2, membershipRepository.findAllByUserId(userId).size());
+    }
+
+    @Test
+    public void 포인트적립후_갱신된포인트조회() {
+        //given
+        MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        membershipRepository.findById(membership.getId());
+        membershipRepository.findAllByUserId(userId);
+
+        //when
+        membershipService.accumulatePoint(membership.getId(), userId, 10000);
+
+        //then
+        assertEquals(10100, membershipRepository.findById(membership.getId()).get().getPoint());
+        assertEquals(10100, membershipRepository.findAllByUserId(userId).get(0).getPoint());
+    }
+
+    @Test
+    public void 포인트일괄적립후_갱신된포인트조회() {
+        //given
+        MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        membershipRepository.findById(membership.getId());
+        membershipRepository.findAllByUserId(userId);
+
+        //when
+        membershipService.accumulatePoints(userId, Collections.singletonList(
+                PointAccumulateBulkRequest.Item.builder().membershipId(membership.getId()).price(10000).build()));
+
+        //then
+        assertEquals(10100, membershipRepository.findById(membership.getId()).get().getPoint());
+        assertEquals(10100, membershipRepository.findAllByUserId(userId).get(0).getPoint());
+    }
+
+    @Test
+    public void 맴버십삭제후_조회되지않음() {
+        //given
+        MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        membershipRepository.findById(membership.getId());
+        membershipRepository.findAllByUserId(userId);
+
+        //when
+        membershipService.deleteMembership(membership.getId(), userId);
+
+        //then
+        assertFalse(membershipRepository.findById(membership.getId()).isPresent());
+        assertTrue(membershipRepository.findAllByUserId(userId).isEmpty());
+    }
+
+    @Test
+    public void 포인트적립후_다른사용자의캐시는남음() {
+        //given
+        MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        MembershipAddResponse other = membershipService.addMembership("otherUser", MembershipType.NAVER, 10000);
+        membershipRepository.findById(other.getId());
+        membershipRepository.findAllByUserId("otherUser");
+
+        //when
+        membershipService.accumulatePoint(membership.getId(), userId, 10000);
+
+        //then
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long queryHits = statistics.getQueryCacheHitCount();
+        assertEquals(10000, membershipRepository.findById(other.getId()).get().getPoint());
+        assertEquals(1, membershipRepository.findAllByUserId("otherUser").size());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(hits + 2, statistics.getSecondLevelCacheHitCount());
+        assertEquals(queryHits + 1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void 맴버십삭제후_다른사용자의엔티티캐시는남음() {
+        //given
+        MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        MembershipAddResponse other = membershipService.addMembership("otherUser", MembershipType.NAVER, 10000);
+        membershipRepository.findById(other.getId());
+
+        //when
+        membershipService.deleteMembership(membership.getId(), userId);
+
+        //then
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(membershipRepository.findById(other.getId()).isPresent());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,125 @@
+package xyz.fivemillion.tdd.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.mockito.stubbing.Answer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static xyz.fivemillion.tdd.config.CacheConfig.MEMBERSHIP_CACHE;
+import static xyz.fivemillion.tdd.config.CacheConfig.MEMBERSHIP_LIST_CACHE;
+
+@SpringBootTest
+public class MembershipServiceCacheTest {
+
+    @Autowired MembershipService membershipService;
+    @SpyBean MembershipRepository membershipRepository;
+    @Autowired PointTransactionRepository pointTransactionRepository;
+    @Autowired CacheManager cacheManager;
+
+    private final String userId = "cacheUser";
+
+    @AfterEach
+    public void cleanUp() {
+        membershipRepository.deleteAll();
+        pointTransactionRepository.deleteAll();
+        cacheManager.getCache(MEMBERSHIP_CACHE).clear();
+        cacheManager.getCache(MEMBERSHIP_LIST_CACHE).clear();
+    }
+
+    @Test
+    public void 반복조회시_캐시에서응답() {
+        //given
+        membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        CacheStats before = membershipCacheStats();
+
+        //when
+        membershipService.getMembership(userId, MembershipType.NAVER);
+        membershipService.getMembership(userId, MembershipType.NAVER);
+
+        //then
+        CacheStats after = membershipCacheStats();
+        assertEquals(1, after.missCount() - before.missCount());
+        assertEquals(1, after.hitCount() - before.hitCount());
+    }
+
+    @Test
+    public void 포인트적립후_이전포인트를응답하지않음() {
+        //given
+        MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        membershipService.getMembership(userId, MembershipType.NAVER);
+        membershipService.getMembershipList(userId);
+
+        //when
+        membershipService.accumulatePoint(membership.getId(), userId, 10000);
+
+        //then
+        assertEquals(10100, membershipService.getMembership(userId, MembershipType.NAVER).getPoint());
+        assertEquals(10100, membershipService.getMembershipList(userId).get(0).getPoint());
+    }
+
+    @Test
+    public void 맴버십추가삭제후_목록갱신() {
+        //given
+        MembershipAddResponse naver = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        membershipService.getMembershipList(userId);
+
+        //when
+        membershipService.addMembership(userId, MembershipType.KAKAO, 10000);
+        membershipService.deleteMembership(naver.getId(), userId);
+
+        //then
+        assertEquals(1, membershipService.getMembershipList(userId).size());
+        assertEquals(MembershipType.KAKAO, membershipService.getMembershipList(userId).get(0).getMembershipType());
+    }
+
+    @Test
+    public void 적립커밋전에읽은값은_evict뒤에캐시에남지않음() throws Exception {
+        //given
+        MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch accumulated = new CountDownLatch(1);
+        // 커밋 전 잔액을 읽은 조회가 적립의 커밋과 evict 가 끝날 때까지 캐시에 올리지 못하게 붙잡는다
+        Answer<?> repository = mockingDetails(membershipRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Object result = repository.answer(invocation);
+            loaded.countDown();
+            accumulated.await(1, TimeUnit.SECONDS);
+            return result;
+        }).when(membershipRepository).findDetailByUserIdAndMembershipType(eq(userId), any());
+
+        //when
+        CompletableFuture<Integer> staleRead = CompletableFuture.supplyAsync(
+                () -> membershipService.getMembership(userId, MembershipType.NAVER).getPoint());
+        loaded.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Void> accumulate = CompletableFuture.runAsync(
+                () -> membershipService.accumulatePoint(membership.getId(), userId, 10000));
+        accumulate.thenRun(accumulated::countDown);
+        CompletableFuture.allOf(staleRead, accumulate).get(10, TimeUnit.SECONDS);
+
+        //then
+        assertEquals(10000, staleRead.get());
+        assertEquals(10100, membershipService.getMembership(userId, MembershipType.NAVER).getPoint());
+    }
+
+    private CacheStats membershipCacheStats() {
+        return ((CaffeineCache) cacheManager.getCache(MEMBERSHIP_CACHE)).getNativeCache().stats();
+    }
+}
@@ -0,0 +1,73 @@
+package xyz.fivemillion.tdd.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class MembershipServiceConcurrencyTest {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int ACCUMULATE_PER_THREAD = 200;
+
+    @Autowired MembershipService membershipService;
+    @Autowired MembershipRepository membershipRepository;
+    @Autowired PointTransactionRepository pointTransactionRepository;
+
+    @AfterEach
+    public void cleanUp() {
+        membershipRepository.deleteAll();
+        pointTransactionRepository.deleteAll();
+    }
+
+    @Test
+    public void 동시적립시_포인트유실없음(TestReporter testReporter) throws Exception {
+        //given
+        final String userId = "12345";
+        final MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 0);
+        final ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                for (int j = 0; j < ACCUMULATE_PER_THREAD; j++)
+                    membershipService.accumulatePoint(membership.getId(), userId, 10000);
+                return null;
+            }));
+        }
+
+        //when
+        final long startedAt = System.nanoTime();
+        startLatch.countDown();
+        for (Future<?> future : futures)
+            future.get(1, TimeUnit.MINUTES);
+        final long elapsedNanos = System.nanoTime() - startedAt;
+        executorService.shutdown();
+
+        //then
+        final int totalAccumulate = THREAD_COUNT * ACCUMULATE_PER_THREAD;
+        assertEquals(totalAccumulate * 100,
+                membershipRepository.findById(membership.getId()).get().getPoint());
+
+        testReporter.publishEntry("contended accumulate ops/s",
+                String.format("%.1f (%d ops, %d threads, one row)", totalAccumulate * 1e9 / elapsedNanos, totalAccumulate, THREAD_COUNT));
+    }
+}
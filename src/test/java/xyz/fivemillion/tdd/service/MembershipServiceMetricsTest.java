@@ -0,0 +1,68 @@
+package xyz.fivemillion.tdd.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.exception.MembershipException;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class MembershipServiceMetricsTest {
+
+    @Autowired MembershipService membershipService;
+    @Autowired MembershipRepository membershipRepository;
+    @Autowired PointTransactionRepository pointTransactionRepository;
+    @Autowired MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void cleanUp() {
+        membershipRepository.deleteAll();
+        pointTransactionRepository.deleteAll();
+    }
+
+    @Test
+    public void 맴버십기능별_실행시간기록() {
+        //given
+        long addCount = operationCount("add");
+        long getCount = operationCount("get");
+
+        //when
+        membershipService.addMembership("metricsUser", MembershipType.NAVER, 10000);
+        assertThrows(MembershipException.class,
+                () -> membershipService.getMembership("metricsUser", MembershipType.KAKAO));
+
+        //then
+        assertEquals(addCount + 1, operationCount("add"));
+        assertEquals(getCount + 1, operationCount("get"));
+    }
+
+    @Test
+    public void 레포지토리와커넥션풀지표노출() {
+        //given
+
+        //when
+        membershipService.getMembershipList("metricsUser-" + System.nanoTime());
+
+        //then
+        assertNotNull(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", MembershipRepository.class.getSimpleName())
+                .timer());
+        assertNotNull(meterRegistry.get("hikaricp.connections.pending").gauge());
+    }
+
+    private long operationCount(String operation) {
+        return meterRegistry.find("membership.operation")
+                .tag("operation", operation)
+                .timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
+}
@@ -2,25 +2,48 @@ package xyz.fivemillion.tdd.service;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import xyz.fivemillion.tdd.domain.Membership;
 import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.domain.PointTransaction;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
 import xyz.fivemillion.tdd.dto.MembershipDetailResponse;
 import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipPageResponse;
+import xyz.fivemillion.tdd.dto.MembershipRegistration;
+import xyz.fivemillion.tdd.dto.PointAccumulateBulkRequest;
+import xyz.fivemillion.tdd.dto.PointAccumulateResult;
+import xyz.fivemillion.tdd.dto.PointTransactionPageResponse;
+import xyz.fivemillion.tdd.dto.PointTransactionResponse;
 import xyz.fivemillion.tdd.error.MembershipError;
 import xyz.fivemillion.tdd.exception.MembershipException;
 import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -30,9 +53,21 @@ public class MembershipServiceTest {
     @Mock
     private MembershipRepository membershipRepository;
 
+    @Mock
+    private PointTransactionRepository pointTransactionRepository;
+
     @Mock
     private RatePointService ratePointService;
 
+    @Mock
+    private PointWriter pointWriter;
+
+    @Mock
+    private MembershipCacheEvictor membershipCacheEvictor;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private MembershipService membershipService;
 
@@ -43,8 +78,8 @@ public class MembershipServiceTest {
     @Test
     void 이미_존재하는_멤버십_등록() {
         //given
-        given(membershipRepository.findByUserIdAndMembershipType(userId, membershipType))
-                .willReturn(Membership.builder().build());
+        given(membershipRepository.saveAndFlush(any(Membership.class)))
+                .willThrow(new DataIntegrityViolationException("uk_membership_user_id_membership_type"));
 
         //when
         MembershipException result = assertThrows(MembershipException.class, () -> {
@@ -58,8 +93,7 @@ public class MembershipServiceTest {
     @Test
     void 멤버십_등록_성공() {
         //given
-        given(membershipRepository.findByUserIdAndMembershipType(userId, membershipType)).willReturn(null);
-        given(membershipRepository.save(any(Membership.class))).willReturn(buildMembership());
+        given(membershipRepository.saveAndFlush(any(Membership.class))).willReturn(buildMembership());
 
         //when
         MembershipAddResponse result = membershipService.addMembership(userId, membershipType, point);
@@ -69,8 +103,11 @@ public class MembershipServiceTest {
         assertEquals(result.getMembershipType(), MembershipType.NAVER);
 
         //verify
-        verify(membershipRepository, times(1)).findByUserIdAndMembershipType(userId, membershipType);
-        verify(membershipRepository, times(1)).save(any(Membership.class));
+        verify(membershipRepository, never()).findByUserIdAndMembershipType(userId, membershipType);
+        verify(membershipRepository, times(1)).saveAndFlush(any(Membership.class));
+        verify(pointTransactionRepository, times(1)).save(argThat(transaction ->
+                transaction.getType() == PointTransactionType.REGISTER && transaction.getPoint() == point));
+        verify(membershipCacheEvictor, times(1)).evict(userId);
     }
 
     private Membership buildMembership() {
@@ -85,11 +122,11 @@ public class MembershipServiceTest {
     @Test
     public void 맴버십목록조회() {
         //given
-        given(membershipRepository.findAllByUserId("12345")).willReturn(
+        given(membershipRepository.findAllDetailByUserId("12345")).willReturn(
                 Arrays.asList(
-                        Membership.builder().build(),
-                        Membership.builder().build(),
-                        Membership.builder().build()
+                        MembershipDetailResponse.builder().build(),
+                        MembershipDetailResponse.builder().build(),
+                        MembershipDetailResponse.builder().build()
                 )
         );
 
@@ -100,10 +137,59 @@ public class MembershipServiceTest {
         assertEquals(3, result.size());
     }
 
+    @Test
+    public void 맴버십목록페이지조회_다음페이지있음() {
+        //given
+        given(membershipRepository.findDetailPageByUserId("12345", 0L, PageRequest.of(0, 3)))
+                .willReturn(Arrays.asList(
+                        MembershipDetailResponse.builder().id(1L).build(),
+                        MembershipDetailResponse.builder().id(2L).build(),
+                        MembershipDetailResponse.builder().id(3L).build()
+                ));
+
+        //when
+        MembershipPageResponse result = membershipService.getMembershipPage("12345", null, 2);
+
+        //then
+        assertEquals(2, result.getMemberships().size());
+        assertEquals(2L, result.getNextCursor());
+    }
+
+    @Test
+    public void 맴버십목록페이지조회_마지막페이지() {
+        //given
+        given(membershipRepository.findDetailPageByUserId("12345", 2L, PageRequest.of(0, 3)))
+                .willReturn(Arrays.asList(MembershipDetailResponse.builder().id(3L).build()));
+
+        //when
+        MembershipPageResponse result = membershipService.getMembershipPage("12345", 2L, 2);
+
+        //then
+        assertEquals(1, result.getMemberships().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void 맴버십목록스트림조회() {
+        //given
+        given(membershipRepository.streamAllDetailByUserId("12345")).willReturn(Stream.of(
+                MembershipDetailResponse.builder().id(1L).build(),
+                MembershipDetailResponse.builder().id(2L).build()
+        ));
+        List<MembershipDetailResponse> result = new ArrayList<>();
+
+        //when
+        membershipService.streamMembershipList("12345", result::add);
+
+        //then
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(1).getId());
+    }
+
     @Test
     public void 맴버십상세조회실패_존재하지않음() {
         //given
-        given(membershipRepository.findByUserIdAndMembershipType("12345", MembershipType.NAVER))
+        given(membershipRepository.findDetailByUserIdAndMembershipType("12345", MembershipType.NAVER))
                 .willReturn(null);
 
         //when
@@ -119,8 +205,8 @@ public class MembershipServiceTest {
     @Test
     public void 맴버십상세조회성공() {
         //given
-        given(membershipRepository.findByUserIdAndMembershipType("12345", MembershipType.NAVER)).willReturn(
-                Membership.builder()
+        given(membershipRepository.findDetailByUserIdAndMembershipType("12345", MembershipType.NAVER)).willReturn(
+                MembershipDetailResponse.builder()
                         .id(-1L)
                         .membershipType(MembershipType.NAVER)
                         .point(10000)
@@ -140,7 +226,8 @@ public class MembershipServiceTest {
     @Test
     public void 맴버십삭제실패_존재하지않음() {
         //given
-        given(membershipRepository.findById(-1L)).willReturn(Optional.empty());
+        given(membershipRepository.deleteByIdAndUserId(-1L, "12345")).willReturn(0);
+        given(membershipRepository.existsById(-1L)).willReturn(false);
 
         //when
         MembershipException result =
@@ -153,7 +240,8 @@ public class MembershipServiceTest {
     @Test
     public void 맴버십삭제실패_본인이아님() {
         //given
-        given(membershipRepository.findById(-1L)).willReturn(Optional.ofNullable(buildMembership()));
+        given(membershipRepository.deleteByIdAndUserId(-1L, "12346")).willReturn(0);
+        given(membershipRepository.existsById(-1L)).willReturn(true);
 
         //when
         MembershipException result =
@@ -166,19 +254,23 @@ public class MembershipServiceTest {
     @Test
     public void 맴버십삭제성공() {
         //given
-        given(membershipRepository.findById(-1L)).willReturn(Optional.ofNullable(buildMembership()));
+        given(membershipRepository.deleteByIdAndUserId(-1L, userId)).willReturn(1);
 
         //when
         membershipService.deleteMembership(-1L, userId);
 
         //then
-        verify(membershipRepository, times(1)).deleteById(-1L);
+        verify(membershipRepository, never()).findById(-1L);
+        verify(membershipRepository, never()).existsById(-1L);
+        verify(membershipCacheEvictor, times(1)).evict(userId);
     }
 
     @Test
     public void 포인트적립실패_존재하지않음() {
         //given
-        given(membershipRepository.findById(-1L)).willReturn(Optional.empty());
+        given(ratePointService.calculateAmount(10000)).willReturn(100);
+        given(pointWriter.write(-1L, "12345", 100)).willReturn(false);
+        given(membershipRepository.existsById(-1L)).willReturn(false);
 
         //when
         MembershipException result =
@@ -191,7 +283,9 @@ public class MembershipServiceTest {
     @Test
     public void 포인트적립실패_본인이아님() {
         //given
-        given(membershipRepository.findById(-1L)).willReturn(Optional.ofNullable(buildMembership()));
+        given(ratePointService.calculateAmount(10000)).willReturn(100);
+        given(pointWriter.write(-1L, "12345", 100)).willReturn(false);
+        given(membershipRepository.existsById(-1L)).willReturn(true);
 
         //when
         MembershipException result =
@@ -199,18 +293,206 @@ public class MembershipServiceTest {
 
         //then
         assertEquals(MembershipError.NOT_MEMBERSHIP_OWNER, result.getErrorCode());
+        verify(membershipCacheEvictor, never()).evict("12345");
     }
 
     @Test
     public void 포인트적립성공() {
         //given
-        Membership membership = buildMembership();
-        given(membershipRepository.findById(-1L)).willReturn(Optional.ofNullable(membership));
+        given(ratePointService.calculateAmount(10000)).willReturn(100);
+        given(pointWriter.write(-1L, userId, 100)).willReturn(true);
+
+        //when
+        membershipService.accumulatePoint(-1L, userId, 10000);
+
+        //then
+        verify(membershipRepository, never()).findMembershipTypeByIdAndUserId(-1L, userId);
+        verify(pointWriter, times(1)).write(-1L, userId, 100);
+        verify(pointTransactionRepository, times(1)).save(argThat(transaction ->
+                transaction.getMembershipId() == -1L
+                        && transaction.getType() == PointTransactionType.ACCUMULATE
+                        && transaction.getPoint() == 100));
+        verify(membershipCacheEvictor, times(1)).evict(userId);
+    }
+
+    @Test
+    public void 포인트적립실패_원장에남기지않음() {
+        //given
+        given(ratePointService.calculateAmount(10000)).willReturn(100);
+        given(pointWriter.write(-1L, userId, 100)).willReturn(false);
+
+        //when
+        assertThrows(MembershipException.class, () -> membershipService.accumulatePoint(-1L, userId, 10000));
+
+        //then
+        verify(pointTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    public void 포인트내역조회실패_본인이아님() {
+        //given
+        given(membershipRepository.existsByIdAndUserId(-1L, "12345")).willReturn(false);
+        given(membershipRepository.existsById(-1L)).willReturn(true);
+
+        //when
+        MembershipException result = assertThrows(MembershipException.class,
+                () -> membershipService.getPointTransactions(-1L, "12345", 0, 100));
+
+        //then
+        assertEquals(MembershipError.NOT_MEMBERSHIP_OWNER, result.getErrorCode());
+        verify(pointTransactionRepository, never()).findPageByMembershipId(any(), any());
+    }
+
+    @Test
+    public void 포인트내역조회성공() {
+        //given
+        PointTransactionResponse transaction =
+                new PointTransactionResponse(1L, PointTransactionType.ACCUMULATE, 100, LocalDateTime.now());
+        given(membershipRepository.existsByIdAndUserId(-1L, userId)).willReturn(true);
+        given(pointTransactionRepository.findPageByMembershipId(-1L, PageRequest.of(0, 1000)))
+                .willReturn(new SliceImpl<>(Collections.singletonList(transaction), PageRequest.of(0, 1000), true));
+
+        //when
+        PointTransactionPageResponse result = membershipService.getPointTransactions(-1L, userId, 0, 5000);
+
+        //then
+        assertEquals(1, result.getTransactions().size());
+        assertTrue(result.isHasNext());
+    }
+
+    @Test
+    public void 포인트적립성공_등급별적립률() {
+        //given
+        given(ratePointService.isMembershipTypeDependent()).willReturn(true);
+        given(membershipRepository.findMembershipTypeByIdAndUserId(-1L, userId)).willReturn(MembershipType.NAVER);
+        given(ratePointService.calculateAmount(MembershipType.NAVER, 10000)).willReturn(300);
+        given(pointWriter.write(-1L, userId, 300)).willReturn(true);
 
         //when
         membershipService.accumulatePoint(-1L, userId, 10000);
 
         //then
-        verify(ratePointService, times(1)).calculateAmount(10000);
+        verify(pointWriter, times(1)).write(-1L, userId, 300);
+        verify(membershipCacheEvictor, times(1)).evict(userId);
+    }
+
+    @Test
+    public void 포인트적립실패_등급별적립률_본인이아님() {
+        //given
+        given(ratePointService.isMembershipTypeDependent()).willReturn(true);
+        given(membershipRepository.findMembershipTypeByIdAndUserId(-1L, "12345")).willReturn(null);
+        given(membershipRepository.existsById(-1L)).willReturn(true);
+
+        //when
+        MembershipException result =
+                assertThrows(MembershipException.class, () -> membershipService.accumulatePoint(-1L, "12345", 10000));
+
+        //then
+        assertEquals(MembershipError.NOT_MEMBERSHIP_OWNER, result.getErrorCode());
+        verify(pointWriter, never()).write(any(), any(), anyInt());
+    }
+
+    @Test
+    public void 맴버십대량등록_청크단위트랜잭션() {
+        //given
+        given(transactionTemplate.execute(any())).willAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(membershipRepository.saveAllAndFlush(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        List<MembershipRegistration> registrations = new ArrayList<>();
+        for (int i = 0; i < 2500; i++)
+            registrations.add(buildRegistration("user" + i, MembershipType.NAVER));
+
+        //when
+        List<MembershipAddResponse> result = membershipService.addMemberships(registrations);
+
+        //then
+        assertEquals(2500, result.size());
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(membershipRepository, times(3)).saveAllAndFlush(anyList());
+        verify(membershipCacheEvictor, times(1)).evict("user0");
+    }
+
+    @Test
+    public void 맴버십대량등록실패_중복() {
+        //given
+        given(transactionTemplate.execute(any())).willAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(membershipRepository.saveAllAndFlush(anyList())).willThrow(DataIntegrityViolationException.class);
+
+        //when
+        MembershipException result = assertThrows(MembershipException.class, () -> membershipService.addMemberships(
+                Arrays.asList(buildRegistration(userId, MembershipType.NAVER), buildRegistration(userId, MembershipType.NAVER))));
+
+        //then
+        assertEquals(MembershipError.DUPLICATED_MEMBERSHIP_REGISTER, result.getErrorCode());
+        verify(membershipCacheEvictor, never()).evict(userId);
+    }
+
+    @Test
+    public void 포인트일괄적립_항목별결과() {
+        //given
+        given(transactionTemplate.execute(any())).willAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(membershipRepository.findAllById(anyCollection())).willReturn(Arrays.asList(
+                buildMembership(),
+                Membership.builder().id(-2L).userId("otherUserId").membershipType(MembershipType.KAKAO).build()
+        ));
+        given(ratePointService.calculateAmount(MembershipType.NAVER, 10000)).willReturn(100);
+
+        //when
+        List<PointAccumulateResult> result = membershipService.accumulatePoints(userId, Arrays.asList(
+                buildAccumulateItem(-1L, 10000),
+                buildAccumulateItem(-2L, 10000),
+                buildAccumulateItem(-3L, 10000),
+                buildAccumulateItem(-1L, 10000)
+        ));
+
+        //then
+        assertEquals(4, result.size());
+        assertTrue(result.get(0).isSuccess());
+        assertEquals(MembershipError.NOT_MEMBERSHIP_OWNER.name(), result.get(1).getCode());
+        assertEquals(MembershipError.MEMBERSHIP_NOT_FOUND.name(), result.get(2).getCode());
+        assertTrue(result.get(3).isSuccess());
+
+        verify(pointWriter, times(1)).writeAll(userId, Map.of(-1L, 200));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PointTransaction>> transactions = ArgumentCaptor.forClass(List.class);
+        verify(pointTransactionRepository, times(1)).saveAll(transactions.capture());
+        assertEquals(2, transactions.getValue().size());
+        verify(membershipCacheEvictor, times(1)).evict(userId);
+    }
+
+    @Test
+    public void 포인트일괄적립_청크단위트랜잭션() {
+        //given
+        given(transactionTemplate.execute(any())).willAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        List<PointAccumulateBulkRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < 1200; i++)
+            items.add(buildAccumulateItem(-1L, 10000));
+
+        //when
+        List<PointAccumulateResult> result = membershipService.accumulatePoints(userId, items);
+
+        //then
+        assertEquals(1200, result.size());
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(membershipRepository, times(3)).findAllById(anyCollection());
+    }
+
+    private MembershipRegistration buildRegistration(String userId, MembershipType membershipType) {
+        return MembershipRegistration.builder()
+                .userId(userId)
+                .membershipType(membershipType)
+                .point(10000)
+                .build();
+    }
+
+    private PointAccumulateBulkRequest.Item buildAccumulateItem(Long membershipId, Integer price) {
+        return PointAccumulateBulkRequest.Item.builder()
+                .membershipId(membershipId)
+                .price(price)
+                .build();
     }
 }
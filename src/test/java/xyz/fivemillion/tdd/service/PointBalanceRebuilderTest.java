@@ -0,0 +1,97 @@
+package xyz.fivemillion.tdd.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import xyz.fivemillion.tdd.domain.MembershipType;
+import xyz.fivemillion.tdd.dto.MembershipAddResponse;
+import xyz.fivemillion.tdd.dto.MembershipRegistration;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class PointBalanceRebuilderTest {
+
+    @Autowired PointBalanceRebuilder pointBalanceRebuilder;
+    @Autowired PointBalanceRebuildEndpoint pointBalanceRebuildEndpoint;
+    @Autowired MembershipService membershipService;
+    @Autowired MembershipRepository membershipRepository;
+    @Autowired PointTransactionRepository pointTransactionRepository;
+
+    // 같은 H2 DB 를 쓰는 다른 테스트가 남긴 원장이 있어도 재계산 결과가 흔들리지 않도록 먼저 비운다
+    @BeforeEach
+    @AfterEach
+    public void cleanUp() {
+        membershipRepository.deleteAll();
+        pointTransactionRepository.deleteAll();
+    }
+
+    @Test
+    public void 원장합계로잔액재계산() {
+        //given
+        final String userId = "rebuildUser";
+        final MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        membershipService.accumulatePoint(membership.getId(), userId, 10000);
+        membershipService.accumulatePoint(membership.getId(), userId, 20000);
+        final int expected = membershipService.getMembership(userId, MembershipType.NAVER).getPoint();
+
+        // 원장을 거치지 않은 변경으로 잔액이 어긋난 상태
+        membershipRepository.addPoints(Map.of(membership.getId(), 99999));
+
+        //when
+        final int result = pointBalanceRebuilder.rebuildAll();
+
+        //then
+        assertEquals(1, result);
+        assertEquals(expected, membershipService.getMembership(userId, MembershipType.NAVER).getPoint());
+    }
+
+    @Test
+    public void 여러청크를병렬로재계산() {
+        //given
+        final List<MembershipRegistration> registrations = new ArrayList<>();
+        for (int i = 0; i < 2500; i++)
+            registrations.add(MembershipRegistration.builder()
+                    .userId("rebuildUser" + i)
+                    .membershipType(MembershipType.NAVER)
+                    .point(i)
+                    .build());
+        membershipService.addMemberships(registrations);
+        final Map<Long, Integer> drift = new HashMap<>();
+        membershipRepository.findAll().forEach(membership -> drift.put(membership.getId(), 1));
+        membershipRepository.addPoints(drift);
+
+        //when
+        final int result = pointBalanceRebuilder.rebuildAll();
+
+        //then
+        assertEquals(2500, result);
+        membershipRepository.findAll().forEach(membership ->
+                assertEquals(Integer.parseInt(membership.getUserId().substring("rebuildUser".length())), membership.getPoint()));
+    }
+
+    @Test
+    public void actuator엔드포인트로재계산() {
+        //given
+        final String userId = "rebuildUser";
+        final MembershipAddResponse membership = membershipService.addMembership(userId, MembershipType.NAVER, 10000);
+        final int expected = membershipService.getMembership(userId, MembershipType.NAVER).getPoint();
+        membershipRepository.addPoints(Map.of(membership.getId(), 99999));
+
+        //when
+        final Map<String, Integer> result = pointBalanceRebuildEndpoint.rebuild();
+
+        //then
+        assertEquals(Map.of("rebuilt", 1), result);
+        assertEquals(expected, membershipService.getMembership(userId, MembershipType.NAVER).getPoint());
+    }
+}
@@ -0,0 +1,153 @@
+package xyz.fivemillion.tdd.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.domain.JobCheckpoint;
+import xyz.fivemillion.tdd.domain.PointTransaction;
+import xyz.fivemillion.tdd.domain.PointTransactionType;
+import xyz.fivemillion.tdd.repository.JobCheckpointRepository;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+import xyz.fivemillion.tdd.repository.PointTransactionRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class PointExpirySweeperTest {
+
+    private static final int CHUNK_SIZE = 3;
+
+    @Mock
+    private PointTransactionRepository pointTransactionRepository;
+
+    @Mock
+    private MembershipRepository membershipRepository;
+
+    @Mock
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Mock
+    private MembershipCacheEvictor membershipCacheEvictor;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MeterRegistry meterRegistry;
+    private PointExpirySweeper pointExpirySweeper;
+    private JobCheckpoint checkpoint;
+
+    @BeforeEach
+    public void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        pointExpirySweeper = new PointExpirySweeper(
+                pointTransactionRepository, membershipRepository, jobCheckpointRepository, membershipCacheEvictor,
+                transactionTemplate, meterRegistry, 12, CHUNK_SIZE, 0);
+        checkpoint = new JobCheckpoint(PointExpirySweeper.JOB_NAME);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(jobCheckpointRepository.findById(PointExpirySweeper.JOB_NAME)).thenReturn(Optional.of(checkpoint));
+    }
+
+    @Test
+    public void 만료대상없음() {
+        //given
+        given(pointTransactionRepository.findByIdGreaterThanOrderById(0L, PageRequest.of(0, CHUNK_SIZE)))
+                .willReturn(Collections.singletonList(buildTransaction(1L, -1L, PointTransactionType.ACCUMULATE, 100, 1)));
+
+        //when
+        long result = pointExpirySweeper.sweep();
+
+        //then
+        assertEquals(0, result);
+        verify(membershipRepository, never()).addPoints(anyMap());
+        verify(jobCheckpointRepository, never()).save(any());
+    }
+
+    @Test
+    public void 청크단위로만료하고체크포인트갱신() {
+        //given
+        given(pointTransactionRepository.findByIdGreaterThanOrderById(0L, PageRequest.of(0, CHUNK_SIZE)))
+                .willReturn(Arrays.asList(
+                        buildTransaction(1L, -1L, PointTransactionType.REGISTER, 10000, 14),
+                        buildTransaction(2L, -1L, PointTransactionType.ACCUMULATE, 100, 14),
+                        buildTransaction(3L, -2L, PointTransactionType.ACCUMULATE, 200, 13)));
+        given(pointTransactionRepository.findByIdGreaterThanOrderById(3L, PageRequest.of(0, CHUNK_SIZE)))
+                .willReturn(Arrays.asList(
+                        buildTransaction(4L, -1L, PointTransactionType.ACCUMULATE, 300, 13),
+                        buildTransaction(5L, -2L, PointTransactionType.ACCUMULATE, 400, 1)));
+        given(membershipRepository.findUserIdsByIdIn(any())).willReturn(Arrays.asList("user1", "user2"));
+
+        //when
+        long result = pointExpirySweeper.sweep();
+
+        //then
+        assertEquals(4, result);
+        assertEquals(4L, checkpoint.getLastPosition());
+        assertEquals(4L, checkpoint.getSuccessCount());
+
+        verify(membershipRepository, times(1)).addPoints(Map.of(-1L, -10100, -2L, -200));
+        verify(membershipRepository, times(1)).addPoints(Map.of(-1L, -300));
+        verify(jobCheckpointRepository, times(2)).save(checkpoint);
+        verify(membershipCacheEvictor, times(2)).evict("user1");
+
+        assertEquals(4.0, meterRegistry.get("membership.point.expiry.expired").counter().count());
+        assertEquals(0.0, meterRegistry.get("membership.point.expiry.lag.seconds").gauge().value());
+    }
+
+    @Test
+    public void 만료원장은다시만료하지않음() {
+        //given
+        given(pointTransactionRepository.findByIdGreaterThanOrderById(0L, PageRequest.of(0, CHUNK_SIZE)))
+                .willReturn(Arrays.asList(
+                        buildTransaction(1L, -1L, PointTransactionType.ACCUMULATE, 100, 14),
+                        buildTransaction(2L, -1L, PointTransactionType.EXPIRE, -100, 13)));
+        given(membershipRepository.findUserIdsByIdIn(any())).willReturn(Collections.singletonList("user1"));
+
+        //when
+        pointExpirySweeper.sweep();
+
+        //then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PointTransaction>> expiries = ArgumentCaptor.forClass(List.class);
+        verify(pointTransactionRepository, times(1)).saveAll(expiries.capture());
+        assertEquals(1, expiries.getValue().size());
+        assertEquals(-100, expiries.getValue().get(0).getPoint());
+        assertEquals(2L, checkpoint.getLastPosition());
+        verify(membershipRepository, times(1)).addPoints(eq(Map.of(-1L, -100)));
+    }
+
+    private PointTransaction buildTransaction(
+            Long id, Long membershipId, PointTransactionType type, int point, int monthsAgo) {
+        return PointTransaction.builder()
+                .id(id)
+                .membershipId(membershipId)
+                .type(type)
+                .point(point)
+                .createdAt(LocalDateTime.now().minusMonths(monthsAgo))
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package xyz.fivemillion.tdd.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PointJournalTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    public void 동시에sync로기록해도_모든레코드가남음() throws Exception {
+        //given
+        PointJournal journal = new PointJournal(journalDir, true, 0);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            long membershipId = i;
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                for (int j = 0; j < 500; j++)
+                    journal.append(membershipId, 1);
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures)
+            future.get(1, TimeUnit.MINUTES);
+        executorService.shutdown();
+        Path segment = journal.rotate();
+        journal.close();
+
+        //then
+        Map<Long, Integer> replayed = new HashMap<>();
+        PointJournal.replay(segment, (membershipId, point) -> replayed.merge(membershipId, point, Integer::sum));
+        assertEquals(THREAD_COUNT, replayed.size());
+        replayed.values().forEach(sum -> assertEquals(500, sum));
+    }
+
+    @Test
+    public void 닫힌저널에는기록하지않음() throws IOException {
+        //given
+        PointJournal journal = new PointJournal(journalDir, true, 0);
+        journal.close();
+
+        //when then
+        assertThrows(ClosedChannelException.class, () -> journal.append(-1L, 100));
+    }
+}
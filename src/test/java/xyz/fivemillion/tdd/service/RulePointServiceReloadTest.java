@@ -0,0 +1,74 @@
+package xyz.fivemillion.tdd.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.test.context.SpringBootTest;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {"membership.point.rule.enabled=true", "membership.point.rule.rates.KAKAO=3"})
+public class RulePointServiceReloadTest {
+
+    @Autowired PointService pointService;
+    @Autowired PointRuleEndpoint pointRuleEndpoint;
+
+    @AfterEach
+    public void cleanUp() {
+        pointRuleEndpoint.reset();
+    }
+
+    @Test
+    public void 규칙을바꾸면_새규칙으로적립() {
+        //given
+        assertEquals(300, pointService.calculateAmount(MembershipType.KAKAO, 10000));
+
+        //when
+        pointRuleEndpoint.override("membership.point.rule.rates.KAKAO", "5");
+
+        //then
+        assertEquals(500, pointService.calculateAmount(MembershipType.KAKAO, 10000));
+        assertEquals(100, pointService.calculateAmount(MembershipType.NAVER, 10000));
+    }
+
+    @Test
+    public void 바꾼규칙을되돌리면_이전규칙으로적립() {
+        //given
+        pointRuleEndpoint.override("membership.point.rule.rates.KAKAO", "5");
+
+        //when
+        pointRuleEndpoint.reset();
+
+        //then
+        assertEquals(300, pointService.calculateAmount(MembershipType.KAKAO, 10000));
+    }
+
+    @Test
+    public void 규칙변경실패_읽을수없는값() {
+        //given
+        pointRuleEndpoint.override("membership.point.rule.rates.KAKAO", "5");
+
+        //when
+        assertThrows(InvalidEndpointRequestException.class,
+                () -> pointRuleEndpoint.override("membership.point.rule.rates.KAKAO", "abc"));
+
+        //then
+        assertEquals(500, pointService.calculateAmount(MembershipType.KAKAO, 10000));
+        assertEquals(Map.of("membership.point.rule.rates.KAKAO", "5"), pointRuleEndpoint.overrides());
+    }
+
+    @Test
+    public void 규칙변경실패_적립규칙이아닌설정() {
+        //when
+        assertThrows(InvalidEndpointRequestException.class,
+                () -> pointRuleEndpoint.override("spring.datasource.url", "jdbc:h2:mem:other"));
+
+        //then
+        assertEquals(Map.of(), pointRuleEndpoint.overrides());
+    }
+}
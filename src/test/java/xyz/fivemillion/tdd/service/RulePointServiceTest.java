@@ -0,0 +1,168 @@
+package xyz.fivemillion.tdd.service;
+
+import org.junit.jupiter.api.Test;
+import xyz.fivemillion.tdd.config.PointRuleProperties;
+import xyz.fivemillion.tdd.domain.MembershipType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RulePointServiceTest {
+
+    private static final ZoneId ZONE_ID = ZoneId.of("Asia/Seoul");
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 11, 11, 12, 0);
+
+    private final Clock clock = Clock.fixed(NOW.atZone(ZONE_ID).toInstant(), ZONE_ID);
+
+    @Test
+    public void 규칙이없으면_기본적립률1퍼센트() {
+        //given
+        RulePointService rulePointService = new RulePointService(new PointRuleProperties(), clock);
+
+        //when
+        final int result = rulePointService.calculateAmount(MembershipType.NAVER, 10000);
+
+        //then
+        assertEquals(100, result);
+        assertEquals(100, rulePointService.calculateAmount(10000));
+    }
+
+    @Test
+    public void 맴버십타입별적립률() {
+        //given
+        PointRuleProperties properties = new PointRuleProperties();
+        properties.getRates().put(MembershipType.KAKAO, 3);
+        RulePointService rulePointService = new RulePointService(properties, clock);
+
+        //when
+        final int kakao = rulePointService.calculateAmount(MembershipType.KAKAO, 10000);
+        final int naver = rulePointService.calculateAmount(MembershipType.NAVER, 10000);
+
+        //then
+        assertEquals(300, kakao);
+        assertEquals(100, naver);
+    }
+
+    @Test
+    public void 결제금액구간별배수() {
+        //given
+        PointRuleProperties properties = new PointRuleProperties();
+        properties.getTiers().add(buildTier(50000, 150));
+        properties.getTiers().add(buildTier(100000, 200));
+        RulePointService rulePointService = new RulePointService(properties, clock);
+
+        //then
+        assertEquals(499, rulePointService.calculateAmount(MembershipType.NAVER, 49999));
+        assertEquals(750, rulePointService.calculateAmount(MembershipType.NAVER, 50000));
+        assertEquals(1499, rulePointService.calculateAmount(MembershipType.NAVER, 99999));
+        assertEquals(2000, rulePointService.calculateAmount(MembershipType.NAVER, 100000));
+    }
+
+    @Test
+    public void 프로모션기간에만배수적용() {
+        //given
+        PointRuleProperties properties = new PointRuleProperties();
+        properties.getPromotions().add(buildPromotion(MembershipType.LINE, NOW.minusDays(1), NOW.plusDays(1), 200));
+        properties.getPromotions().add(buildPromotion(MembershipType.LINE, NOW.plusDays(1), NOW.plusDays(2), 500));
+        RulePointService rulePointService = new RulePointService(properties, clock);
+
+        //then
+        assertEquals(200, rulePointService.calculateAmount(MembershipType.LINE, 10000));
+        assertEquals(100, rulePointService.calculateAmount(MembershipType.NAVER, 10000));
+    }
+
+    @Test
+    public void 프로모션경계시각() {
+        //given
+        PointRuleProperties properties = new PointRuleProperties();
+        properties.getPromotions().add(buildPromotion(null, NOW, NOW.plusDays(1), 200));
+
+        //then
+        assertEquals(200, new RulePointService(properties, clock).calculateAmount(MembershipType.NAVER, 10000));
+        assertEquals(100, new RulePointService(properties, Clock.offset(clock, Duration.ofDays(1)))
+                .calculateAmount(MembershipType.NAVER, 10000));
+    }
+
+    @Test
+    public void 겹치는프로모션은배수를곱함() {
+        //given
+        PointRuleProperties properties = new PointRuleProperties();
+        properties.getTiers().add(buildTier(0, 150));
+        properties.getPromotions().add(buildPromotion(null, NOW.minusDays(1), null, 200));
+        properties.getPromotions().add(buildPromotion(MembershipType.NAVER, null, NOW.plusDays(1), 300));
+        RulePointService rulePointService = new RulePointService(properties, clock);
+
+        //then
+        assertEquals(900, rulePointService.calculateAmount(MembershipType.NAVER, 10000));
+        assertEquals(300, rulePointService.calculateAmount(MembershipType.KAKAO, 10000));
+    }
+
+    @Test
+    public void 등급별규칙이있을때만_등급의존() {
+        //given
+        PointRuleProperties flat = new PointRuleProperties();
+        flat.getRates().put(MembershipType.NAVER, 1);
+        PointRuleProperties typed = new PointRuleProperties();
+        typed.getPromotions().add(buildPromotion(MembershipType.KAKAO, NOW.minusDays(1), NOW.plusDays(1), 200));
+
+        //when
+        final boolean flatResult = new RulePointService(flat, clock).isMembershipTypeDependent();
+        final boolean typedResult = new RulePointService(typed, clock).isMembershipTypeDependent();
+
+        //then
+        assertFalse(flatResult);
+        assertTrue(typedResult);
+    }
+
+    @Test
+    public void 규칙재적용() {
+        //given
+        RulePointService rulePointService = new RulePointService(new PointRuleProperties(), clock);
+        PointRuleProperties reloaded = new PointRuleProperties();
+        reloaded.setDefaultRate(5);
+
+        //when
+        rulePointService.reload(reloaded);
+
+        //then
+        assertEquals(500, rulePointService.calculateAmount(MembershipType.NAVER, 10000));
+    }
+
+    @Test
+    public void 잘못된규칙은적용되지않음() {
+        //given
+        RulePointService rulePointService = new RulePointService(new PointRuleProperties(), clock);
+        PointRuleProperties invalid = new PointRuleProperties();
+        invalid.getPromotions().add(buildPromotion(null, NOW.plusDays(1), NOW, 200));
+
+        //when
+        assertThrows(IllegalArgumentException.class, () -> rulePointService.reload(invalid));
+
+        //then
+        assertEquals(100, rulePointService.calculateAmount(MembershipType.NAVER, 10000));
+    }
+
+    private PointRuleProperties.Tier buildTier(int minPrice, int multiplier) {
+        PointRuleProperties.Tier tier = new PointRuleProperties.Tier();
+        tier.setMinPrice(minPrice);
+        tier.setMultiplier(multiplier);
+        return tier;
+    }
+
+    private PointRuleProperties.Promotion buildPromotion(
+            MembershipType membershipType, LocalDateTime start, LocalDateTime end, int multiplier) {
+        PointRuleProperties.Promotion promotion = new PointRuleProperties.Promotion();
+        promotion.setMembershipType(membershipType);
+        promotion.setStart(start);
+        promotion.setEnd(end);
+        promotion.setMultiplier(multiplier);
+        return promotion;
+    }
+}
@@ -0,0 +1,398 @@
+package xyz.fivemillion.tdd.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import xyz.fivemillion.tdd.domain.JobCheckpoint;
+import xyz.fivemillion.tdd.repository.JobCheckpointRepository;
+import xyz.fivemillion.tdd.repository.MembershipRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class WriteBehindPointWriterTest {
+
+    private static final String USER_ID = "12345";
+
+    @Mock
+    private MembershipRepository membershipRepository;
+    @Mock
+    private JobCheckpointRepository jobCheckpointRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private MembershipCacheEvictor membershipCacheEvictor;
+
+    @TempDir
+    Path journalDir;
+
+    private final Map<String, JobCheckpoint> checkpoints = new HashMap<>();
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(jobCheckpointRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(checkpoints.get(invocation.<String>getArgument(0))));
+        lenient().when(jobCheckpointRepository.save(any(JobCheckpoint.class))).thenAnswer(invocation -> {
+            JobCheckpoint checkpoint = invocation.getArgument(0);
+            checkpoints.put(checkpoint.getName(), checkpoint);
+            return checkpoint;
+        });
+    }
+
+    private WriteBehindPointWriter buildWriter(int batchSize) throws Exception {
+        lenient().when(membershipRepository.existsByIdAndUserId(anyLong(), eq(USER_ID))).thenReturn(true);
+        return new WriteBehindPointWriter(membershipRepository, jobCheckpointRepository,
+                new TransactionTemplate(transactionManager), membershipCacheEvictor, journalDir.toString(), false, batchSize);
+    }
+
+    private long lastAppliedSegment() {
+        return checkpoints.get(WriteBehindPointWriter.CHECKPOINT_NAME).getLastPosition();
+    }
+
+    @Test
+    public void 적립은flush전까지반영되지않음() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+
+        //when
+        writer.write(-1L, USER_ID, 100);
+        writer.write(-1L, USER_ID, 200);
+
+        //then
+        verify(membershipRepository, never()).addPoints(anyMap());
+    }
+
+    @Test
+    public void flush시_맴버십별로합산하여반영() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        writer.write(-1L, USER_ID, 100);
+        writer.write(-1L, USER_ID, 200);
+        writer.write(-2L, USER_ID, 300);
+
+        //when
+        writer.flush();
+
+        //then
+        verify(membershipRepository, times(1)).addPoints(Map.of(-1L, 300, -2L, 300));
+    }
+
+    @Test
+    public void 반영실패시_다음flush에재시도() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        writer.write(-1L, USER_ID, 100);
+        given(membershipRepository.addPoints(Map.of(-1L, 100)))
+                .willThrow(new IllegalStateException("db down"))
+                .willReturn(new int[]{1});
+        writer.flush();
+
+        //when
+        writer.flush();
+
+        //then
+        verify(membershipRepository, times(2)).addPoints(Map.of(-1L, 100));
+    }
+
+    @Test
+    public void 재시작시_flush되지않은적립을저널에서복구() throws Exception {
+        //given
+        WriteBehindPointWriter crashed = buildWriter(1000);
+        crashed.write(-1L, USER_ID, 100);
+        crashed.write(-1L, USER_ID, 200);
+
+        //when
+        WriteBehindPointWriter restarted = buildWriter(1000);
+        restarted.replay();
+
+        //then
+        verify(membershipRepository, times(1)).addPoints(Map.of(-1L, 300));
+    }
+
+    @Test
+    public void 복구한저널은다시반영되지않음() throws Exception {
+        //given
+        WriteBehindPointWriter crashed = buildWriter(1000);
+        crashed.write(-1L, USER_ID, 100);
+        buildWriter(1000).replay();
+
+        //when
+        buildWriter(1000).replay();
+
+        //then
+        verify(membershipRepository, times(1)).addPoints(anyMap());
+    }
+
+    @Test
+    public void 본인맴버십이아니면_버퍼에쌓지않음() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        given(membershipRepository.existsByIdAndUserId(-1L, "12346")).willReturn(false);
+
+        //when
+        boolean result = writer.write(-1L, "12346", 100);
+        writer.flush();
+
+        //then
+        assertFalse(result);
+        verify(membershipRepository, never()).addPoints(anyMap());
+    }
+
+    @Test
+    public void 일괄적립은_소유확인없이버퍼에쌓음() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        writer.writeAll(USER_ID, Map.of(-1L, 100, -2L, 200));
+
+        //when
+        writer.flush();
+
+        //then
+        verify(membershipRepository, never()).existsByIdAndUserId(anyLong(), anyString());
+        verify(membershipRepository, times(1)).addPoints(Map.of(-1L, 100, -2L, 200));
+    }
+
+    @Test
+    public void 반영과체크포인트를한트랜잭션에서커밋() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        writer.write(-1L, USER_ID, 100);
+
+        //when
+        writer.flush();
+
+        //then
+        InOrder inOrder = inOrder(transactionManager, membershipRepository, jobCheckpointRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(membershipRepository).addPoints(Map.of(-1L, 100));
+        inOrder.verify(jobCheckpointRepository).save(any(JobCheckpoint.class));
+        inOrder.verify(transactionManager).commit(any());
+        assertEquals(1L, lastAppliedSegment());
+    }
+
+    @Test
+    public void 반영후세그먼트를지우기전에중단되면_재시작시다시반영하지않음() throws Exception {
+        //given
+        WriteBehindPointWriter crashed = buildWriter(1000);
+        crashed.write(-1L, USER_ID, 100);
+        Path applied = journalDir.resolve("point-journal-1.log");
+        byte[] appliedRecords = Files.readAllBytes(applied);
+        crashed.flush();
+        // 반영은 커밋됐지만 세그먼트를 지우지 못한 상태를 만든다
+        Files.write(applied, appliedRecords);
+        crashed.write(-2L, USER_ID, 200);
+
+        //when
+        WriteBehindPointWriter restarted = buildWriter(1000);
+        restarted.replay();
+
+        //then
+        verify(membershipRepository, times(1)).addPoints(Map.of(-1L, 100));
+        verify(membershipRepository, times(1)).addPoints(Map.of(-2L, 200));
+        assertFalse(Files.exists(applied));
+        assertEquals(2L, lastAppliedSegment());
+    }
+
+    @Test
+    public void 세그먼트번호는체크포인트다음부터이어짐() throws Exception {
+        //given
+        checkpoints.put(WriteBehindPointWriter.CHECKPOINT_NAME, new JobCheckpoint(WriteBehindPointWriter.CHECKPOINT_NAME));
+        checkpoints.get(WriteBehindPointWriter.CHECKPOINT_NAME).advance(7L, 0, 0);
+
+        //when
+        WriteBehindPointWriter writer = buildWriter(1000);
+        writer.write(-1L, USER_ID, 100);
+        writer.flush();
+
+        //then
+        verify(membershipRepository, times(1)).addPoints(Map.of(-1L, 100));
+        assertEquals(8L, lastAppliedSegment());
+    }
+
+    @Test
+    public void 합계가int를넘으면_세그먼트와증분을남겨둠() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        writer.write(-1L, USER_ID, Integer.MAX_VALUE);
+        writer.write(-1L, USER_ID, 1);
+
+        //when
+        writer.flush();
+
+        //then
+        verify(membershipRepository, never()).addPoints(anyMap());
+        assertTrue(Files.exists(journalDir.resolve("point-journal-1.log")));
+        assertFalse(checkpoints.containsKey(WriteBehindPointWriter.CHECKPOINT_NAME));
+    }
+
+    @Test
+    public void 반영후_적립한사용자의캐시를비움() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        writer.write(-1L, USER_ID, 100);
+        writer.writeAll("12346", Map.of(-2L, 200));
+
+        //when
+        writer.flush();
+
+        //then
+        InOrder inOrder = inOrder(membershipRepository, membershipCacheEvictor);
+        inOrder.verify(membershipRepository).addPoints(Map.of(-1L, 100, -2L, 200));
+        inOrder.verify(membershipCacheEvictor).evict(USER_ID);
+        verify(membershipCacheEvictor, times(1)).evict("12346");
+    }
+
+    @Test
+    public void 반영실패시_캐시는재시도가성공한뒤에비움() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        writer.write(-1L, USER_ID, 100);
+        given(membershipRepository.addPoints(Map.of(-1L, 100)))
+                .willThrow(new IllegalStateException("db down"))
+                .willReturn(new int[]{1});
+
+        //when
+        writer.flush();
+        verify(membershipCacheEvictor, never()).evict(anyString());
+        writer.flush();
+
+        //then
+        verify(membershipCacheEvictor, times(1)).evict(USER_ID);
+    }
+
+    @Test
+    public void runExclusive는_모아둔적립을반영한뒤실행하고_그동안적립은기다림() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        writer.write(-1L, USER_ID, 100);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+
+        try {
+            //when
+            Future<?> blocked = writer.runExclusive(() -> {
+                verify(membershipRepository, times(1)).addPoints(Map.of(-1L, 100));
+                Future<?> write = executor.submit(() -> {
+                    started.countDown();
+                    writer.write(-2L, USER_ID, 200);
+                });
+                await(started);
+                assertThrows(TimeoutException.class, () -> write.get(100, TimeUnit.MILLISECONDS));
+                return write;
+            });
+
+            //then
+            blocked.get(5, TimeUnit.SECONDS);
+            writer.flush();
+            verify(membershipRepository, times(1)).addPoints(Map.of(-2L, 200));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void 모아둔적립을반영하지못하면_runExclusive를실행하지않음() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        writer.write(-1L, USER_ID, 100);
+        given(membershipRepository.addPoints(Map.of(-1L, 100))).willThrow(new IllegalStateException("db down"));
+        AtomicBoolean executed = new AtomicBoolean();
+
+        //when
+        assertThrows(IllegalStateException.class, () -> writer.runExclusive(() -> executed.getAndSet(true)));
+
+        //then
+        assertFalse(executed.get());
+    }
+
+    @Test
+    public void 트랜잭션이롤백되면_버퍼에쌓지않음() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        given(membershipRepository.existsByIdAndUserId(-1L, USER_ID)).willReturn(true);
+
+        //when
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.write(-1L, USER_ID, 100);
+            writer.writeAll(USER_ID, Map.of(-2L, 200));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        writer.flush();
+
+        //then
+        verify(membershipRepository, never()).addPoints(anyMap());
+    }
+
+    @Test
+    public void 트랜잭션이커밋된뒤에_버퍼에쌓음() throws Exception {
+        //given
+        WriteBehindPointWriter writer = buildWriter(1000);
+        given(membershipRepository.existsByIdAndUserId(-1L, USER_ID)).willReturn(true);
+
+        //when
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.write(-1L, USER_ID, 100);
+            writer.writeAll(USER_ID, Map.of(-2L, 200));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        writer.flush();
+
+        //then
+        verify(membershipRepository, times(1)).addPoints(Map.of(-1L, 100, -2L, 200));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}